@@ -0,0 +1,46 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+/**
+ * A BenchmarkData provides the sample {@link Preference}s used by the benchmarks.
+ *
+ * @author Heiko Scherrer
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    /**
+     * Create a {@code USER} scoped {@link Preference} with all fields set.
+     *
+     * @param i Distinguishes owner and key
+     * @return The instance
+     */
+    public static Preference userPreference(int i) {
+        return Preference.newBuilder()
+                .pKey(String.valueOf(1000 + i))
+                .key("key" + i)
+                .owner("user" + (i % 100))
+                .description("Benchmark preference " + i)
+                .val("value" + i)
+                .defValue("default")
+                .groupName("GLOBAL")
+                .scope(PropertyScope.USER)
+                .type(PreferenceType.STRING)
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openwms.core.preferences.api.PreferencesApi;
+import org.openwms.core.preferences.app.PreferencesModuleConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A PreferencesBurstBenchmark measures the throughput of a burst of concurrent HTTP lookups, like the one at shift change. The requests
+ * are sent to the embedded Tomcat of the application, once with its default pool of platform threads and once with
+ * {@literal spring.threads.virtual.enabled=true}, i.e. a virtual thread per request and the concurrency throttle of the
+ * {@code PreferencesVirtualThreadsConfiguration}. The client always sends all requests of a burst at once, so only the server side
+ * differs.
+ *
+ * @author Heiko Scherrer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PreferencesBurstBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int BURST = 2_000;
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+    private ConfigurableApplicationContext ctx;
+    private ExecutorService executor;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = new SpringApplicationBuilder(PreferencesTestStarter.class, PreferencesModuleConfiguration.class)
+                .profiles("TEST")
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=OFF",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "spring.threads.virtual.enabled=" + virtualThreads
+                )
+                .run();
+        var preferences = new ArrayList<Preference>(ROWS);
+        for (var i = 0; i < ROWS; i++) {
+            var preference = BenchmarkData.userPreference(i);
+            preference.setPKey(null);
+            preferences.add(preference);
+        }
+        ctx.getBean(PreferencesService.class).upsertAll(preferences);
+        baseUrl = "http://localhost:" + ctx.getEnvironment().getRequiredProperty("local.server.port") + PreferencesApi.API_PREFERENCES;
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        executor.close();
+        ctx.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public int burst() {
+        var responses = new ArrayList<CompletableFuture<HttpResponse<Void>>>(BURST);
+        for (var n = 0; n < BURST; n++) {
+            var request = HttpRequest.newBuilder(URI.create(baseUrl + "?user=user" + ThreadLocalRandom.current().nextInt(100))).GET().build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        var failed = 0;
+        for (var response : responses) {
+            failed += response.join().statusCode() == 200 ? 0 : 1;
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openwms.core.preferences.app.PreferencesModuleConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A PreferencesServiceBenchmark measures {@link PreferencesService#findForOwnerAndScopeAndKey(String, PropertyScope, String)} end-to-end,
+ * from the service through the persistence port down to an in-memory H2 database, with and without the Preference cache.
+ *
+ * @author Heiko Scherrer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PreferencesServiceBenchmark {
+
+    private static final int ROWS = 10_000;
+    @Param({"false", "true"})
+    private boolean cacheEnabled;
+    private ConfigurableApplicationContext ctx;
+    private PreferencesService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = new SpringApplicationBuilder(PreferencesTestStarter.class, PreferencesModuleConfiguration.class)
+                .profiles("TEST")
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=OFF",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "owms.preferences.cache.enabled=" + cacheEnabled
+                )
+                .run();
+        service = ctx.getBean(PreferencesService.class);
+        var preferences = new ArrayList<Preference>(ROWS);
+        for (var i = 0; i < ROWS; i++) {
+            var preference = BenchmarkData.userPreference(i);
+            preference.setPKey(null);
+            preferences.add(preference);
+        }
+        service.upsertAll(preferences);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public Optional<Preference> findForOwnerAndScopeAndKey() {
+        var i = ThreadLocalRandom.current().nextInt(ROWS);
+        return service.findForOwnerAndScopeAndKey("user" + (i % 100), PropertyScope.USER, "key" + i);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.file;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A FilePreferencesBenchmark measures the unmarshalling of an initial preferences file, configured the same way as it is read by the
+ * {@link XMLPreferenceDaoImpl}, and the mapping of the unmarshalled preferences with the {@link FilePreferenceMapper}. The file is
+ * generated with {@code size} entries, half of them {@code application} and half {@code user} preferences.
+ *
+ * @author Heiko Scherrer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilePreferencesBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+    private Jaxb2Marshaller unmarshaller;
+    private FilePreferenceMapper mapper;
+    private byte[] file;
+    private Preferences preferences;
+
+    @Setup
+    public void setUp() throws Exception {
+        unmarshaller = new Jaxb2Marshaller();
+        unmarshaller.setContextPath(FilePackage.class.getPackageName());
+        unmarshaller.afterPropertiesSet();
+        mapper = Mappers.getMapper(FilePreferenceMapper.class);
+        var xml = new StringBuilder("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <p:preferences xmlns:p="http://www.openwms.org/schema/preferences">
+                """);
+        for (var i = 0; i < size; i++) {
+            if (i % 2 == 0) {
+                xml.append("""
+                            <application key="key%d" val="value%d" type="STRING">description</application>
+                        """.formatted(i, i));
+            } else {
+                xml.append("""
+                            <user owner="user%d" key="key%d" val="%d" type="INT">description</user>
+                        """.formatted(i % 100, i, i));
+            }
+        }
+        xml.append("</p:preferences>\n");
+        file = xml.toString().getBytes(StandardCharsets.UTF_8);
+        preferences = unmarshal();
+    }
+
+    @Benchmark
+    public Preferences unmarshal() {
+        return (Preferences) unmarshaller.unmarshal(new StreamSource(new ByteArrayInputStream(file)));
+    }
+
+    @Benchmark
+    public void toDomain(Blackhole bh) {
+        for (var preference : preferences.getAll()) {
+            bh.consume(mapper.toDomain(preference));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.jpa;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openwms.core.preferences.BenchmarkData;
+import org.openwms.core.preferences.Preference;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A PreferenceEOMapperBenchmark measures the mapping between {@link Preference} and {@link PreferenceEO}.
+ *
+ * @author Heiko Scherrer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreferenceEOMapperBenchmark {
+
+    private PreferenceEOMapper mapper;
+    private Preference preference;
+    private PreferenceEO eo;
+
+    @Setup
+    public void setUp() {
+        mapper = Mappers.getMapper(PreferenceEOMapper.class);
+        preference = BenchmarkData.userPreference(1);
+        eo = mapper.toEntity(preference);
+    }
+
+    @Benchmark
+    public PreferenceEO toEntity() {
+        return mapper.toEntity(preference);
+    }
+
+    @Benchmark
+    public Preference toDomain() {
+        return mapper.toDomain(eo);
+    }
+
+    @Benchmark
+    public PreferenceEO updateEntity() {
+        return mapper.updateEntity(preference, eo);
+    }
+}
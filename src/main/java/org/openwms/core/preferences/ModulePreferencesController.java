@@ -24,20 +24,24 @@ import org.openwms.core.preferences.api.ModulePreferenceVO;
 import org.openwms.core.preferences.api.PreferencesApi;
 import org.openwms.core.preferences.api.PreferencesConstants;
 import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * A ModulePreferencesController.
+ * A ModulePreferencesController. Replaced by the {@link ReactivePreferencesController} if the Spring profiles {@literal MONGODB} and
+ * {@literal REACTIVE} are both active.
  *
  * @author Heiko Scherrer
  */
+@Profile("!(MONGODB & REACTIVE)")
 @Validated
 @MeasuredRestController
 public class ModulePreferencesController extends AbstractWebController {
@@ -56,29 +60,37 @@ public class ModulePreferencesController extends AbstractWebController {
 
     @GetMapping(value = PreferencesApi.API_PREFERENCES, params = "module")
     public ResponseEntity<List<ModulePreferenceVO>> findByModule(
-            @RequestParam("module") @NotBlank String module
+            @RequestParam("module") @NotBlank String module,
+            WebRequest webRequest
     ) {
+        var preferences = preferencesService.findForOwnerAndScope(module, PropertyScope.MODULE);
+        if (webRequest.checkNotModified(PreferenceETags.of(preferences))) {
+            return null;
+        }
         return ResponseEntity.ok(
-                preferenceVOMapper.toModuleVOList(new ArrayList<>(preferencesService.findForOwnerAndScope(module, PropertyScope.MODULE)))
+                preferenceVOMapper.toModuleVOList(new ArrayList<>(preferences))
         );
     }
 
     @GetMapping(value = PreferencesApi.API_PREFERENCES, params = {"module", "key"})
     public ResponseEntity<ModulePreferenceVO> findByModuleAndKey(
             @RequestParam("module") @NotBlank String module,
-            @RequestParam("key") @NotBlank String key
+            @RequestParam("key") @NotBlank String key,
+            WebRequest webRequest
     ) {
+        var preference = preferencesService.findForOwnerAndScopeAndKey(module, PropertyScope.MODULE, key)
+                .orElseThrow(() ->
+                        new NotFoundException(
+                                translator,
+                                PreferencesConstants.NOT_FOUND_BY_OWNER_AND_SCOPE_AND_KEY,
+                                new Serializable[]{key, module, PropertyScope.MODULE}, key, module, PropertyScope.MODULE
+                        )
+                );
+        if (webRequest.checkNotModified(PreferenceETags.of(preference), PreferenceETags.lastModified(preference))) {
+            return null;
+        }
         return ResponseEntity.ok(
-                preferenceVOMapper.toModuleVO(
-                        preferencesService.findForOwnerAndScopeAndKey(module, PropertyScope.MODULE, key)
-                                .orElseThrow(() ->
-                                        new NotFoundException(
-                                                translator,
-                                                PreferencesConstants.NOT_FOUND_BY_OWNER_AND_SCOPE_AND_KEY,
-                                                new Serializable[]{key, module, PropertyScope.MODULE}, key, module, PropertyScope.MODULE
-                                        )
-                                )
-                )
+                preferenceVOMapper.toModuleVO(preference)
         );
     }
 }
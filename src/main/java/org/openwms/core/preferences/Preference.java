@@ -29,6 +29,8 @@ import java.util.StringJoiner;
  */
 public class Preference implements Serializable {
 
+    /** The version of a Preference that has been updated without reading back the incremented version. */
+    public static final long UNKNOWN_VERSION = -1;
     private String pKey;
     private String key;
     private String owner;
@@ -42,6 +44,9 @@ public class Preference implements Serializable {
     private PreferenceType type;
     private boolean fromFile;
     private LocalDateTime lastModifiedDt;
+    private long ol;
+    /** The value parsed on first access, reset when the value or the type changes. */
+    private transient volatile PreferenceValue typedVal;
 
     public Preference() {
     }
@@ -62,6 +67,7 @@ public class Preference implements Serializable {
         this.type = builder.type;
         this.fromFile = builder.fromFile;
         this.lastModifiedDt = builder.lastModifiedDt;
+        this.ol = builder.ol;
     }
 
     public String getPKey() {
@@ -102,6 +108,48 @@ public class Preference implements Serializable {
 
     public void setVal(String val) {
         this.val = val;
+        this.typedVal = null;
+    }
+
+    /**
+     * Get the value parsed according to the type of this Preference. The value is parsed once and kept with this instance, so a
+     * Preference held in a cache or index is not parsed again.
+     *
+     * @return The parsed value, or {@literal null} if the Preference has no value
+     * @throws IllegalArgumentException if the value is not valid for the type
+     */
+    public PreferenceValue getTypedVal() {
+        var result = typedVal;
+        if (result == null && val != null) {
+            result = PreferenceValue.parse(type, val);
+            typedVal = result;
+        }
+        return result;
+    }
+
+    /**
+     * Take over the value already parsed by the {@code source} Preference, if it has the same value and type. A Preference that has been
+     * validated before it was saved keeps its parsed value this way, also when the persistence layer returns a new instance.
+     *
+     * @param source The Preference that might have parsed the value already
+     */
+    public void adoptTypedVal(Preference source) {
+        var parsed = source.typedVal;
+        if (parsed != null && type == source.type && Objects.equals(val, source.val)) {
+            typedVal = parsed;
+        }
+    }
+
+    /**
+     * Verify that the value of this Preference is valid for its type and within its bounds.
+     *
+     * @throws IllegalArgumentException if the value is not valid
+     */
+    public void validateVal() {
+        var value = getTypedVal();
+        if (value != null) {
+            value.checkRange(minValue, maxValue);
+        }
     }
 
     public String getDefValue() {
@@ -150,6 +198,7 @@ public class Preference implements Serializable {
 
     public void setType(PreferenceType type) {
         this.type = type;
+        this.typedVal = null;
     }
 
     public boolean isFromFile() {
@@ -168,6 +217,18 @@ public class Preference implements Serializable {
         this.lastModifiedDt = lastModifiedDt;
     }
 
+    public long getOl() {
+        return ol;
+    }
+
+    public void setOl(long ol) {
+        this.ol = ol;
+    }
+
+    public boolean hasKnownVersion() {
+        return ol != UNKNOWN_VERSION;
+    }
+
     public PreferenceKey getPrefKey() {
         return new PreferenceKey(this.owner == null ? ":APPLICATION:" : this.owner, this.key, this.scope.name());
     }
@@ -228,6 +289,7 @@ public class Preference implements Serializable {
         private PreferenceType type;
         private boolean fromFile;
         private LocalDateTime lastModifiedDt;
+        private long ol;
 
         private Builder() {
         }
@@ -301,6 +363,11 @@ public class Preference implements Serializable {
             return this;
         }
 
+        public Builder ol(long val) {
+            ol = val;
+            return this;
+        }
+
         public Preference build() {
             return new Preference(this);
         }
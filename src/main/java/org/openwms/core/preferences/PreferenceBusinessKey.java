@@ -0,0 +1,42 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import java.io.Serializable;
+
+/**
+ * A PreferenceBusinessKey identifies a {@link Preference} by its business key, that is the owner, the scope and the key.
+ *
+ * @param owner The owner of the Preference, {@literal null} for {@code APPLICATION} Preferences
+ * @param scope The scope of the Preference
+ * @param key The key of the Preference
+ * @author Heiko Scherrer
+ */
+public record PreferenceBusinessKey(String owner, PropertyScope scope, String key) implements Serializable {
+
+    public static PreferenceBusinessKey of(Preference preference) {
+        return new PreferenceBusinessKey(preference.getOwner(), preference.getScope(), preference.getKey());
+    }
+
+    /**
+     * Create a transient {@link Preference} that only carries the business key, to search for it.
+     *
+     * @return The Preference
+     */
+    public Preference toPreference() {
+        return Preference.newBuilder().owner(owner).scope(scope).key(key).build();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import org.openwms.core.preferences.api.messages.PreferenceMO;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A PreferenceChangeBroadcaster pushes committed Preference changes to all subscribed clients as Server-Sent Events. Each subscriber has
+ * its own bounded buffer that is drained by a virtual thread, so a slow client neither blocks the publishing transaction nor other
+ * subscribers. A subscriber whose buffer overflows receives a final {@code overflow} event and is disconnected, it is expected to catch up
+ * with the changes endpoint and subscribe again. Changes made on other nodes of the cluster are forwarded by the AMQP listener.
+ *
+ * @author Heiko Scherrer
+ */
+@Component
+public class PreferenceChangeBroadcaster {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferenceChangeBroadcaster.class);
+    static final String EVENT_CREATED = "preference.event.created";
+    static final String EVENT_CHANGED = "preference.event.changed";
+    static final String EVENT_DELETED = "preference.event.deleted";
+    static final String EVENT_OVERFLOW = "overflow";
+    private final PreferenceVOMapper preferenceVOMapper;
+    private final PreferencesProperties.Stream properties;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("preferences-stream-", 0).factory();
+
+    PreferenceChangeBroadcaster(PreferenceVOMapper preferenceVOMapper, PreferencesProperties properties) {
+        this.preferenceVOMapper = preferenceVOMapper;
+        this.properties = properties.getStream();
+    }
+
+    /**
+     * Subscribe to the changes of Preferences. All filter criteria are optional, but the changes of {@code USER} Preferences are only sent
+     * to subscribers of one particular owner.
+     *
+     * @param owner Only changes of Preferences of this owner, required to receive the changes of {@code USER} Preferences
+     * @param scope Only changes of Preferences in this scope
+     * @param groupName Only changes of Preferences assigned to this group
+     * @return The emitter the changes are sent to
+     */
+    SseEmitter subscribe(String owner, PropertyScope scope, String groupName) {
+        var emitter = newEmitter();
+        var subscription = new Subscription(emitter, owner, scope == null ? null : scope.name(), groupName);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        subscriptions.add(subscription);
+        subscription.start();
+        LOGGER.debug("Subscribed to Preference changes of owner [{}], scope [{}] and group [{}]", owner, scope, groupName);
+        return emitter;
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(properties.getTimeout().toMillis());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEvent(PreferencesEvent event) {
+        var name = switch (event.getType()) {
+            case CREATED -> EVENT_CREATED;
+            case DELETED -> EVENT_DELETED;
+            case null, default -> EVENT_CHANGED;
+        };
+        broadcast(name, preferenceVOMapper.toMO(event.getSource()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBulkEvent(PreferencesBulkEvent event) {
+        event.getPreferences(PreferenceUpsertResult.Status.CREATED).forEach(p -> broadcast(EVENT_CREATED, preferenceVOMapper.toMO(p)));
+        event.getPreferences(PreferenceUpsertResult.Status.UPDATED).forEach(p -> broadcast(EVENT_CHANGED, preferenceVOMapper.toMO(p)));
+    }
+
+    /**
+     * Send a change to all subscribers interested in it, without waiting for the subscribers to receive it.
+     *
+     * @param name The name of the event, one of the routing keys used on the broker
+     * @param preference The changed Preference
+     */
+    public void broadcast(String name, PreferenceMO preference) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        var notification = new Notification(name, preference);
+        for (var subscription : subscriptions) {
+            if (subscription.accepts(preference)) {
+                subscription.offer(notification);
+            }
+        }
+    }
+
+    int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private record Notification(String name, PreferenceMO preference) {
+
+        SseEmitter.SseEventBuilder toEvent() {
+            var event = SseEmitter.event().name(name).data(preference, MediaType.APPLICATION_JSON);
+            return preference.getpKey() == null ? event : event.id(preference.getpKey());
+        }
+    }
+
+    private final class Subscription implements Runnable {
+
+        private final SseEmitter emitter;
+        private final String owner;
+        private final String scope;
+        private final String groupName;
+        private final BlockingQueue<Notification> buffer;
+        private volatile boolean overflow;
+        private volatile boolean closed;
+        private Thread sender;
+
+        private Subscription(SseEmitter emitter, String owner, String scope, String groupName) {
+            this.emitter = emitter;
+            this.owner = owner;
+            this.scope = scope;
+            this.groupName = groupName;
+            this.buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+        }
+
+        boolean accepts(PreferenceMO preference) {
+            if (owner == null && PropertyScope.USER.name().equals(preference.getScope())) {
+                return false;
+            }
+            return (owner == null || owner.equals(preference.getOwner()))
+                    && (scope == null || scope.equals(preference.getScope()))
+                    && (groupName == null || groupName.equals(preference.getGroupName()));
+        }
+
+        void offer(Notification notification) {
+            if (!buffer.offer(notification)) {
+                overflow = true;
+            }
+        }
+
+        void start() {
+            sender = threadFactory.newThread(this);
+            sender.start();
+        }
+
+        @Override
+        public void run() {
+            var heartbeat = properties.getHeartbeat().toMillis();
+            try {
+                while (!closed) {
+                    if (overflow) {
+                        LOGGER.info("Subscriber of Preference changes falls behind, disconnecting it");
+                        emitter.send(SseEmitter.event().name(EVENT_OVERFLOW).data(EVENT_OVERFLOW));
+                        emitter.complete();
+                        return;
+                    }
+                    var notification = buffer.poll(heartbeat, TimeUnit.MILLISECONDS);
+                    if (notification == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else if (!overflow) {
+                        emitter.send(notification.toEvent());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                LOGGER.debug("Subscriber of Preference changes disconnected: [{}]", e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscriptions.remove(this);
+            if (sender != null && sender != Thread.currentThread()) {
+                sender.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A PreferenceChanges is the delta of {@link Preference}s since a watermark.
+ *
+ * @param changed The Preferences created or updated since the watermark
+ * @param deleted The Preferences deleted since the watermark
+ * @param watermark The watermark to pass with the next request
+ * @param reset Whether the delta is a full snapshot, because the requested watermark was missing or older than the retained tombstones
+ * @author Heiko Scherrer
+ */
+public record PreferenceChanges(List<Preference> changed, List<PreferenceTombstone> deleted, LocalDateTime watermark, boolean reset)
+        implements Serializable {
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+
+/**
+ * A PreferenceETags calculates the strong entity tags and the last modification time of {@link Preference} representations, used to
+ * answer conditional {@code GET} requests before the {@link Preference}s are mapped into their view objects.
+ *
+ * <p>The tag of a single {@link Preference} is built from the persistent key, the optimistic lock version and a SHA-256 digest of all
+ * content fields. The digest keeps the tag strong even if a Preference has been changed without a new version, e.g. by a file import
+ * that replaced the document. The tag of a collection is a digest of the tags of all its elements in the order of their persistent keys, prefixed with the number of elements.
+ * So it changes as soon as any element is created, changed or deleted.</p>
+ *
+ * @author Heiko Scherrer
+ */
+final class PreferenceETags {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private PreferenceETags() {
+    }
+
+    /**
+     * Calculate the entity tag of a single {@link Preference}.
+     *
+     * @param preference The Preference
+     * @return The unquoted strong entity tag
+     */
+    static String of(Preference preference) {
+        var digest = sha256();
+        for (var field : new Object[]{preference.getKey(), preference.getOwner(), preference.getDescription(), preference.getVal(),
+                preference.getDefValue(), preference.getMinValue(), preference.getMaxValue(), preference.getGroupName(),
+                preference.getScope(), preference.getType(), preference.isFromFile()}) {
+            // Each field is terminated, a missing field is marked differently than an empty one
+            if (field == null) {
+                digest.update((byte) 1);
+            } else {
+                digest.update(field.toString().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+        }
+        // An unknown version must not be taken as a valid version by versionOf
+        var version = preference.hasKnownVersion() ? String.valueOf(preference.getOl()) : "u";
+        return "%s-%s-%s".formatted(preference.getPersistentKey(), version, HEX.formatHex(digest.digest(), 0, 16));
+    }
+
+    /**
+     * Calculate the entity tag of a collection of {@link Preference}s.
+     *
+     * @param preferences The Preferences
+     * @return The unquoted strong entity tag
+     */
+    static String of(Collection<Preference> preferences) {
+        var digest = sha256();
+        preferences.stream()
+                .sorted(Comparator.comparing(Preference::getPersistentKey, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEachOrdered(p -> digest.update((of(p) + '\n').getBytes(StandardCharsets.UTF_8)));
+        return preferences.size() + "-" + HEX.formatHex(digest.digest(), 0, 16);
+    }
+
+    /**
+     * Get the optimistic lock version from the entity tag of a single {@link Preference}, as sent by a client with {@code If-Match}.
+     *
+     * @param eTag The entity tag, quoted or not
+     * @return The version, or {@literal -1} if the tag has not been calculated by {@link #of(Preference)}
+     */
+    static long versionOf(String eTag) {
+        var tag = eTag.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        var hashStart = tag.lastIndexOf('-');
+        var versionStart = hashStart > 0 ? tag.lastIndexOf('-', hashStart - 1) : -1;
+        if (versionStart < 0) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(tag, versionStart + 1, hashStart, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Get the time of the last modification of a single {@link Preference} as required by the {@code Last-Modified} header.
+     *
+     * @param preference The Preference
+     * @return The epoch milliseconds, or {@literal -1} if unknown
+     */
+    static long lastModified(Preference preference) {
+        return preference.getLastModifiedDt() == null
+                ? -1
+                : preference.getLastModifiedDt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A PreferenceTombstone remembers a deleted {@link Preference}, so that clients that synchronize the changes since a watermark learn about
+ * the deletion.
+ *
+ * @param pKey The persistent key of the deleted Preference
+ * @param key The key of the deleted Preference
+ * @param owner The owner of the deleted Preference
+ * @param scope The scope of the deleted Preference
+ * @param deletedDt When the Preference has been deleted
+ * @author Heiko Scherrer
+ */
+public record PreferenceTombstone(String pKey, String key, String owner, PropertyScope scope, LocalDateTime deletedDt)
+        implements Serializable {
+
+    public static PreferenceTombstone of(Preference preference, LocalDateTime deletedDt) {
+        return new PreferenceTombstone(preference.getPersistentKey(), preference.getKey(), preference.getOwner(), preference.getScope(),
+                deletedDt);
+    }
+}
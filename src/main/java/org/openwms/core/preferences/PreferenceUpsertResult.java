@@ -0,0 +1,41 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import java.io.Serializable;
+
+/**
+ * A PreferenceUpsertResult is the outcome of a single item of a bulk create or update operation.
+ *
+ * @param preference The Preference as it has been saved, or as it has been passed in case it was rejected
+ * @param status Whether the Preference has been created, updated or rejected
+ * @author Heiko Scherrer
+ */
+public record PreferenceUpsertResult(Preference preference, Status status) implements Serializable {
+
+    public enum Status {
+        /** The Preference did not exist and has been created. */
+        CREATED,
+        /** The Preference did exist and has been updated. */
+        UPDATED,
+        /** The Preference has not been saved because its persistent key does not match the existing one. */
+        REJECTED
+    }
+
+    public boolean isRejected() {
+        return status == Status.REJECTED;
+    }
+}
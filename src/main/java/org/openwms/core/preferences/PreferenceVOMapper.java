@@ -19,11 +19,14 @@ import org.ameba.exception.NotFoundException;
 import org.mapstruct.Mapper;
 import org.openwms.core.preferences.api.ApplicationPreferenceVO;
 import org.openwms.core.preferences.api.ModulePreferenceVO;
+import org.openwms.core.preferences.api.PreferenceChangesVO;
 import org.openwms.core.preferences.api.PreferenceVO;
 import org.openwms.core.preferences.api.RolePreferenceVO;
 import org.openwms.core.preferences.api.UserPreferenceVO;
+import org.openwms.core.preferences.api.messages.PreferenceBulkMO;
 import org.openwms.core.preferences.api.messages.PreferenceMO;
 
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -121,6 +124,15 @@ public abstract class PreferenceVOMapper {
         return sources.stream().map(this::toModuleVO).toList();
     }
 
+    public PreferenceChangesVO toChangesVO(PreferenceChanges source) {
+        return new PreferenceChangesVO(
+                toVOList(source.changed()),
+                source.deleted().stream().map(PreferenceTombstone::pKey).toList(),
+                source.watermark().atZone(ZoneId.systemDefault()).toOffsetDateTime(),
+                source.reset()
+        );
+    }
+
     public Preference toDomain(PreferenceVO source) {
         if (source == null) {
             return null;
@@ -147,10 +159,21 @@ public abstract class PreferenceVOMapper {
         var mo = new PreferenceMO(source.getKey());
         mo.setpKey(source.getPersistentKey());
         mo.setOwner(source.getOwner());
+        mo.setScope(source.getScope() != null ? source.getScope().name() : null);
         mo.setDescription(source.getDescription());
         mo.setVal(source.getVal());
         mo.setGroupName(source.getGroupName());
         mo.setType(source.getType() != null ? source.getType().name() : null);
         return mo;
     }
+
+    public PreferenceBulkMO toBulkMO(PreferencesBulkEvent source) {
+        if (source == null) {
+            return null;
+        }
+        return new PreferenceBulkMO(
+                source.getPreferences(PreferenceUpsertResult.Status.CREATED).stream().map(this::toMO).toList(),
+                source.getPreferences(PreferenceUpsertResult.Status.UPDATED).stream().map(this::toMO).toList()
+        );
+    }
 }
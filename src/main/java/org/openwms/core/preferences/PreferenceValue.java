@@ -0,0 +1,147 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * A PreferenceValue is the value of a {@link Preference} parsed according to its {@link PreferenceType}. Numbers and booleans are held as
+ * primitives, JSON values as a parsed tree, so that consumers do not need to parse the stored String on each read.
+ *
+ * @author Heiko Scherrer
+ * @see Preference#getTypedVal()
+ */
+public sealed interface PreferenceValue permits PreferenceValue.IntValue, PreferenceValue.FloatValue, PreferenceValue.BoolValue,
+        PreferenceValue.JsonValue, PreferenceValue.StringValue {
+
+    /**
+     * Get the value in its natural Java representation, e.g. to serialize it as JSON.
+     *
+     * @return The boxed primitive, the JSON tree or the String
+     */
+    Object get();
+
+    /**
+     * Verify that the value is within the given bounds. Only numeric values have bounds, all others are always within.
+     *
+     * @param minValue The lower bound (inclusive) as String, or {@literal null} if unbounded
+     * @param maxValue The upper bound (inclusive) as String, or {@literal null} if unbounded
+     * @throws IllegalArgumentException if the value is out of bounds or a bound is not a number
+     */
+    default void checkRange(String minValue, String maxValue) {
+    }
+
+    /**
+     * Parse the String representation {@code val} of a Preference of {@code type}. Types without a dedicated representation, like
+     * {@link PreferenceType#STRING} and {@link PreferenceType#OBJECT}, are kept as String.
+     *
+     * @param type The type of the Preference, may be {@literal null}
+     * @param val The String representation, must not be {@literal null}
+     * @return The parsed value
+     * @throws IllegalArgumentException if {@code val} is not a valid value of {@code type}
+     */
+    static PreferenceValue parse(PreferenceType type, String val) {
+        if (type == null) {
+            return new StringValue(val);
+        }
+        try {
+            return switch (type) {
+                case INT -> new IntValue(Integer.parseInt(val.trim()));
+                case FLOAT -> new FloatValue(Float.parseFloat(val.trim()));
+                case BOOL -> new BoolValue(parseBoolean(val.trim()));
+                case JSON -> new JsonValue(JsonValue.MAPPER.readTree(val));
+                case STRING, OBJECT -> new StringValue(val);
+            };
+        } catch (NumberFormatException | JacksonException e) {
+            throw new IllegalArgumentException("Value [%s] is not a valid %s".formatted(val, type), e);
+        }
+    }
+
+    private static boolean parseBoolean(String val) {
+        if ("true".equalsIgnoreCase(val)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(val)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Value [%s] is not a valid %s".formatted(val, PreferenceType.BOOL));
+    }
+
+    record IntValue(int value) implements PreferenceValue {
+
+        @Override
+        public Object get() {
+            return value;
+        }
+
+        @Override
+        public void checkRange(String minValue, String maxValue) {
+            if ((minValue != null && value < Integer.parseInt(minValue.trim()))
+                    || (maxValue != null && value > Integer.parseInt(maxValue.trim()))) {
+                throw new IllegalArgumentException("Value [%d] is not within [%s] and [%s]".formatted(value, minValue, maxValue));
+            }
+        }
+    }
+
+    record FloatValue(float value) implements PreferenceValue {
+
+        @Override
+        public Object get() {
+            return value;
+        }
+
+        @Override
+        public void checkRange(String minValue, String maxValue) {
+            if ((minValue != null && value < Float.parseFloat(minValue.trim()))
+                    || (maxValue != null && value > Float.parseFloat(maxValue.trim()))) {
+                throw new IllegalArgumentException("Value [%s] is not within [%s] and [%s]".formatted(value, minValue, maxValue));
+            }
+        }
+    }
+
+    record BoolValue(boolean value) implements PreferenceValue {
+
+        @Override
+        public Object get() {
+            return value;
+        }
+    }
+
+    /**
+     * A JSON value, the tree is shared between all readers of the Preference and must not be modified.
+     *
+     * @param tree The parsed JSON
+     */
+    record JsonValue(JsonNode tree) implements PreferenceValue {
+
+        private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+        @Override
+        public Object get() {
+            return tree;
+        }
+    }
+
+    record StringValue(String value) implements PreferenceValue {
+
+        @Override
+        public Object get() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import org.openwms.core.event.RootApplicationEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A PreferencesBulkEvent is published once for a whole batch of {@code Preference}s that have been created or updated together.
+ *
+ * @author Heiko Scherrer
+ */
+public final class PreferencesBulkEvent extends RootApplicationEvent {
+
+    public PreferencesBulkEvent(List<PreferenceUpsertResult> source) {
+        super(new ArrayList<>(source));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<PreferenceUpsertResult> getSource() {
+        return (List<PreferenceUpsertResult>) super.getSource();
+    }
+
+    /**
+     * Get all {@code Preference}s of the batch with the given {@code status}.
+     *
+     * @param status The status to filter for
+     * @return The Preferences, never {@literal null}
+     */
+    public List<Preference> getPreferences(PreferenceUpsertResult.Status status) {
+        return getSource().stream()
+                .filter(r -> r.status() == status)
+                .map(PreferenceUpsertResult::preference)
+                .toList();
+    }
+}
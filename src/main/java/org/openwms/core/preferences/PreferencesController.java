@@ -15,21 +15,28 @@
  */
 package org.openwms.core.preferences;
 
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
-import org.ameba.exception.ResourceExistsException;
+import jakarta.validation.constraints.PositiveOrZero;
 import org.ameba.http.MeasuredRestController;
 import org.ameba.i18n.Translator;
 import org.openwms.core.http.AbstractWebController;
 import org.openwms.core.http.Index;
-import org.openwms.core.preferences.api.ApplicationPreferenceVO;
-import org.openwms.core.preferences.api.ModulePreferenceVO;
+import org.openwms.core.preferences.api.PreferenceBulkResultVO;
+import org.openwms.core.preferences.api.PreferenceChangesVO;
+import org.openwms.core.preferences.api.PreferenceKeyVO;
 import org.openwms.core.preferences.api.PreferenceVO;
-import org.openwms.core.preferences.api.RolePreferenceVO;
-import org.openwms.core.preferences.api.UserPreferenceVO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -40,16 +47,34 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.openwms.core.preferences.api.PreferenceVO.MEDIA_TYPE;
 import static org.openwms.core.preferences.api.PreferencesApi.API_PREFERENCES;
-import static org.openwms.core.preferences.api.PreferencesConstants.ALREADY_EXISTS_WITH_OWNER_AND_SCOPE_AND_KEY;
+import static org.openwms.core.preferences.api.PreferencesConstants.HEADER_TOTAL_COUNT;
+import static org.openwms.core.preferences.api.PreferencesConstants.MAX_PAGE_SIZE;
+import static org.openwms.core.preferences.api.PreferencesConstants.NOT_ALLOWED_FETCH_USER_PREFS;
 import static org.openwms.core.preferences.api.PreferencesConstants.NOT_ALLOWED_PKEY;
 import static org.openwms.core.preferences.api.PreferencesConstants.PROPERTY_SCOPE_NOT_DEFINED;
+import static org.openwms.core.preferences.api.PreferencesConstants.UNREADABLE_VALUE;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
@@ -66,48 +91,123 @@ public class PreferencesController extends AbstractWebController {
     private final PreferencesService preferencesService;
     private final Translator translator;
     private final PreferenceVOMapper preferenceVOMapper;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+    private final PreferenceChangeBroadcaster changeBroadcaster;
 
     public PreferencesController(MessageSource messageSource, PreferencesService preferencesService, Translator translator,
-            PreferenceVOMapper preferenceVOMapper) {
+            PreferenceVOMapper preferenceVOMapper, Validator validator, JsonMapper jsonMapper,
+            PreferenceChangeBroadcaster changeBroadcaster) {
         super(messageSource);
         this.preferencesService = preferencesService;
         this.translator = translator;
         this.preferenceVOMapper = preferenceVOMapper;
+        this.validator = validator;
+        this.jsonMapper = jsonMapper;
+        this.changeBroadcaster = changeBroadcaster;
     }
 
     @GetMapping(API_PREFERENCES + "/index")
     public ResponseEntity<Index> index() {
         return ResponseEntity.ok(
                 new Index(
-                        linkTo(methodOn(PreferencesController.class).findAll()).withRel("preferences-findall"),
-                        linkTo(methodOn(PreferencesController.class).findByPKey("pKey")).withRel("preferences-findbypkey"),
-                        linkTo(methodOn(PreferencesController.class).findAllOfScope("{scope}")).withRel("preferences-findallofscope"),
-                        linkTo(methodOn(PreferencesController.class).findPreferencesForGroupName("user", "USER", "group1")).withRel("preferences-findbyownerscopekey"),
+                        linkTo(methodOn(PreferencesController.class).findAll(null)).withRel("preferences-findall"),
+                        linkTo(methodOn(PreferencesController.class).findPage(0, 20)).withRel("preferences-findpage"),
+                        linkTo(methodOn(PreferencesController.class).findAllAfter(null, 100, null)).withRel("preferences-findallafter"),
+                        linkTo(methodOn(PreferencesController.class).export()).withRel("preferences-export"),
+                        linkTo(methodOn(PreferencesController.class).findByPKey("pKey", null)).withRel("preferences-findbypkey"),
+                        linkTo(methodOn(PreferencesController.class).findValueByPKey("pKey")).withRel("preferences-value"),
+                        linkTo(methodOn(PreferencesController.class).findAllOfScope("{scope}", null)).withRel("preferences-findallofscope"),
+                        linkTo(methodOn(PreferencesController.class).findPreferencesForGroupName("user", "USER", "group1", null)).withRel("preferences-findbyownerscopekey"),
+                        linkTo(methodOn(PreferencesController.class).lookup(List.of())).withRel("preferences-lookup"),
+                        linkTo(methodOn(PreferencesController.class).findChangesSince(null, "owner", "USER")).withRel("preferences-changes"),
+                        linkTo(methodOn(PreferencesController.class).stream("owner", "USER", "group1")).withRel("preferences-stream"),
+                        linkTo(methodOn(PreferencesController.class).resolve("key", "user", List.of("role"), "module", null)).withRel("preferences-resolve"),
+                        linkTo(methodOn(PreferencesController.class).resolveValue("key", "user", List.of("role"), "module")).withRel("preferences-resolve-value"),
                         linkTo(methodOn(PreferencesController.class).create(new PreferenceVO(), false)).withRel("preferences-create"),
-                        linkTo(methodOn(PreferencesController.class).update("pKey", new PreferenceVO())).withRel("preferences-update"),
+                        linkTo(methodOn(PreferencesController.class).upsertAll(List.of())).withRel("preferences-bulk"),
+                        linkTo(methodOn(PreferencesController.class).update("pKey", new PreferenceVO(), null)).withRel("preferences-update"),
                         linkTo(methodOn(PreferencesController.class).delete("pKey")).withRel("preferences-delete"),
-                        linkTo(methodOn(UserPreferencesController.class).findByUser("user")).withRel("user-preferences-findbyuser"),
-                        linkTo(methodOn(UserPreferencesController.class).findByUserAndKey("user", "key")).withRel("user-preferences-findbyuserandkey"),
-                        linkTo(methodOn(RolePreferencesController.class).findByRole("role")).withRel("role-preferences-findbyrole"),
-                        linkTo(methodOn(RolePreferencesController.class).findByRoleAndKey("role", "key")).withRel("role-preferences-findbyroleandkey"),
-                        linkTo(methodOn(ModulePreferencesController.class).findByModule("module")).withRel("module-preferences-findbymodule"),
-                        linkTo(methodOn(ModulePreferencesController.class).findByModuleAndKey("module", "key")).withRel("module-preferences-findbymoduleandkey")
+                        linkTo(methodOn(UserPreferencesController.class).findByUser("user", null)).withRel("user-preferences-findbyuser"),
+                        linkTo(methodOn(UserPreferencesController.class).findByUserAndKey("user", "key", null)).withRel("user-preferences-findbyuserandkey"),
+                        linkTo(methodOn(RolePreferencesController.class).findByRole("role", null)).withRel("role-preferences-findbyrole"),
+                        linkTo(methodOn(RolePreferencesController.class).findByRoleAndKey("role", "key", null)).withRel("role-preferences-findbyroleandkey"),
+                        linkTo(methodOn(ModulePreferencesController.class).findByModule("module", null)).withRel("module-preferences-findbymodule"),
+                        linkTo(methodOn(ModulePreferencesController.class).findByModuleAndKey("module", "key", null)).withRel("module-preferences-findbymoduleandkey")
                 )
         );
     }
 
     @GetMapping(value = API_PREFERENCES, produces = MEDIA_TYPE)
-    public ResponseEntity<List<PreferenceVO>> findAll() {
+    public ResponseEntity<List<PreferenceVO>> findAll(WebRequest webRequest) {
+        var preferences = preferencesService.findAll();
+        if (webRequest.checkNotModified(PreferenceETags.of(preferences))) {
+            return null;
+        }
         return ResponseEntity.ok(
-                preferenceVOMapper.toVOList(preferencesService.findAll())
+                preferenceVOMapper.toVOList(preferences)
         );
     }
 
+    @GetMapping(value = API_PREFERENCES, params = {"page", "size"}, produces = MEDIA_TYPE)
+    public ResponseEntity<List<PreferenceVO>> findPage(
+            @RequestParam("page") @PositiveOrZero int page,
+            @RequestParam("size") @Min(1) @Max(MAX_PAGE_SIZE) int size
+    ) {
+        var result = preferencesService.findAll(PageRequest.of(page, size, Sort.by("pKey")));
+        var response = ResponseEntity.ok().header(HEADER_TOTAL_COUNT, String.valueOf(result.getTotalElements()));
+        if (result.hasNext()) {
+            response.header(HttpHeaders.LINK, linkTo(methodOn(PreferencesController.class).findPage(page + 1, size))
+                    .withRel(IanaLinkRelations.NEXT).toString());
+        }
+        if (result.hasPrevious()) {
+            response.header(HttpHeaders.LINK, linkTo(methodOn(PreferencesController.class).findPage(page - 1, size))
+                    .withRel(IanaLinkRelations.PREV).toString());
+        }
+        return response.body(preferenceVOMapper.toVOList(result.getContent()));
+    }
+
+    @GetMapping(value = API_PREFERENCES, params = "limit", produces = MEDIA_TYPE)
+    public ResponseEntity<List<PreferenceVO>> findAllAfter(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam("limit") @Min(1) @Max(MAX_PAGE_SIZE) int limit,
+            WebRequest webRequest
+    ) {
+        var result = preferencesService.findAllAfter(after, limit);
+        if (webRequest.checkNotModified(PreferenceETags.of(result))) {
+            return null;
+        }
+        var response = ResponseEntity.ok();
+        if (result.size() == limit) {
+            response.header(HttpHeaders.LINK, linkTo(methodOn(PreferencesController.class)
+                    .findAllAfter(result.getLast().getPersistentKey(), limit, null)).withRel(IanaLinkRelations.NEXT).toString());
+        }
+        return response.body(preferenceVOMapper.toVOList(result));
+    }
+
+    @GetMapping(value = API_PREFERENCES + "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> preferencesService.streamAll(preference -> {
+            try {
+                out.write(jsonMapper.writeValueAsBytes(preferenceVOMapper.toVO(preference)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping(value = API_PREFERENCES + "/{pKey}")
     public ResponseEntity<PreferenceVO> findByPKey(
-            @PathVariable("pKey") String pKey
+            @PathVariable("pKey") String pKey,
+            WebRequest webRequest
     ) {
-        var result = preferenceVOMapper.toVO(preferencesService.findByPKey(pKey));
+        var preference = preferencesService.findByPKey(pKey);
+        if (webRequest.checkNotModified(PreferenceETags.of(preference), PreferenceETags.lastModified(preference))) {
+            return null;
+        }
+        var result = preferenceVOMapper.toVO(preference);
         return ResponseEntity.ok().header(HttpHeaders.CONTENT_TYPE, result.getContentType()).body(result);
     }
 
@@ -115,23 +215,126 @@ public class PreferencesController extends AbstractWebController {
     public ResponseEntity<PreferenceVO> findForOwnerAndScopeAndKey(
             @RequestParam(value = "owner", required = false) String owner,
             @RequestParam("scope") @NotBlank String scope,
-            @RequestParam("key") @NotBlank String key
+            @RequestParam("key") @NotBlank String key,
+            WebRequest webRequest
     ) {
         var propertyScope = convert(scope);
         var prefOpt = preferencesService.findForOwnerAndScopeAndKey(owner, propertyScope, key);
         if (prefOpt.isPresent()) {
+            if (webRequest.checkNotModified(PreferenceETags.of(prefOpt.get()), PreferenceETags.lastModified(prefOpt.get()))) {
+                return null;
+            }
             var result = preferenceVOMapper.toVO(prefOpt.get());
             return ResponseEntity.ok().header(HttpHeaders.CONTENT_TYPE, result.getContentType()).body(result);
         }
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping(value = API_PREFERENCES + "/lookup")
+    public ResponseEntity<Map<String, PreferenceVO>> lookup(
+            @RequestBody List<PreferenceKeyVO> keys
+    ) {
+        var businessKeys = keys.stream()
+                .map(k -> new PreferenceBusinessKey(k.getOwner(), convert(k.getScope()), k.getKey()))
+                .toList();
+        var found = preferencesService.findAllByBusinessKeys(businessKeys);
+        var result = new LinkedHashMap<String, PreferenceVO>(found.size());
+        for (var i = 0; i < keys.size(); i++) {
+            var preference = found.get(businessKeys.get(i));
+            if (preference != null) {
+                result.put(keys.get(i).asLookupKey(), preferenceVOMapper.toVO(preference));
+            }
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping(value = API_PREFERENCES + "/changes")
+    public ResponseEntity<PreferenceChangesVO> findChangesSince(
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime since,
+            @RequestParam(value = "owner", required = false) String owner,
+            @RequestParam(value = "scope", required = false) String scope
+    ) {
+        var changes = preferencesService.findChangesSince(
+                since == null ? null : since.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime(),
+                owner,
+                scope == null ? null : convert(scope)
+        );
+        return ResponseEntity.ok(preferenceVOMapper.toChangesVO(changes));
+    }
+
+    @GetMapping(value = API_PREFERENCES + "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(value = "owner", required = false) String owner,
+            @RequestParam(value = "scope", required = false) String scope,
+            @RequestParam(value = "groupName", required = false) String groupName
+    ) {
+        var propertyScope = scope == null ? null : convert(scope);
+        if ((owner == null || owner.isEmpty()) && propertyScope == PropertyScope.USER) {
+            throw new NotAuthorizedException(translator, NOT_ALLOWED_FETCH_USER_PREFS, new String[0]);
+        }
+        return changeBroadcaster.subscribe(owner, propertyScope, groupName);
+    }
+
+    @GetMapping(value = API_PREFERENCES + "/{pKey}/value", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JsonNode> findValueByPKey(
+            @PathVariable("pKey") String pKey
+    ) {
+        var preference = preferencesService.findByPKey(pKey);
+        try {
+            return toValueResponse(preference.getTypedVal());
+        } catch (IllegalArgumentException e) {
+            throw new UnreadablePreferenceValueException(translator, UNREADABLE_VALUE,
+                    new Serializable[]{preference.getKey(), preference.getType(), e.getMessage()},
+                    preference.getKey(), preference.getType(), e.getMessage());
+        }
+    }
+
+    @GetMapping(value = API_PREFERENCES + "/resolve/value", params = "key", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JsonNode> resolveValue(
+            @RequestParam("key") @NotBlank String key,
+            @RequestParam(value = "user", required = false) String user,
+            @RequestParam(value = "roles", required = false) List<String> roles,
+            @RequestParam(value = "module", required = false) String module
+    ) {
+        return toValueResponse(preferencesService.resolveValue(key, user, roles == null ? List.of() : roles, module).orElse(null));
+    }
+
+    private ResponseEntity<JsonNode> toValueResponse(PreferenceValue value) {
+        return value == null
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.ok(jsonMapper.valueToTree(value.get()));
+    }
+
+    @GetMapping(value = API_PREFERENCES + "/resolve", params = "key")
+    public ResponseEntity<PreferenceVO> resolve(
+            @RequestParam("key") @NotBlank String key,
+            @RequestParam(value = "user", required = false) String user,
+            @RequestParam(value = "roles", required = false) List<String> roles,
+            @RequestParam(value = "module", required = false) String module,
+            WebRequest webRequest
+    ) {
+        var resolved = preferencesService.resolve(key, user, roles == null ? List.of() : roles, module);
+        if (resolved.isPresent()) {
+            if (webRequest.checkNotModified(PreferenceETags.of(resolved.get()), PreferenceETags.lastModified(resolved.get()))) {
+                return null;
+            }
+            var result = preferenceVOMapper.toVO(resolved.get());
+            return ResponseEntity.ok().header(HttpHeaders.CONTENT_TYPE, result.getContentType()).body(result);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping(value = API_PREFERENCES, params = "scope")
     public ResponseEntity<List<PreferenceVO>> findAllOfScope(
-            @RequestParam("scope") String scope
+            @RequestParam("scope") String scope,
+            WebRequest webRequest
     ) {
         var propertyScope = convert(scope);
-        var result = preferenceVOMapper.toVOList(preferencesService.findForOwnerAndScope(null, propertyScope));
+        var preferences = preferencesService.findForOwnerAndScope(null, propertyScope);
+        if (webRequest.checkNotModified(PreferenceETags.of(preferences))) {
+            return null;
+        }
+        var result = preferenceVOMapper.toVOList(preferences);
         return ResponseEntity.ok().body(result);
     }
 
@@ -139,12 +342,17 @@ public class PreferencesController extends AbstractWebController {
     public ResponseEntity<List<PreferenceVO>> findPreferencesForGroupName(
             @RequestParam(value = "owner", required = false) String owner,
             @RequestParam("scope") @NotBlank String scope,
-            @RequestParam("name") String groupName) {
+            @RequestParam("name") String groupName,
+            WebRequest webRequest) {
         var propertyScope = convert(scope);
         var groups = preferencesService.findForScopeOwnerGroupName(owner, propertyScope, groupName);
-        return groups.isEmpty()
-                ? ResponseEntity.noContent().build()
-                :ResponseEntity.ok(preferenceVOMapper.toVOList(groups));
+        if (groups.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        if (webRequest.checkNotModified(PreferenceETags.of(groups))) {
+            return null;
+        }
+        return ResponseEntity.ok(preferenceVOMapper.toVOList(groups));
     }
 
     private PropertyScope convert(String scope) {
@@ -181,7 +389,7 @@ public class PreferencesController extends AbstractWebController {
                     );
                     var vo = preferenceVOMapper.toVO(result);
                     return ResponseEntity
-                            .created(linkTo(methodOn(PreferencesController.class).findByPKey(result.getPersistentKey())).toUri())
+                            .created(linkTo(methodOn(PreferencesController.class).findByPKey(result.getPersistentKey(), null)).toUri())
                             .header(HttpHeaders.CONTENT_TYPE, "application/json")
                             .body(vo);
                 }
@@ -190,41 +398,94 @@ public class PreferencesController extends AbstractWebController {
         if (preference.hasPKey()) {
             throw new IllegalArgumentException(translator.translate(NOT_ALLOWED_PKEY, preference.getpKey()));
         }
-        ensurePreferenceNotExists(preference);
+        // The service verifies that the Preference does not exist yet
         result = preferencesService.create(preferenceVOMapper.toDomain(preference));
         var vo = preferenceVOMapper.toVO(result);
         return ResponseEntity
-                .created(linkTo(methodOn(PreferencesController.class).findByPKey(result.getPersistentKey())).toUri())
+                .created(linkTo(methodOn(PreferencesController.class).findByPKey(result.getPersistentKey(), null)).toUri())
                 .header(HttpHeaders.CONTENT_TYPE, "application/json")
                 .body(vo);
     }
 
-    private void ensurePreferenceNotExists(PreferenceVO preference) {
-        var scope = switch (preference) {
-            case UserPreferenceVO ignored -> PropertyScope.USER;
-            case RolePreferenceVO ignored -> PropertyScope.ROLE;
-            case ModulePreferenceVO ignored -> PropertyScope.MODULE;
-            case ApplicationPreferenceVO ignored -> PropertyScope.APPLICATION;
-            case null, default -> throw new IllegalArgumentException("Not implemented Preference type");
-        };
-        if (preferencesService.existsForOwnerAndScopeAndKey(preference.getOwner(), scope, preference.getKey())) {
-            throw new ResourceExistsException(
-                    translator,
-                    ALREADY_EXISTS_WITH_OWNER_AND_SCOPE_AND_KEY,
-                    new Serializable[]{preference.getKey(), preference.getOwner(), scope},
-                    preference.getKey(), preference.getOwner(), scope
-            );
+    @PostMapping(value = API_PREFERENCES + "/bulk")
+    public ResponseEntity<List<PreferenceBulkResultVO>> upsertAll(
+            @RequestBody List<PreferenceVO> preferences
+    ) {
+        var results = new PreferenceBulkResultVO[preferences.size()];
+        var accepted = new ArrayList<Preference>(preferences.size());
+        var acceptedIndexes = new ArrayList<Integer>(preferences.size());
+        for (var i = 0; i < preferences.size(); i++) {
+            var vo = preferences.get(i);
+            if (vo == null) {
+                results[i] = rejected(null, "No Preference given");
+                continue;
+            }
+            var violations = validator.validate(vo);
+            if (!violations.isEmpty()) {
+                results[i] = rejected(vo, violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+            try {
+                var domain = preferenceVOMapper.toDomain(vo);
+                domain.validateVal();
+                accepted.add(domain);
+                acceptedIndexes.add(i);
+            } catch (RuntimeException e) {
+                results[i] = rejected(vo, e.getMessage());
+            }
+        }
+        var saved = preferencesService.upsertAll(accepted);
+        for (var i = 0; i < saved.size(); i++) {
+            var result = saved.get(i);
+            var preference = result.preference();
+            results[acceptedIndexes.get(i)] = switch (result.status()) {
+                case CREATED -> new PreferenceBulkResultVO(PreferenceBulkResultVO.Status.CREATED, preference.getPersistentKey(),
+                        preference.getKey(), preference.getOwner(), null);
+                case UPDATED -> new PreferenceBulkResultVO(PreferenceBulkResultVO.Status.UPDATED, preference.getPersistentKey(),
+                        preference.getKey(), preference.getOwner(), null);
+                case REJECTED -> rejected(preferences.get(acceptedIndexes.get(i)),
+                        translator.translate(NOT_ALLOWED_PKEY, preference.getPersistentKey()));
+            };
         }
+        return ResponseEntity.ok(Arrays.asList(results));
     }
 
+    private static PreferenceBulkResultVO rejected(PreferenceVO vo, String message) {
+        return vo == null
+                ? new PreferenceBulkResultVO(PreferenceBulkResultVO.Status.REJECTED, null, null, null, message)
+                : new PreferenceBulkResultVO(PreferenceBulkResultVO.Status.REJECTED, vo.getpKey(), vo.getKey(), vo.getOwner(), message);
+    }
+
+    /**
+     * Update a Preference. A client that passes the entity tag of the Preference it has read with {@code If-Match} gets a conflict if the
+     * Preference has been changed meanwhile. Without {@code If-Match} the Preference is overridden regardless of its version, and the
+     * response carries no entity tag if the persistence layer does not return the new version.
+     */
     @PutMapping(API_PREFERENCES + "/{pKey}")
     public ResponseEntity<PreferenceVO> update(
             @PathVariable("pKey") String pKey,
-            @RequestBody PreferenceVO preference
+            @RequestBody PreferenceVO preference,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        var vo = preferenceVOMapper.toVO(preferencesService.update(pKey, preferenceVOMapper.toDomain(preference)));
-        return ResponseEntity
-                .ok()
+        var domain = preferenceVOMapper.toDomain(preference);
+        Preference result;
+        if (ifMatch == null) {
+            result = preferencesService.update(pKey, domain);
+        } else {
+            var version = PreferenceETags.versionOf(ifMatch);
+            if (version < 0) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            result = preferencesService.update(pKey, domain, version);
+        }
+        var vo = preferenceVOMapper.toVO(result);
+        var response = ResponseEntity.ok();
+        if (result.hasKnownVersion()) {
+            response.eTag(PreferenceETags.of(result));
+        }
+        return response
                 .header(HttpHeaders.CONTENT_TYPE, vo.getContentType())
                 .body(vo);
     }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A PreferencesMergeReport summarizes the merge of {@code Preference}s defined in a file with the ones in the persistent store. When the
+ * file is streamed the added and skipped {@code Preference}s are only counted in the log and not kept in the report.
+ *
+ * @param added The Preferences that did not exist and have been created
+ * @param skipped The Preferences that did already exist with the same value and type
+ * @param conflicted The Preferences that did already exist but with a different value or type, the persisted state has been kept
+ * @author Heiko Scherrer
+ */
+public record PreferencesMergeReport(List<Preference> added, List<Preference> skipped, List<Preference> conflicted)
+        implements Serializable {
+
+    public PreferencesMergeReport {
+        added = List.copyOf(added);
+        skipped = List.copyOf(skipped);
+        conflicted = List.copyOf(conflicted);
+    }
+
+    public boolean hasConflicts() {
+        return !conflicted.isEmpty();
+    }
+}
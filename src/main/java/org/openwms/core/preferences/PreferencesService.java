@@ -17,10 +17,16 @@ package org.openwms.core.preferences;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * A PreferencesService is responsible to manage {@code Preferences}. Whereby {@code Preferences} have particular defined scopes, e.g. some
@@ -39,6 +45,30 @@ public interface PreferencesService {
      */
     @NotNull Collection<Preference> findAll();
 
+    /**
+     * Find and return one page of all {@code Preferences}.
+     *
+     * @param pageable The page to return
+     * @return The page of Preferences, never {@literal null}
+     */
+    @NotNull Page<Preference> findAll(@NotNull Pageable pageable);
+
+    /**
+     * Find and return at most {@code limit} {@code Preferences}, ordered by their persistent key and starting after {@code pKey}.
+     *
+     * @param pKey The persistent key of the last Preference already read, or {@literal null} to start with the first one
+     * @param limit The maximum number of Preferences to return
+     * @return A List of Preferences, never {@literal null}
+     */
+    @NotNull List<Preference> findAllAfter(String pKey, @Positive int limit);
+
+    /**
+     * Pass all {@code Preferences} one after another to the {@code consumer} without loading them into memory at once.
+     *
+     * @param consumer Consumes each Preference
+     */
+    void streamAll(@NotNull Consumer<Preference> consumer);
+
     /**
      * Find and return the {@code Preferences} identified by the {@code pKey}.
      *
@@ -68,6 +98,41 @@ public interface PreferencesService {
      */
     Optional<Preference> findForOwnerAndScopeAndKey(String owner, @NotNull PropertyScope scope, @NotBlank String key);
 
+    /**
+     * Find and return all {@code Preference}s that match one of the given business {@code keys} at once.
+     *
+     * @param keys The business keys (owner, scope and key) of the Preferences to find
+     * @return The existing Preferences mapped by their business key, keys that do not exist are not contained, never {@literal null}
+     * @throws NotAuthorizedException if one of the keys is of scope {@code USER} but has no owner
+     */
+    @NotNull Map<PreferenceBusinessKey, Preference> findAllByBusinessKeys(@NotNull Collection<PreferenceBusinessKey> keys);
+
+    /**
+     * Resolve the effective {@code Preference} with the given {@code key}. That is the {@code USER} Preference of the {@code user}, if it
+     * does not exist the {@code ROLE} Preference of the first of the {@code roles} that has one, then the {@code MODULE} Preference of the
+     * {@code module} and finally the {@code APPLICATION} Preference.
+     *
+     * @param key The Preference key
+     * @param user The name of the User, or {@literal null} to skip the {@code USER} scope
+     * @param roles The names of the Roles in the order of precedence, may be empty
+     * @param module The name of the Module, or {@literal null} to skip the {@code MODULE} scope
+     * @return The effective Preference, or an empty Optional if the key does not exist in any of the scopes
+     */
+    Optional<Preference> resolve(@NotBlank String key, String user, @NotNull List<String> roles, String module);
+
+    /**
+     * Resolve the value of the effective {@code Preference} with the given {@code key}, like {@link #resolve(String, String, List, String)}
+     * does, parsed according to its type. The parsed value is kept with the Preference, so repeated calls do not parse it again.
+     *
+     * @param key The Preference key
+     * @param user The name of the User, or {@literal null} to skip the {@code USER} scope
+     * @param roles The names of the Roles in the order of precedence, may be empty
+     * @param module The name of the Module, or {@literal null} to skip the {@code MODULE} scope
+     * @return The typed value, or an empty Optional if the key does not exist in any of the scopes or the Preference has no value
+     * @throws UnreadablePreferenceValueException in case the stored value does not match the type
+     */
+    Optional<PreferenceValue> resolveValue(@NotBlank String key, String user, @NotNull List<String> roles, String module);
+
     /**
      * Find and return all {@code Preference}s that belong to a group with the same {@code groupName}.
      *
@@ -95,19 +160,44 @@ public interface PreferencesService {
      * @param preference The instance to create
      * @return The created instance
      * @throws org.ameba.exception.ResourceExistsException in case the passed Preference already exists
+     * @throws InvalidPreferenceValueException in case the value does not match the type or is out of bounds
      */
     @NotNull Preference create(@NotNull Preference preference);
 
     /**
-     * Update the given and existing {@code Preference}.
+     * Update the given and existing {@code Preference} regardless of its current version.
      *
      * @param pKey The persistent identifier of the Preference to save
      * @param preference The Preference instance to save
-     * @return Saved instance
+     * @return Saved instance, the version of it is {@link Preference#UNKNOWN_VERSION} if the persistence layer does not return it
      * @throws org.ameba.exception.NotFoundException In case the Preferences does not exist
+     * @throws InvalidPreferenceValueException in case the value does not match the type or is out of bounds
      */
     @NotNull Preference update(@NotBlank String pKey, @NotNull Preference preference);
 
+    /**
+     * Update the given and existing {@code Preference}, if it has not been changed since the version {@code ol}.
+     *
+     * @param pKey The persistent identifier of the Preference to save
+     * @param preference The Preference instance to save
+     * @param ol The version of the Preference the change is based on
+     * @return Saved instance
+     * @throws org.ameba.exception.NotFoundException In case the Preferences does not exist
+     * @throws PreferenceVersionConflictException In case the Preference has been changed since that version
+     * @throws InvalidPreferenceValueException in case the value does not match the type or is out of bounds
+     */
+    @NotNull Preference update(@NotBlank String pKey, @NotNull Preference preference, long ol);
+
+    /**
+     * Create or update all given {@code Preference}s within one transaction. Existing Preferences are identified by owner, scope and key,
+     * a passed persistent key must match the one of the existing Preference. One single event is published for the whole batch.
+     *
+     * @param preferences The Preferences to create or update
+     * @return One result for each passed Preference, in the same order, never {@literal null}
+     * @throws InvalidPreferenceValueException in case the value of one Preference does not match the type or is out of bounds
+     */
+    @NotNull List<PreferenceUpsertResult> upsertAll(@NotNull List<Preference> preferences);
+
     /**
      * Delete an existing {@code Preference}.
      *
@@ -116,7 +206,33 @@ public interface PreferencesService {
     void delete(@NotBlank String pKey);
 
     /**
-     * Load {@code Preferences} from file and merge them with the ones in the persistent store.
+     * Find the {@code Preference}s that have been created, updated or deleted at or after the {@code since} watermark. Changes that are
+     * younger than the configured safety window are returned again with the next watermark, so that changes of transactions that commit
+     * late are not missed. A full snapshot is returned if no watermark is given or the watermark is older than the retained tombstones.
+     *
+     * @param since The watermark of the previous call, or {@literal null} to get all Preferences
+     * @param owner The owner of the Preferences, or {@literal null} for all owners
+     * @param scope The scope of the Preferences, or {@literal null} for all scopes
+     * @return The changes and the next watermark
+     */
+    @NotNull PreferenceChanges findChangesSince(LocalDateTime since, String owner, PropertyScope scope);
+
+    /**
+     * Load {@code Preferences} from the files and merge them with the ones in the persistent store. Only the {@code Preferences} that do
+     * not exist yet are created, existing ones are never overridden. The files are merged in batches with a transaction each, batches of
+     * different owners may be committed concurrently. Each batch of created {@code Preferences} is published on its own.
+     *
+     * @return A report of what has been added, skipped and what did conflict
+     */
+    @NotNull PreferencesMergeReport reloadInitialPreferences();
+
+    /**
+     * Merge the given {@code Preferences} defined in a file with the ones in the persistent store, like
+     * {@link #reloadInitialPreferences()} does with all {@code Preferences} of the file. Used to merge only the {@code Preferences} that
+     * have been added or changed in the file.
+     *
+     * @param preferences The Preferences from the file
+     * @return A report of what has been added, skipped and what did conflict
      */
-    void reloadInitialPreferences();
+    @NotNull PreferencesMergeReport mergeFilePreferences(@NotNull List<Preference> preferences);
 }
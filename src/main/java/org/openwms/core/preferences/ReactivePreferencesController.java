@@ -0,0 +1,135 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import jakarta.validation.constraints.NotBlank;
+import org.ameba.exception.NotFoundException;
+import org.ameba.http.MeasuredRestController;
+import org.ameba.i18n.Translator;
+import org.openwms.core.http.AbstractWebController;
+import org.openwms.core.preferences.api.ModulePreferenceVO;
+import org.openwms.core.preferences.api.PreferencesApi;
+import org.openwms.core.preferences.api.PreferencesConstants;
+import org.openwms.core.preferences.api.RolePreferenceVO;
+import org.openwms.core.preferences.api.UserPreferenceVO;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A ReactivePreferencesController serves the Preferences of Users, Roles and Modules with the {@link ReactivePreferencesService}, only
+ * active with the Spring profiles {@literal MONGODB} and {@literal REACTIVE}. It replaces the {@link UserPreferencesController}, {@link RolePreferencesController} and
+ * {@link ModulePreferencesController} with the same resources. The request thread is released while the Preferences are read, the
+ * response is sent when the store has answered. The entity tags are the same as those of the blocking controllers, a conditional
+ * request is answered with {@code 304 NOT-MODIFIED} by the framework.
+ *
+ * @author Heiko Scherrer
+ */
+@Profile("MONGODB & REACTIVE")
+@Validated
+@MeasuredRestController
+public class ReactivePreferencesController extends AbstractWebController {
+
+    private final ReactivePreferencesService preferencesService;
+    private final Translator translator;
+    private final PreferenceVOMapper preferenceVOMapper;
+
+    public ReactivePreferencesController(MessageSource messageSource, ReactivePreferencesService preferencesService, Translator translator,
+            PreferenceVOMapper preferenceVOMapper) {
+        super(messageSource);
+        this.preferencesService = preferencesService;
+        this.translator = translator;
+        this.preferenceVOMapper = preferenceVOMapper;
+    }
+
+    @GetMapping(value = PreferencesApi.API_PREFERENCES, params = "user")
+    public Mono<ResponseEntity<List<UserPreferenceVO>>> findByUser(@RequestParam("user") @NotBlank String user) {
+        return preferencesService.findForOwnerAndScope(user, PropertyScope.USER)
+                .collectList()
+                .map(preferences -> ResponseEntity.ok()
+                        .eTag(PreferenceETags.of(preferences))
+                        .body(preferenceVOMapper.toUserVOList(preferences)));
+    }
+
+    @GetMapping(value = PreferencesApi.API_PREFERENCES, params = {"user", "key"})
+    public Mono<ResponseEntity<UserPreferenceVO>> findByUserAndKey(
+            @RequestParam("user") @NotBlank String user,
+            @RequestParam("key") @NotBlank String key
+    ) {
+        return findForOwnerAndScopeAndKey(user, PropertyScope.USER, key)
+                .map(preference -> ok(preference).body(preferenceVOMapper.toUserVO(preference)));
+    }
+
+    @GetMapping(value = PreferencesApi.API_PREFERENCES, params = "role")
+    public Mono<ResponseEntity<List<RolePreferenceVO>>> findByRole(@RequestParam("role") @NotBlank String role) {
+        return preferencesService.findForOwnerAndScope(role, PropertyScope.ROLE)
+                .collectList()
+                .map(preferences -> ResponseEntity.ok()
+                        .eTag(PreferenceETags.of(preferences))
+                        .body(preferenceVOMapper.toRoleVOList(preferences)));
+    }
+
+    @GetMapping(value = PreferencesApi.API_PREFERENCES, params = {"role", "key"})
+    public Mono<ResponseEntity<RolePreferenceVO>> findByRoleAndKey(
+            @RequestParam("role") @NotBlank String role,
+            @RequestParam("key") @NotBlank String key
+    ) {
+        return findForOwnerAndScopeAndKey(role, PropertyScope.ROLE, key)
+                .map(preference -> ok(preference).body(preferenceVOMapper.toRoleVO(preference)));
+    }
+
+    @GetMapping(value = PreferencesApi.API_PREFERENCES, params = "module")
+    public Mono<ResponseEntity<List<ModulePreferenceVO>>> findByModule(@RequestParam("module") @NotBlank String module) {
+        return preferencesService.findForOwnerAndScope(module, PropertyScope.MODULE)
+                .collectList()
+                .map(preferences -> ResponseEntity.ok()
+                        .eTag(PreferenceETags.of(preferences))
+                        .body(preferenceVOMapper.toModuleVOList(preferences)));
+    }
+
+    @GetMapping(value = PreferencesApi.API_PREFERENCES, params = {"module", "key"})
+    public Mono<ResponseEntity<ModulePreferenceVO>> findByModuleAndKey(
+            @RequestParam("module") @NotBlank String module,
+            @RequestParam("key") @NotBlank String key
+    ) {
+        return findForOwnerAndScopeAndKey(module, PropertyScope.MODULE, key)
+                .map(preference -> ok(preference).body(preferenceVOMapper.toModuleVO(preference)));
+    }
+
+    private Mono<Preference> findForOwnerAndScopeAndKey(String owner, PropertyScope scope, String key) {
+        return preferencesService.findForOwnerAndScopeAndKey(owner, scope, key)
+                .switchIfEmpty(Mono.error(() ->
+                        new NotFoundException(
+                                translator,
+                                PreferencesConstants.NOT_FOUND_BY_OWNER_AND_SCOPE_AND_KEY,
+                                new Serializable[]{key, owner, scope}, key, owner, scope
+                        )
+                ));
+    }
+
+    private static ResponseEntity.BodyBuilder ok(Preference preference) {
+        var builder = ResponseEntity.ok().eTag(PreferenceETags.of(preference));
+        var lastModified = PreferenceETags.lastModified(preference);
+        return lastModified < 0 ? builder : builder.lastModified(lastModified);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A ReactivePreferencesService is the non-blocking counterpart of the read operations of the {@link PreferencesService}. No thread is
+ * held while waiting for the persistent store, which allows to serve many concurrent clients with few threads. Only available with the
+ * Spring profiles {@literal MONGODB} and {@literal REACTIVE}.
+ *
+ * @author Heiko Scherrer
+ * @see PreferencesService
+ */
+public interface ReactivePreferencesService {
+
+    /**
+     * Find and return all {@code Preferences}.
+     *
+     * @return The Preferences, emits nothing if none exist
+     */
+    @NotNull Flux<Preference> findAll();
+
+    /**
+     * Find and return a {@code Preference} identified by its persistent key.
+     *
+     * @param pKey The persistent key
+     * @return The Preference, or an error with a {@code NotFoundException} if it does not exist
+     */
+    @NotNull Mono<Preference> findByPKey(@NotBlank String pKey);
+
+    /**
+     * Find and return all {@code Preferences} of an {@code owner} in the given {@code scope}.
+     *
+     * @param owner The owner of the Preferences
+     * @param scope What kind of Preferences
+     * @return The Preferences, or an error with a {@code NotAuthorizedException} if {@code USER} Preferences are requested without an owner
+     */
+    @NotNull Flux<Preference> findForOwnerAndScope(String owner, @NotNull PropertyScope scope);
+
+    /**
+     * Find and return the {@code Preference} of an {@code owner} in the given {@code scope} with the {@code key}.
+     *
+     * @param owner The owner of the Preference
+     * @param scope What kind of Preference
+     * @param key The key of the Preference
+     * @return The Preference, empty if it does not exist
+     */
+    @NotNull Mono<Preference> findForOwnerAndScopeAndKey(String owner, @NotNull PropertyScope scope, @NotBlank String key);
+
+    /**
+     * Find and return all {@code Preferences} of an {@code owner} in the given {@code scope} that belong to the group {@code groupName}.
+     *
+     * @param owner The owner of the Preferences
+     * @param scope What kind of Preferences
+     * @param groupName The name of the group
+     * @return The Preferences, emits nothing if none exist
+     */
+    @NotNull Flux<Preference> findForScopeOwnerGroupName(String owner, @NotNull PropertyScope scope, @NotBlank String groupName);
+}
@@ -24,20 +24,24 @@ import org.openwms.core.preferences.api.PreferencesApi;
 import org.openwms.core.preferences.api.PreferencesConstants;
 import org.openwms.core.preferences.api.RolePreferenceVO;
 import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * A RolePreferencesController.
+ * A RolePreferencesController. Replaced by the {@link ReactivePreferencesController} if the Spring profiles {@literal MONGODB} and
+ * {@literal REACTIVE} are both active.
  *
  * @author Heiko Scherrer
  */
+@Profile("!(MONGODB & REACTIVE)")
 @Validated
 @MeasuredRestController
 public class RolePreferencesController extends AbstractWebController {
@@ -56,29 +60,37 @@ public class RolePreferencesController extends AbstractWebController {
 
     @GetMapping(value = PreferencesApi.API_PREFERENCES, params = "role")
     public ResponseEntity<List<RolePreferenceVO>> findByRole(
-            @RequestParam("role") @NotBlank String role
+            @RequestParam("role") @NotBlank String role,
+            WebRequest webRequest
     ) {
+        var preferences = preferencesService.findForOwnerAndScope(role, PropertyScope.ROLE);
+        if (webRequest.checkNotModified(PreferenceETags.of(preferences))) {
+            return null;
+        }
         return ResponseEntity.ok(
-                preferenceVOMapper.toRoleVOList(new ArrayList<>(preferencesService.findForOwnerAndScope(role, PropertyScope.ROLE)))
+                preferenceVOMapper.toRoleVOList(new ArrayList<>(preferences))
         );
     }
 
     @GetMapping(value = PreferencesApi.API_PREFERENCES, params = {"role", "key"})
     public ResponseEntity<RolePreferenceVO> findByRoleAndKey(
             @RequestParam("role") @NotBlank String role,
-            @RequestParam("key") @NotBlank String key
+            @RequestParam("key") @NotBlank String key,
+            WebRequest webRequest
     ) {
+        var preference = preferencesService.findForOwnerAndScopeAndKey(role, PropertyScope.ROLE, key)
+                .orElseThrow(() ->
+                        new NotFoundException(
+                                translator,
+                                PreferencesConstants.NOT_FOUND_BY_OWNER_AND_SCOPE_AND_KEY,
+                                new Serializable[]{key, role, PropertyScope.ROLE}, key, role, PropertyScope.ROLE
+                        )
+                );
+        if (webRequest.checkNotModified(PreferenceETags.of(preference), PreferenceETags.lastModified(preference))) {
+            return null;
+        }
         return ResponseEntity.ok(
-                preferenceVOMapper.toRoleVO(
-                        preferencesService.findForOwnerAndScopeAndKey(role, PropertyScope.ROLE, key)
-                                .orElseThrow(() ->
-                                        new NotFoundException(
-                                                translator,
-                                                PreferencesConstants.NOT_FOUND_BY_OWNER_AND_SCOPE_AND_KEY,
-                                                new Serializable[]{key, role, PropertyScope.ROLE}, key, role, PropertyScope.ROLE
-                                        )
-                                )
-                )
+                preferenceVOMapper.toRoleVO(preference)
         );
     }
 }
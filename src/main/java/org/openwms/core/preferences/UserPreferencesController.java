@@ -24,20 +24,24 @@ import org.openwms.core.preferences.api.PreferencesApi;
 import org.openwms.core.preferences.api.PreferencesConstants;
 import org.openwms.core.preferences.api.UserPreferenceVO;
 import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * A UserPreferencesController.
+ * A UserPreferencesController. Replaced by the {@link ReactivePreferencesController} if the Spring profiles {@literal MONGODB} and
+ * {@literal REACTIVE} are both active.
  *
  * @author Heiko Scherrer
  */
+@Profile("!(MONGODB & REACTIVE)")
 @Validated
 @MeasuredRestController
 public class UserPreferencesController extends AbstractWebController {
@@ -56,29 +60,37 @@ public class UserPreferencesController extends AbstractWebController {
 
     @GetMapping(value = PreferencesApi.API_PREFERENCES, params = "user")
     public ResponseEntity<List<UserPreferenceVO>> findByUser(
-            @RequestParam("user") @NotBlank String user
+            @RequestParam("user") @NotBlank String user,
+            WebRequest webRequest
     ) {
+        var preferences = preferencesService.findForOwnerAndScope(user, PropertyScope.USER);
+        if (webRequest.checkNotModified(PreferenceETags.of(preferences))) {
+            return null;
+        }
         return ResponseEntity.ok(
-                preferenceVOMapper.toUserVOList(new ArrayList<>(preferencesService.findForOwnerAndScope(user, PropertyScope.USER)))
+                preferenceVOMapper.toUserVOList(new ArrayList<>(preferences))
         );
     }
 
     @GetMapping(value = PreferencesApi.API_PREFERENCES, params = {"user", "key"})
     public ResponseEntity<UserPreferenceVO> findByUserAndKey(
             @RequestParam("user") @NotBlank String user,
-            @RequestParam("key") @NotBlank String key
+            @RequestParam("key") @NotBlank String key,
+            WebRequest webRequest
     ) {
+        var preference = preferencesService.findForOwnerAndScopeAndKey(user, PropertyScope.USER, key)
+                .orElseThrow(() ->
+                        new NotFoundException(
+                                translator,
+                                PreferencesConstants.NOT_FOUND_BY_OWNER_AND_SCOPE_AND_KEY,
+                                new Serializable[]{key, user, PropertyScope.USER}, key, user, PropertyScope.USER
+                        )
+                );
+        if (webRequest.checkNotModified(PreferenceETags.of(preference), PreferenceETags.lastModified(preference))) {
+            return null;
+        }
         return ResponseEntity.ok(
-                preferenceVOMapper.toUserVO(
-                        preferencesService.findForOwnerAndScopeAndKey(user, PropertyScope.USER, key)
-                                .orElseThrow(() ->
-                                        new NotFoundException(
-                                                translator,
-                                                PreferencesConstants.NOT_FOUND_BY_OWNER_AND_SCOPE_AND_KEY,
-                                                new Serializable[]{key, user, PropertyScope.USER}, key, user, PropertyScope.USER
-                                        )
-                                )
-                )
+                preferenceVOMapper.toUserVO(preference)
         );
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A PreferenceBulkResultVO is the outcome of one item of a bulk create or update request.
+ *
+ * @author Heiko Scherrer
+ */
+public class PreferenceBulkResultVO implements Serializable {
+
+    public enum Status {
+        /** The {@code Preference} has been created. */
+        CREATED,
+        /** The existing {@code Preference} has been updated. */
+        UPDATED,
+        /** The {@code Preference} has not been saved, the reason is given in the message. */
+        REJECTED
+    }
+
+    /** The outcome of the item. */
+    @JsonProperty("status")
+    private Status status;
+
+    /** The persistent key of the saved resource. */
+    @JsonProperty("pKey")
+    private String pKey;
+
+    /** The business key of the resource as passed in the request. */
+    @JsonProperty("key")
+    private String key;
+
+    /** The owner of the resource as passed in the request. */
+    @JsonProperty("owner")
+    private String owner;
+
+    /** The reason why the item has been rejected. */
+    @JsonProperty("message")
+    private String message;
+
+    protected PreferenceBulkResultVO() { }
+
+    public PreferenceBulkResultVO(Status status, String pKey, String key, String owner, String message) {
+        this.status = status;
+        this.pKey = pKey;
+        this.key = key;
+        this.owner = owner;
+        this.message = message;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getpKey() {
+        return pKey;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PreferenceBulkResultVO that = (PreferenceBulkResultVO) o;
+        return status == that.status &&
+                Objects.equals(pKey, that.pKey) &&
+                Objects.equals(key, that.key) &&
+                Objects.equals(owner, that.owner) &&
+                Objects.equals(message, that.message);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, pKey, key, owner, message);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A PreferenceChangesVO is the delta of {@code Preference}s since a watermark.
+ *
+ * @author Heiko Scherrer
+ */
+public class PreferenceChangesVO implements Serializable {
+
+    /** The {@code Preference}s created or updated since the watermark. */
+    @JsonProperty("changed")
+    private List<PreferenceVO> changed = new ArrayList<>();
+
+    /** The persistent keys of the {@code Preference}s deleted since the watermark. */
+    @JsonProperty("deleted")
+    private List<String> deleted = new ArrayList<>();
+
+    /** The watermark to pass with the next request, in ISO8601 format with offset. */
+    @JsonProperty("watermark")
+    private OffsetDateTime watermark;
+
+    /** Whether the changes are a full snapshot that replaces all {@code Preference}s known by the client. */
+    @JsonProperty("reset")
+    private boolean reset;
+
+    protected PreferenceChangesVO() { }
+
+    public PreferenceChangesVO(List<PreferenceVO> changed, List<String> deleted, OffsetDateTime watermark, boolean reset) {
+        this.changed = new ArrayList<>(changed);
+        this.deleted = new ArrayList<>(deleted);
+        this.watermark = watermark;
+        this.reset = reset;
+    }
+
+    public List<PreferenceVO> getChanged() {
+        return changed;
+    }
+
+    public List<String> getDeleted() {
+        return deleted;
+    }
+
+    public OffsetDateTime getWatermark() {
+        return watermark;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PreferenceChangesVO that = (PreferenceChangesVO) o;
+        return reset == that.reset &&
+                Objects.equals(changed, that.changed) &&
+                Objects.equals(deleted, that.deleted) &&
+                Objects.equals(watermark, that.watermark);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(changed, deleted, watermark, reset);
+    }
+}
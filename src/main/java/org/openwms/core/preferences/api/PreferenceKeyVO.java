@@ -0,0 +1,122 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A PreferenceKeyVO identifies a Preference by its business key, that is the owner, the scope and the key. It is used to lookup several
+ * Preferences in one go.
+ *
+ * @author Heiko Scherrer
+ * @see PreferencesApi#lookup(java.util.List)
+ */
+public class PreferenceKeyVO implements Serializable {
+
+    /** The owner of the Preference, not set for {@code APPLICATION} Preferences. */
+    @JsonProperty("owner")
+    private String owner;
+
+    /** The scope of the Preference (APPLICATION, MODULE, ROLE or USER). */
+    @NotBlank
+    @JsonProperty("scope")
+    private String scope;
+
+    /** The key of the Preference. */
+    @NotBlank
+    @JsonProperty("key")
+    private String key;
+
+    protected PreferenceKeyVO() { }
+
+    public PreferenceKeyVO(String owner, String scope, String key) {
+        this.owner = owner;
+        this.scope = scope;
+        this.key = key;
+    }
+
+    /**
+     * Build the key of this Preference in the result of a lookup, that is {@code scope/owner/key} with an empty owner if not set.
+     *
+     * @return The key of the lookup result
+     */
+    public String asLookupKey() {
+        return asLookupKey(owner, scope, key);
+    }
+
+    /**
+     * Build the key of a Preference in the result of a lookup, that is {@code scope/owner/key} with an empty owner if not set.
+     *
+     * @param owner The owner of the Preference
+     * @param scope The scope of the Preference
+     * @param key The key of the Preference
+     * @return The key of the lookup result
+     */
+    public static String asLookupKey(String owner, String scope, String key) {
+        return scope + "/" + (owner == null ? "" : owner) + "/" + key;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PreferenceKeyVO that = (PreferenceKeyVO) o;
+        return Objects.equals(owner, that.owner) &&
+                Objects.equals(scope, that.scope) &&
+                Objects.equals(key, that.key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(owner, scope, key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The lookup key.
+     */
+    @Override
+    public String toString() {
+        return asLookupKey();
+    }
+}
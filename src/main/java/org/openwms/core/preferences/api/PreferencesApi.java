@@ -16,8 +16,8 @@
 package org.openwms.core.preferences.api;
 
 import jakarta.validation.constraints.NotBlank;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -27,14 +27,19 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
- * A PreferencesApi defines the public REST API to manage preferences.
+ * A PreferencesApi defines the public REST API to manage preferences. Clients that read Preferences frequently import the
+ * {@link org.openwms.core.preferences.api.cache.PreferencesApiCacheConfiguration} to cache the results. The Feign client is not registered
+ * as primary bean, so that the caching decorator can take precedence. Clients that define their own {@code PreferencesApi} beans next to
+ * the Feign client need to mark one of them as primary or use the qualifier {@literal preferencesApi} to inject the Feign client.
  *
  * @author Heiko Scherrer
  */
-@FeignClient(name = "preferences-service", qualifiers = "preferencesApi")
+@FeignClient(name = "preferences-service", qualifiers = "preferencesApi", primary = false)
 public interface PreferencesApi {
 
     /** API version. */
@@ -47,17 +52,28 @@ public interface PreferencesApi {
      *
      * @return All existing Preferences
      */
-    @Cacheable("preferences")
     @GetMapping(API_PREFERENCES)
     List<PreferenceVO> findAll();
 
+    /**
+     * Find and return a slice of all existing preferences ordered by their persistent key.
+     *
+     * @param after The persistent key of the last Preference of the previous slice, or {@literal null} to start with the first one
+     * @param limit The maximum number of Preferences to return
+     * @return The Preferences of the slice
+     */
+    @GetMapping(value = API_PREFERENCES, params = "limit")
+    List<PreferenceVO> findAllAfter(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam("limit") int limit
+    );
+
     /**
      * Find and return a Preference identified by its persistent key.
      *
      * @param pKey The persistent identifier
      * @return The instance
      */
-    @Cacheable("preferences")
     @GetMapping(value = API_PREFERENCES + "/{pKey}")
     PreferenceVO findByPKey(
             @PathVariable("pKey") String pKey
@@ -69,7 +85,6 @@ public interface PreferencesApi {
      * @param scope The scope to search for
      * @return All existing Preferences
      */
-    @Cacheable("preferences")
     @GetMapping(value = API_PREFERENCES, params = "scope")
     List<PreferenceVO> findAllOfScope(
             @RequestParam("scope") String scope
@@ -84,7 +99,6 @@ public interface PreferencesApi {
      * @return The existing Preference
      * @throws org.ameba.exception.NotFoundException If no Preference exists
      */
-    @Cacheable("preferences")
     @GetMapping(value = API_PREFERENCES, params = {"scope", "key"})
     PreferenceVO findByOwnerScopeKey(
             @RequestParam(value = "owner", required = false) String owner,
@@ -92,6 +106,51 @@ public interface PreferencesApi {
             @RequestParam("key") @NotBlank String key
     );
 
+    /**
+     * Find and return all Preferences that match one of the given business keys in one go.
+     *
+     * @param keys The business keys of the Preferences to find
+     * @return The existing Preferences mapped by {@link PreferenceKeyVO#asLookupKey()}, keys that do not exist are not contained
+     */
+    @PostMapping(value = API_PREFERENCES + "/lookup")
+    Map<String, PreferenceVO> lookup(
+            @RequestBody List<PreferenceKeyVO> keys
+    );
+
+    /**
+     * Find the Preferences that have been created, updated or deleted since the watermark of the previous call.
+     *
+     * @param since The watermark of the previous call, or {@literal null} to get all Preferences
+     * @param owner The owner of the Preferences (optional)
+     * @param scope The scope of the Preferences (optional)
+     * @return The changes and the watermark to pass with the next call
+     */
+    @GetMapping(value = API_PREFERENCES + "/changes")
+    PreferenceChangesVO findChangesSince(
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime since,
+            @RequestParam(value = "owner", required = false) String owner,
+            @RequestParam(value = "scope", required = false) String scope
+    );
+
+    /**
+     * Resolve the effective Preference of a key, that is the {@code USER} Preference of the {@code user}, if it does not exist the
+     * {@code ROLE} Preference of the first of the {@code roles} that has one, then the {@code MODULE} Preference of the {@code module} and
+     * finally the {@code APPLICATION} Preference.
+     *
+     * @param key The Preference key
+     * @param user The name of the User (optional)
+     * @param roles The names of the Roles in the order of precedence (optional)
+     * @param module The name of the Module (optional)
+     * @return The effective Preference, or {@literal null} if the key does not exist in any of the scopes
+     */
+    @GetMapping(value = API_PREFERENCES + "/resolve", params = "key")
+    PreferenceVO resolve(
+            @RequestParam("key") String key,
+            @RequestParam(value = "user", required = false) String user,
+            @RequestParam(value = "roles", required = false) List<String> roles,
+            @RequestParam(value = "module", required = false) String module
+    );
+
     /**
      * Find and return all {@code Preference}s that belong to a group with the same {@code groupName}.
      *
@@ -100,7 +159,6 @@ public interface PreferencesApi {
      * @param groupName The name of the group
      * @return All instances, or {@literal null} if not existed
      */
-    @Cacheable("preferences")
     @GetMapping(value = "/preferences/groups", params = {"scope", "name"}, produces = MediaType.APPLICATION_JSON_VALUE)
     List<PreferenceVO> findForOwnerAndScopeAndGroupName(
             @RequestParam(value = "owner", required = false) String owner,
@@ -117,6 +175,17 @@ public interface PreferencesApi {
             @RequestBody PreferenceVO preference
     );
 
+    /**
+     * Create or update a list of preferences in one go, existing preferences are identified by owner, scope and key.
+     *
+     * @param preferences The preferences to create or update
+     * @return The outcome of each passed preference, in the same order
+     */
+    @PostMapping(value = API_PREFERENCES + "/bulk")
+    List<PreferenceBulkResultVO> upsertAll(
+            @RequestBody List<PreferenceVO> preferences
+    );
+
     /**
      * Update the content of an existing preference identified by its persistent key.
      *
@@ -32,6 +32,19 @@ public final class PreferencesConstants {
     public static final String NOT_ALLOWED_PKEY = "owms.core.preferences.notAllowedPKey";
     public static final String PROPERTY_SCOPE_NOT_DEFINED = "owms.core.preferences.propertyScopeNotDefined";
     public static final String NOT_ALLOWED_FETCH_USER_PREFS = "owms.core.preferences.notAllowedToFetchUserPrefs";
+    public static final String INVALID_VALUE = "owms.core.preferences.invalidValue";
+    public static final String UNREADABLE_VALUE = "owms.core.preferences.unreadableValue";
+    public static final String VERSION_CONFLICT = "owms.core.preferences.versionConflict";
+
+    /*~ --- Messaging --- */
+    /** Name of the AMQP message header that carries the id of the service node that sent the message. */
+    public static final String HEADER_NODE_ID = "owms_node_id";
+
+    /*~ --- Paging --- */
+    /** Name of the HTTP response header that carries the total number of elements of a paged result. */
+    public static final String HEADER_TOTAL_COUNT = "X-Total-Count";
+    /** Maximum number of elements returned in one page or slice. */
+    public static final int MAX_PAGE_SIZE = 1000;
 
     /*~ --- Length --- */
     public static final int LENGTH_KEY = 60;
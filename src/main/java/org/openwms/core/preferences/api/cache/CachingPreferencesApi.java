@@ -0,0 +1,267 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openwms.core.preferences.api.PreferenceBulkResultVO;
+import org.openwms.core.preferences.api.PreferenceChangesVO;
+import org.openwms.core.preferences.api.PreferenceKeyVO;
+import org.openwms.core.preferences.api.PreferenceVO;
+import org.openwms.core.preferences.api.PreferencesApi;
+import org.openwms.core.preferences.api.messages.PreferenceMO;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * A CachingPreferencesApi is a client-side decorator of the {@link PreferencesApi} that caches the results of the read operations. Each
+ * read operation has its own bounded cache region with explicit keys, entries expire after the configured time-to-live. All regions are
+ * invalidated when a Preference is written through this client, a single changed Preference that has been announced by the service with a
+ * {@link PreferenceMO} is evicted precisely. Empty results are cached as well.
+ *
+ * @author Heiko Scherrer
+ * @see PreferencesApiCacheConfiguration
+ */
+public class CachingPreferencesApi implements PreferencesApi {
+
+    private final PreferencesApi delegate;
+    private final Cache<Boolean, List<PreferenceVO>> all;
+    private final Cache<String, Optional<PreferenceVO>> byPKey;
+    private final Cache<String, List<PreferenceVO>> byScope;
+    private final Cache<KeyLookup, Optional<PreferenceVO>> byKey;
+    private final Cache<Resolution, Optional<PreferenceVO>> resolved;
+    private final Cache<GroupLookup, Optional<List<PreferenceVO>>> byGroupName;
+
+    private record KeyLookup(String owner, String scope, String key) {
+    }
+
+    private record Resolution(String key, String user, List<String> roles, String module) {
+    }
+
+    private record GroupLookup(String owner, String scope, String groupName) {
+    }
+
+    /**
+     * Create a new CachingPreferencesApi.
+     *
+     * @param delegate The PreferencesApi to decorate, usually the Feign client
+     * @param timeToLive Time after an entry is written to the cache until it expires
+     * @param maximumSize Maximum number of entries per cache region
+     */
+    public CachingPreferencesApi(PreferencesApi delegate, Duration timeToLive, long maximumSize) {
+        this.delegate = Objects.requireNonNull(delegate, "The PreferencesApi to decorate is null");
+        this.all = build(timeToLive, maximumSize);
+        this.byPKey = build(timeToLive, maximumSize);
+        this.byScope = build(timeToLive, maximumSize);
+        this.byKey = build(timeToLive, maximumSize);
+        this.resolved = build(timeToLive, maximumSize);
+        this.byGroupName = build(timeToLive, maximumSize);
+    }
+
+    private static <K, V> Cache<K, V> build(Duration timeToLive, long maximumSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get all cache regions by their metric names.
+     *
+     * @return The cache regions
+     */
+    Map<String, Cache<?, ?>> getCaches() {
+        var caches = new LinkedHashMap<String, Cache<?, ?>>();
+        caches.put("preferences.client.all", all);
+        caches.put("preferences.client.byPKey", byPKey);
+        caches.put("preferences.client.byScope", byScope);
+        caches.put("preferences.client.byKey", byKey);
+        caches.put("preferences.client.resolved", resolved);
+        caches.put("preferences.client.byGroupName", byGroupName);
+        return caches;
+    }
+
+    @Override
+    public List<PreferenceVO> findAll() {
+        return all.get(Boolean.TRUE, k -> copyOf(delegate.findAll()));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Slices are not cached.
+     */
+    @Override
+    public List<PreferenceVO> findAllAfter(String after, int limit) {
+        return delegate.findAllAfter(after, limit);
+    }
+
+    @Override
+    public PreferenceVO findByPKey(String pKey) {
+        return byPKey.get(pKey, k -> Optional.ofNullable(delegate.findByPKey(pKey))).orElse(null);
+    }
+
+    @Override
+    public List<PreferenceVO> findAllOfScope(String scope) {
+        return byScope.get(scope, k -> copyOf(delegate.findAllOfScope(scope)));
+    }
+
+    @Override
+    public PreferenceVO findByOwnerScopeKey(String owner, String scope, String key) {
+        return byKey.get(new KeyLookup(owner, scope, key), k -> Optional.ofNullable(delegate.findByOwnerScopeKey(owner, scope, key)))
+                .orElse(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Shares the cache region with {@link #findByOwnerScopeKey(String, String, String)}. Only the keys that are not cached are requested
+     * from the service, with a single call.
+     */
+    @Override
+    public Map<String, PreferenceVO> lookup(List<PreferenceKeyVO> keys) {
+        var lookups = new LinkedHashMap<PreferenceKeyVO, Optional<PreferenceVO>>(keys.size());
+        var misses = new ArrayList<PreferenceKeyVO>();
+        for (var key : keys) {
+            var cached = byKey.getIfPresent(toKeyLookup(key));
+            if (cached == null) {
+                misses.add(key);
+            }
+            lookups.put(key, cached);
+        }
+        if (!misses.isEmpty()) {
+            var loaded = delegate.lookup(misses);
+            for (var key : misses) {
+                var result = Optional.ofNullable(loaded == null ? null : loaded.get(key.asLookupKey()));
+                byKey.put(toKeyLookup(key), result);
+                lookups.put(key, result);
+            }
+        }
+        var result = new LinkedHashMap<String, PreferenceVO>(lookups.size());
+        lookups.forEach((key, vo) -> vo.ifPresent(v -> result.put(key.asLookupKey(), v)));
+        return result;
+    }
+
+    private static KeyLookup toKeyLookup(PreferenceKeyVO key) {
+        return new KeyLookup(key.getOwner(), key.getScope(), key.getKey());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Changes are not cached.
+     */
+    @Override
+    public PreferenceChangesVO findChangesSince(OffsetDateTime since, String owner, String scope) {
+        return delegate.findChangesSince(since, owner, scope);
+    }
+
+    @Override
+    public PreferenceVO resolve(String key, String user, List<String> roles, String module) {
+        var lookup = new Resolution(key, user, roles == null ? List.of() : List.copyOf(roles), module);
+        return resolved.get(lookup, k -> Optional.ofNullable(delegate.resolve(key, user, roles, module))).orElse(null);
+    }
+
+    @Override
+    public List<PreferenceVO> findForOwnerAndScopeAndGroupName(String owner, String scope, String groupName) {
+        return byGroupName.get(new GroupLookup(owner, scope, groupName),
+                k -> Optional.ofNullable(delegate.findForOwnerAndScopeAndGroupName(owner, scope, groupName)).map(List::copyOf))
+                .orElse(null);
+    }
+
+    private static List<PreferenceVO> copyOf(List<PreferenceVO> preferences) {
+        return preferences == null ? List.of() : List.copyOf(preferences);
+    }
+
+    @Override
+    public void create(PreferenceVO preference) {
+        afterWrite(() -> {
+            delegate.create(preference);
+            return null;
+        });
+    }
+
+    @Override
+    public List<PreferenceBulkResultVO> upsertAll(List<PreferenceVO> preferences) {
+        return afterWrite(() -> delegate.upsertAll(preferences));
+    }
+
+    @Override
+    public PreferenceVO update(String pKey, PreferenceVO preference) {
+        return afterWrite(() -> delegate.update(pKey, preference));
+    }
+
+    @Override
+    public void delete(String pKey) {
+        afterWrite(() -> {
+            delegate.delete(pKey);
+            return null;
+        });
+    }
+
+    /**
+     * The cache is invalidated even if the write operation failed, because it might have been executed by the service anyway.
+     */
+    private <T> T afterWrite(Supplier<T> write) {
+        try {
+            return write.get();
+        } finally {
+            evictAll();
+        }
+    }
+
+    /**
+     * Evict a Preference that has been created, changed or deleted. Only the entries that might contain the Preference are evicted from
+     * the cache regions that are keyed by the Preference key or scope, all lists and groups are invalidated.
+     *
+     * @param mo The changed Preference
+     */
+    public void evict(PreferenceMO mo) {
+        if (mo.getKey() == null || mo.getScope() == null) {
+            evictAll();
+            return;
+        }
+        if (mo.getpKey() != null) {
+            byPKey.invalidate(mo.getpKey());
+        }
+        byKey.asMap().keySet().removeIf(k -> mo.getKey().equals(k.key()));
+        resolved.asMap().keySet().removeIf(k -> mo.getKey().equals(k.key()));
+        byScope.invalidate(mo.getScope());
+        all.invalidateAll();
+        byGroupName.invalidateAll();
+    }
+
+    /**
+     * Invalidate all cache regions.
+     */
+    public void evictAll() {
+        all.invalidateAll();
+        byPKey.invalidateAll();
+        byScope.invalidateAll();
+        byKey.invalidateAll();
+        resolved.invalidateAll();
+        byGroupName.invalidateAll();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.api.cache;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.ameba.app.SpringProfiles;
+import org.openwms.core.preferences.api.PreferencesApi;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+/**
+ * A PreferencesApiCacheConfiguration is imported by clients of the {@link PreferencesApi} to put the {@link CachingPreferencesApi} in front
+ * of the Feign client. It is only active if {@code owms.preferences.client.cache.enabled} is set to {@literal true}. The decorator is the
+ * primary {@link PreferencesApi} bean, whereas the Feign client is declared with {@code primary = false}. With Spring Profile
+ * {@link SpringProfiles#AMQP} the cache is evicted on Preference events, and hit and miss statistics are bound to Micrometer if it is on
+ * the classpath.
+ *
+ * @author Heiko Scherrer
+ */
+@ConditionalOnProperty(prefix = "owms.preferences.client.cache", name = "enabled", havingValue = "true")
+@Configuration(proxyBeanMethods = false)
+public class PreferencesApiCacheConfiguration {
+
+    @Primary
+    @Bean
+    CachingPreferencesApi cachingPreferencesApi(
+            @Qualifier("preferencesApi") PreferencesApi preferencesApi,
+            @Value("${owms.preferences.client.cache.time-to-live:1m}") Duration timeToLive,
+            @Value("${owms.preferences.client.cache.maximum-size:1000}") long maximumSize
+    ) {
+        return new CachingPreferencesApi(preferencesApi, timeToLive, maximumSize);
+    }
+
+    @Profile(SpringProfiles.AMQP)
+    @ConditionalOnClass(name = "org.springframework.amqp.rabbit.annotation.RabbitListener")
+    @Configuration(proxyBeanMethods = false)
+    static class Invalidation {
+
+        @Bean
+        PreferencesApiCacheInvalidator preferencesApiCacheInvalidator(CachingPreferencesApi cachingPreferencesApi,
+                ConnectionFactory connectionFactory) {
+            return new PreferencesApiCacheInvalidator(cachingPreferencesApi, connectionFactory);
+        }
+    }
+
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+    @Configuration(proxyBeanMethods = false)
+    static class Metrics {
+
+        @Bean
+        MeterBinder preferencesApiCacheMetrics(CachingPreferencesApi cachingPreferencesApi) {
+            return registry -> cachingPreferencesApi.getCaches().forEach((name, cache) -> CaffeineCacheMetrics.monitor(registry, cache, name));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.api.cache;
+
+import org.openwms.core.preferences.api.messages.PreferenceBulkMO;
+import org.openwms.core.preferences.api.messages.PreferenceMO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitHandler;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionListener;
+import org.springframework.messaging.handler.annotation.Payload;
+
+/**
+ * A PreferencesApiCacheInvalidator evicts the {@link CachingPreferencesApi} when the service announces changed Preferences. Each client
+ * listens on its own anonymous, exclusive and auto-delete queue. Whenever a new connection to the broker is established the whole cache is
+ * invalidated, because changes might have been missed in the meantime.
+ *
+ * @author Heiko Scherrer
+ */
+@RabbitListener(bindings = @QueueBinding(
+        value = @Queue,
+        exchange = @Exchange(value = "${owms.events.core.preferences.exchange-name}", type = ExchangeTypes.TOPIC),
+        key = {"preference.event.created", "preference.event.changed", "preference.event.deleted", "preference.event.bulk"}
+))
+class PreferencesApiCacheInvalidator implements ConnectionListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferencesApiCacheInvalidator.class);
+    private final CachingPreferencesApi cache;
+
+    PreferencesApiCacheInvalidator(CachingPreferencesApi cache, ConnectionFactory connectionFactory) {
+        this.cache = cache;
+        connectionFactory.addConnectionListener(this);
+    }
+
+    @RabbitHandler
+    public void onEvent(@Payload PreferenceMO mo) {
+        LOGGER.debug("Preference [{}] changed, evicting the client cache", mo.getKey());
+        cache.evict(mo);
+    }
+
+    @RabbitHandler
+    public void onBulkEvent(@Payload PreferenceBulkMO mo) {
+        LOGGER.debug("Preferences saved in bulk, invalidating the client cache");
+        cache.evictAll();
+    }
+
+    @Override
+    public void onCreate(Connection connection) {
+        cache.evictAll();
+    }
+}
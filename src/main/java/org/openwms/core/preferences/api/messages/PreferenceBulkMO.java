@@ -0,0 +1,85 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.api.messages;
+
+import jakarta.validation.Valid;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A PreferenceBulkMO carries all {@code Preference}s that have been created or updated together in one batch.
+ *
+ * @author Heiko Scherrer
+ */
+public class PreferenceBulkMO implements Serializable {
+
+    /** All {@code Preference}s of the batch that have been created. */
+    @Valid
+    private List<PreferenceMO> created = new ArrayList<>();
+    /** All {@code Preference}s of the batch that have been updated. */
+    @Valid
+    private List<PreferenceMO> updated = new ArrayList<>();
+
+    PreferenceBulkMO() { }
+
+    public PreferenceBulkMO(List<PreferenceMO> created, List<PreferenceMO> updated) {
+        this.created = new ArrayList<>(created);
+        this.updated = new ArrayList<>(updated);
+    }
+
+    public List<PreferenceMO> getCreated() {
+        return created;
+    }
+
+    public void setCreated(List<PreferenceMO> created) {
+        this.created = created;
+    }
+
+    public List<PreferenceMO> getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(List<PreferenceMO> updated) {
+        this.updated = updated;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PreferenceBulkMO that = (PreferenceBulkMO) o;
+        return Objects.equals(created, that.created) &&
+                Objects.equals(updated, that.updated);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All fields.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(created, updated);
+    }
+}
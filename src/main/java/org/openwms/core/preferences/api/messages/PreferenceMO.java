@@ -36,6 +36,8 @@ public class PreferenceMO implements Serializable {
     private String key;
     /** The owner of the resource. */
     private String owner;
+    /** The scope of the {@code Preference}, one of APPLICATION, MODULE, ROLE or USER. */
+    private String scope;
     /** A descriptive text of the {@code Preference}. */
     private String description;
     /** The value of the {@code Preference}. */
@@ -75,6 +77,14 @@ public class PreferenceMO implements Serializable {
         this.owner = owner;
     }
 
+    public String getScope() {
+        return scope;
+    }
+
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -126,6 +136,7 @@ public class PreferenceMO implements Serializable {
         return Objects.equals(pKey, that.pKey) &&
                 Objects.equals(key, that.key) &&
                 Objects.equals(owner, that.owner) &&
+                Objects.equals(scope, that.scope) &&
                 Objects.equals(description, that.description) &&
                 Objects.equals(val, that.val) &&
                 Objects.equals(groupName, that.groupName) &&
@@ -139,6 +150,6 @@ public class PreferenceMO implements Serializable {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), pKey, key, owner, description, val, groupName, type);
+        return Objects.hash(super.hashCode(), pKey, key, owner, scope, description, val, groupName, type);
     }
 }
@@ -38,7 +38,7 @@ class PreferencesApplicationListener implements ApplicationListener<MergePropert
      * {@inheritDoc}
      *
      * When a {@link MergePropertiesEvent} is caught, <i>new</i> {@code Preferences} received from the file provider are persisted. Already
-     * existing {@code Preferences} are ignored.
+     * existing {@code Preferences} are ignored and reported by the service when their persisted value differs from the file.
      */
     @Override
     public void onApplicationEvent(MergePropertiesEvent event) {
@@ -19,6 +19,11 @@ import org.ameba.amqp.RabbitTemplateConfigurable;
 import org.ameba.app.SpringProfiles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
 import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
@@ -111,4 +116,24 @@ public class PreferencesAsyncConfiguration {
     TopicExchange lgExchange(@Value("${owms.events.core.preferences.exchange-name}") String exchangeName) {
         return new TopicExchange(exchangeName, true, false);
     }
+
+    /*~ ------------- Cache invalidation ----------- */
+    /**
+     * Each service node listens on its own non-durable, exclusive and auto-delete queue for Preference changes made by other nodes, to keep
+     * the Preference cache and the resolution index up-to-date.
+     */
+    @Bean
+    Queue preferencesCacheQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("preferences.cache."));
+    }
+
+    @Bean
+    Declarables preferencesCacheBindings(Queue preferencesCacheQueue, TopicExchange lgExchange) {
+        return new Declarables(
+                BindingBuilder.bind(preferencesCacheQueue).to(lgExchange).with("preference.event.created"),
+                BindingBuilder.bind(preferencesCacheQueue).to(lgExchange).with("preference.event.changed"),
+                BindingBuilder.bind(preferencesCacheQueue).to(lgExchange).with("preference.event.deleted"),
+                BindingBuilder.bind(preferencesCacheQueue).to(lgExchange).with("preference.event.bulk")
+        );
+    }
 }
@@ -15,9 +15,13 @@
  */
 package org.openwms.core.preferences.app;
 
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.openwms.core.preferences.impl.jpa.PreferenceIdGenerator;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
 import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
@@ -50,12 +54,20 @@ public class PreferencesAutoConfiguration {
 
     /**
      * Activates the default JPA persistence backend with Spring Data repositories, auditing and transaction management. Not active with
-     * the MONGODB Spring profile where the MongoDB backend is chosen instead (see {@link PreferencesMongoConfiguration}).
+     * the MONGODB Spring profile where the MongoDB backend is chosen instead (see {@link PreferencesMongoConfiguration}). The configured
+     * {@literal owms.preferences.id-increment-size} is passed to the {@link PreferenceIdGenerator} of the Preferences only, the session
+     * factory wide Hibernate settings of the consuming application are left untouched.
      */
     @Profile("!MONGODB")
     @Configuration(proxyBeanMethods = false)
     @EnableJpaRepositories(basePackages = "org.openwms.core.preferences.impl.jpa")
     @EnableJpaAuditing
     @EnableTransactionManagement
-    static class PreferencesJpaConfiguration {}
+    static class PreferencesJpaConfiguration {
+
+        @Bean
+        HibernatePropertiesCustomizer preferencesHibernatePropertiesCustomizer(PreferencesProperties properties) {
+            return hibernateProperties -> hibernateProperties.put(PreferenceIdGenerator.INCREMENT_SIZE, properties.getIdIncrementSize());
+        }
+    }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.app;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.openwms.core.preferences.PreferencesService;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.openwms.core.preferences.impl.PreferencePersistencePort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A PreferencesMetricsConfiguration times the calls to the {@link PreferencesService}, to the {@link PreferencePersistencePort} and to
+ * the MapStruct mappers with Micrometer, and exposes the number of Preferences per {@link PropertyScope} as gauges. All meters are tagged
+ * with the persistence backend and, through the common tags, with the application name, so they are scraped by the Prometheus endpoint
+ * of the consuming application. The instrumentation is turned off with {@literal owms.preferences.metrics.enabled=false}.
+ *
+ * @author Heiko Scherrer
+ */
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+@ConditionalOnProperty(prefix = "owms.preferences.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Configuration(proxyBeanMethods = false)
+public class PreferencesMetricsConfiguration {
+
+    private static final String PACKAGE = "org.openwms.core.preferences.";
+
+    private static String backend(Environment environment) {
+        return environment.matchesProfiles("MONGODB") ? "MONGODB" : "JPA";
+    }
+
+    @Bean
+    static Advisor preferencesServiceMetrics(ObjectProvider<MeterRegistry> meterRegistry, Environment environment) {
+        return new DefaultPointcutAdvisor(new ComposablePointcut(new RootClassFilter(PreferencesService.class)),
+                new PreferencesMetricsInterceptor(meterRegistry, "owms.preferences.service",
+                        "The duration of calls to the Preferences service", backend(environment), false));
+    }
+
+    /**
+     * The caching decorator of the port is left out, so that the timer reflects the calls that reach the database.
+     */
+    @Bean
+    static Advisor preferencesPersistenceMetrics(ObjectProvider<MeterRegistry> meterRegistry, Environment environment) {
+        ClassFilter adapters = clazz -> PreferencePersistencePort.class.isAssignableFrom(clazz)
+                && !AnnotatedElementUtils.hasAnnotation(clazz, Primary.class);
+        return new DefaultPointcutAdvisor(new ComposablePointcut(adapters),
+                new PreferencesMetricsInterceptor(meterRegistry, "owms.preferences.persistence",
+                        "The duration of calls to the Preferences persistence backend", backend(environment), false));
+    }
+
+    /**
+     * The mappers are generated by MapStruct, they are matched by the name of the generated implementation.
+     */
+    @Bean
+    static Advisor preferencesMapperMetrics(ObjectProvider<MeterRegistry> meterRegistry, Environment environment) {
+        ClassFilter mappers = clazz -> clazz.getName().startsWith(PACKAGE) && clazz.getSimpleName().endsWith("MapperImpl");
+        return new DefaultPointcutAdvisor(new ComposablePointcut(mappers),
+                new PreferencesMetricsInterceptor(meterRegistry, "owms.preferences.mapper",
+                        "The duration of mapping Preferences between layers", backend(environment), true));
+    }
+
+    @Bean
+    MeterBinder preferencesCountMetrics(PreferencePersistencePort persistencePort, PreferencesProperties properties,
+            Environment environment) {
+        var counts = new ScopeCounts(persistencePort, properties.getMetrics().getCountRefresh());
+        var backend = backend(environment);
+        return registry -> {
+            for (var scope : PropertyScope.values()) {
+                Gauge.builder("owms.preferences.count", counts, c -> c.get(scope))
+                        .tags("scope", scope.name(), "backend", backend)
+                        .description("The number of Preferences per scope")
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Holds the number of Preferences per scope and counts them again once they are older than the refresh interval, so that a scrape
+     * does not hit the database for each gauge. If counting fails the former numbers are kept.
+     */
+    static class ScopeCounts {
+
+        private static final Logger LOGGER = LoggerFactory.getLogger(ScopeCounts.class);
+        private final PreferencePersistencePort persistencePort;
+        private final Duration refresh;
+        private final Map<PropertyScope, Long> counts = new EnumMap<>(PropertyScope.class);
+        private Instant countedAt = Instant.EPOCH;
+
+        ScopeCounts(PreferencePersistencePort persistencePort, Duration refresh) {
+            this.persistencePort = persistencePort;
+            this.refresh = refresh;
+        }
+
+        synchronized double get(PropertyScope scope) {
+            var now = Instant.now();
+            if (countedAt.plus(refresh).isBefore(now)) {
+                try {
+                    for (var s : PropertyScope.values()) {
+                        counts.put(s, persistencePort.countByScope(s));
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Counting the Preferences per scope failed, keeping the former numbers: [{}]", e.getMessage());
+                }
+                countedAt = now;
+            }
+            var count = counts.get(scope);
+            return count == null ? Double.NaN : count;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.app;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PropertyScope;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * A PreferencesMetricsInterceptor records the duration of each intercepted method call with a Micrometer {@link Timer}, tagged with the
+ * operation, the scope of the Preferences, the persistence backend and the exception, if one has been thrown. The scope is taken from the
+ * first argument that is a {@link PropertyScope} or a {@link Preference}, it is {@literal none} if there is no such argument. Calls are
+ * not recorded as long as no {@link MeterRegistry} exists.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferencesMetricsInterceptor implements MethodInterceptor {
+
+    private static final String NONE = "none";
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final String name;
+    private final String description;
+    private final String backend;
+    private final boolean qualified;
+
+    /**
+     * Create an interceptor.
+     *
+     * @param meterRegistry Provides the registry, resolved on each call so that the interceptor can be created early
+     * @param name The name of the timer
+     * @param description The description of the timer
+     * @param backend The persistence backend
+     * @param qualified Whether the operation is qualified with the name of the called class, for classes with equally named methods
+     */
+    PreferencesMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistry, String name, String description, String backend,
+            boolean qualified) {
+        this.meterRegistry = meterRegistry;
+        this.name = name;
+        this.description = description;
+        this.backend = backend;
+        this.qualified = qualified;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        var registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return invocation.proceed();
+        }
+        var sample = Timer.start(registry);
+        var exception = NONE;
+        try {
+            return invocation.proceed();
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .description(description)
+                    .tag("operation", operation(invocation))
+                    .tag("scope", scope(invocation.getArguments()))
+                    .tag("backend", backend)
+                    .tag("exception", exception)
+                    .register(registry));
+        }
+    }
+
+    private String operation(MethodInvocation invocation) {
+        if (!qualified || invocation.getThis() == null) {
+            return invocation.getMethod().getName();
+        }
+        var type = AopUtils.getTargetClass(invocation.getThis()).getSimpleName();
+        return type.replaceFirst("Impl$", "") + "." + invocation.getMethod().getName();
+    }
+
+    static String scope(Object[] arguments) {
+        for (var argument : arguments) {
+            if (argument instanceof PropertyScope scope) {
+                return scope.name();
+            }
+            if (argument instanceof Preference preference && preference.getScope() != null) {
+                return preference.getScope().name();
+            }
+        }
+        return NONE;
+    }
+}
@@ -21,6 +21,7 @@ import org.ameba.i18n.AbstractSpringTranslator;
 import org.ameba.i18n.Translator;
 import org.ameba.system.NestedReloadableResourceBundleMessageSource;
 import org.openwms.core.preferences.config.ModuleProperties;
+import org.openwms.core.preferences.config.PreferencesProperties;
 import org.openwms.core.preferences.impl.file.FilePackage;
 import org.openwms.core.startup.LocalServiceInitializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -46,7 +47,7 @@ import java.util.Properties;
  */
 @Configuration
 @EnableAspects(propagateRootCause = true)
-@EnableConfigurationProperties(ModuleProperties.class)
+@EnableConfigurationProperties({ModuleProperties.class, PreferencesProperties.class})
 public class PreferencesModuleConfiguration {
 
     @Bean
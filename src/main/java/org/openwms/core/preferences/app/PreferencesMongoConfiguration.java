@@ -19,6 +19,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
 
 /**
  * A PreferencesMongoConfiguration activates support for the MongoDB persistent storage.
@@ -26,6 +27,7 @@ import org.springframework.data.mongodb.repository.config.EnableMongoRepositorie
  * <ul>
  *     <li>Spring Data MongoDB Support (Repository definitions)</li>
  *     <li>Spring Data MongoDB Auditing</li>
+ *     <li>Reactive Spring Data MongoDB Support, only with Spring profile {@literal REACTIVE}</li>
  * </ul>
  *
  * @author Heiko Scherrer
@@ -36,4 +38,8 @@ import org.springframework.data.mongodb.repository.config.EnableMongoRepositorie
 @Configuration
 public class PreferencesMongoConfiguration {
 
+    @Profile("REACTIVE")
+    @EnableReactiveMongoRepositories(basePackages = "org.openwms.core.preferences.impl.mongodb")
+    @Configuration(proxyBeanMethods = false)
+    static class PreferencesReactiveMongoConfiguration {}
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.app;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SharedCacheMode;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A PreferencesSecondLevelCacheConfiguration enables the Hibernate second-level cache for Preference entities and the query cache for the
+ * lookups of the JPA repository, if {@literal owms.preferences.second-level-cache.enabled} is set to {@literal true}. The caches are held
+ * in the local Caffeine JCache provider, regions are created on first use. All settings are only defaults that the consuming application
+ * may override, the shared cache mode {@code ENABLE_SELECTIVE} keeps the cache to the Preference entities and the other entities of the
+ * application that are marked as cacheable. Hibernate statistics add a cost to every statement of the session factory, they are only
+ * collected to expose the hit, miss and put counts of both caches to Micrometer if
+ * {@literal owms.preferences.second-level-cache.statistics} is set to {@literal true}.
+ *
+ * @author Heiko Scherrer
+ */
+@Profile("!MONGODB")
+@ConditionalOnProperty(prefix = "owms.preferences.second-level-cache", name = "enabled", havingValue = "true")
+@ConditionalOnClass(name = {
+        "org.hibernate.cache.jcache.ConfigSettings",
+        "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"
+})
+@Configuration(proxyBeanMethods = false)
+public class PreferencesSecondLevelCacheConfiguration {
+
+    @Bean
+    HibernatePropertiesCustomizer preferencesSecondLevelCacheCustomizer(PreferencesProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.putIfAbsent(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.putIfAbsent(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE);
+            hibernateProperties.putIfAbsent(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.putIfAbsent(ConfigSettings.PROVIDER, "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+            hibernateProperties.putIfAbsent(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+            if (properties.getSecondLevelCache().isStatistics()) {
+                hibernateProperties.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, true);
+            }
+        };
+    }
+
+    @ConditionalOnProperty(prefix = "owms.preferences.second-level-cache", name = "statistics", havingValue = "true")
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+    @Configuration(proxyBeanMethods = false)
+    static class Metrics {
+
+        @Bean
+        MeterBinder preferencesSecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+            return registry -> {
+                var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                bind(registry, statistics, "entity", Statistics::getSecondLevelCacheHitCount, Statistics::getSecondLevelCacheMissCount,
+                        Statistics::getSecondLevelCachePutCount);
+                bind(registry, statistics, "query", Statistics::getQueryCacheHitCount, Statistics::getQueryCacheMissCount,
+                        Statistics::getQueryCachePutCount);
+            };
+        }
+
+        private static void bind(MeterRegistry registry, Statistics statistics, String cache, ToDoubleFunction<Statistics> hits,
+                ToDoubleFunction<Statistics> misses, ToDoubleFunction<Statistics> puts) {
+            FunctionCounter.builder("preferences.jpa.cache.gets", statistics, hits)
+                    .tags("cache", cache, "result", "hit")
+                    .description("The number of lookups served from the Hibernate cache")
+                    .register(registry);
+            FunctionCounter.builder("preferences.jpa.cache.gets", statistics, misses)
+                    .tags("cache", cache, "result", "miss")
+                    .description("The number of lookups that missed the Hibernate cache")
+                    .register(registry);
+            FunctionCounter.builder("preferences.jpa.cache.puts", statistics, puts)
+                    .tags("cache", cache)
+                    .description("The number of entries put into the Hibernate cache")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.app;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openwms.core.preferences.PreferencesService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.interceptor.ConcurrencyThrottleInterceptor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+import static org.ameba.LoggingCategories.BOOT;
+
+/**
+ * A PreferencesVirtualThreadsConfiguration is active when the consuming application runs on virtual threads with
+ * {@literal spring.threads.virtual.enabled=true}. Spring Boot then handles HTTP requests and AMQP messages on virtual threads, the
+ * listeners of Preference events run on the thread of the publishing transaction. Because the number of concurrent requests is no longer
+ * bound by a thread pool, the calls to the {@link PreferencesService} that need a database connection are throttled below the size of the
+ * database connection pool. The size is taken from the {@link HikariDataSource} of the application when the first call is made, so a pool
+ * that is configured in code is honored as well. Excess callers park before a transaction is started instead of timing out while waiting
+ * for a connection.
+ * The resolution of Preferences is answered from memory and is not throttled. The export with {@code streamAll} holds its connection for
+ * the whole export and has its own, smaller limit. A few connections of the pool are kept free for the background jobs and the
+ * application itself.
+ *
+ * @author Heiko Scherrer
+ */
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Configuration(proxyBeanMethods = false)
+public class PreferencesVirtualThreadsConfiguration {
+
+    private static final Logger BOOT_LOGGER = LoggerFactory.getLogger(BOOT);
+    /** The default maximum pool size of HikariCP. */
+    private static final int DEFAULT_POOL_SIZE = 10;
+    /** Connections of the pool that are not handed to throttled calls, e.g. for the outbox relay and the scheduled jobs. */
+    private static final int RESERVED_CONNECTIONS = 2;
+    /** Operations answered from the in-memory resolution index. */
+    private static final Set<String> IN_MEMORY = Set.of("resolve", "resolveValue");
+    private static final String EXPORT = "streamAll";
+
+    @Profile("!MONGODB")
+    @Bean
+    static Advisor preferencesServiceConcurrencyThrottle(Environment environment, ObjectProvider<DataSource> dataSource) {
+        var pointcut = new ComposablePointcut(new RootClassFilter(PreferencesService.class), new StaticMethodMatcher() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return !IN_MEMORY.contains(method.getName()) && !EXPORT.equals(method.getName());
+            }
+        });
+        return throttle(pointcut, () -> {
+            var limit = transactionLimit(environment, dataSource);
+            BOOT_LOGGER.info("Running on virtual threads, limiting concurrent Preference transactions to [{}]", limit);
+            return limit;
+        });
+    }
+
+    @Profile("!MONGODB")
+    @Bean
+    static Advisor preferencesExportConcurrencyThrottle(Environment environment) {
+        var limit = exportLimit(environment);
+        var export = new NameMatchMethodPointcut();
+        export.setMappedName(EXPORT);
+        BOOT_LOGGER.info("Running on virtual threads, limiting concurrent Preference exports to [{}]", limit);
+        return throttle(new ComposablePointcut(new RootClassFilter(PreferencesService.class)).intersection((MethodMatcher) export), () -> limit);
+    }
+
+    static int transactionLimit(Environment environment, ObjectProvider<DataSource> dataSource) {
+        return environment.getProperty("owms.preferences.max-concurrent-transactions", Integer.class,
+                Math.max(1, poolSize(environment, dataSource) - RESERVED_CONNECTIONS - Math.max(0, exportLimit(environment))));
+    }
+
+    static int exportLimit(Environment environment) {
+        return environment.getProperty("owms.preferences.max-concurrent-exports", Integer.class, 1);
+    }
+
+    private static int poolSize(Environment environment, ObjectProvider<DataSource> dataSource) {
+        var ds = dataSource.getIfUnique();
+        try {
+            if (ds != null && ds.isWrapperFor(HikariDataSource.class)) {
+                return ds.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            BOOT_LOGGER.warn("Cannot determine the size of the connection pool: [{}]", e.getMessage());
+        }
+        return environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, DEFAULT_POOL_SIZE);
+    }
+
+    private static Advisor throttle(Pointcut pointcut, IntSupplier limit) {
+        var advisor = new DefaultPointcutAdvisor(pointcut, new LazyConcurrencyThrottleInterceptor(limit));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    /**
+     * Resolves the limit on the first call and not when the advisor is created. Resolving it earlier would create the {@link DataSource}
+     * while the auto-proxy creator is still collecting its advisors.
+     */
+    static final class LazyConcurrencyThrottleInterceptor extends ConcurrencyThrottleInterceptor {
+
+        private final IntSupplier limit;
+        private volatile boolean resolved;
+
+        LazyConcurrencyThrottleInterceptor(IntSupplier limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation methodInvocation) throws Throwable {
+            if (!resolved) {
+                setConcurrencyLimit(limit.getAsInt());
+                resolved = true;
+            }
+            return super.invoke(methodInvocation);
+        }
+    }
+}
@@ -0,0 +1,460 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * A PreferencesProperties defines the tuning properties of the Preferences service, all children of the {@literal owms.preferences}
+ * namespace.
+ *
+ * @author Heiko Scherrer
+ */
+@ConfigurationProperties(prefix = "owms.preferences")
+public class PreferencesProperties {
+
+    /** Unique id of this service node, used to recognize self-originated messages in a cluster. */
+    private String nodeId = UUID.randomUUID().toString();
+
+    /** Number of Preferences written to the persistent store in one batch. */
+    private int batchSize = 500;
+
+    /** Number of primary keys of Preferences allocated with one call of the database sequence. */
+    private int idIncrementSize = 50;
+
+    /** Settings of the in-process Preference cache. */
+    private final Cache cache = new Cache();
+
+    /** Settings of the Hibernate second-level cache. */
+    private final SecondLevelCache secondLevelCache = new SecondLevelCache();
+
+    /** Settings of the transactional outbox of Preference events. */
+    private final Outbox outbox = new Outbox();
+
+    /** Settings of the delta synchronization of Preferences. */
+    private final Changes changes = new Changes();
+
+    /** Settings of the stream of live Preference changes. */
+    private final Stream stream = new Stream();
+
+    /** Settings of the hot reload of the file with initial Preferences. */
+    private final FileWatch fileWatch = new FileWatch();
+
+    /** Settings of the streaming read of large files with initial Preferences. */
+    private final FileStreaming fileStreaming = new FileStreaming();
+
+    /** Settings of the import of the files with initial Preferences. */
+    private final FileImport fileImport = new FileImport();
+
+    /** Settings of the binary snapshot that warms the resolution index on startup. */
+    private final Snapshot snapshot = new Snapshot();
+
+    /** Settings of the Micrometer instrumentation. */
+    private final Metrics metrics = new Metrics();
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getIdIncrementSize() {
+        return idIncrementSize;
+    }
+
+    public void setIdIncrementSize(int idIncrementSize) {
+        this.idIncrementSize = idIncrementSize;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public SecondLevelCache getSecondLevelCache() {
+        return secondLevelCache;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public Changes getChanges() {
+        return changes;
+    }
+
+    public Stream getStream() {
+        return stream;
+    }
+
+    public FileWatch getFileWatch() {
+        return fileWatch;
+    }
+
+    public FileStreaming getFileStreaming() {
+        return fileStreaming;
+    }
+
+    public FileImport getFileImport() {
+        return fileImport;
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Settings of the in-process read-through cache in front of the persistent store.
+     */
+    public static class Cache {
+
+        /** Whether the in-process Preference cache is enabled. */
+        private boolean enabled = false;
+
+        /** Maximum number of entries per cache region before entries are evicted. */
+        private long maximumSize = 10_000;
+
+        /** Time after an entry is written to the cache until it expires. */
+        private Duration timeToLive = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    /**
+     * Settings of the Hibernate second-level cache for Preference entities and the query cache for the lookups, only used with the JPA
+     * backend.
+     */
+    public static class SecondLevelCache {
+
+        /** Whether the second-level and query cache is enabled. */
+        private boolean enabled = false;
+
+        /** Whether Hibernate statistics are collected to expose the cache counts as metrics, this affects the whole session factory. */
+        private boolean statistics = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isStatistics() {
+            return statistics;
+        }
+
+        public void setStatistics(boolean statistics) {
+            this.statistics = statistics;
+        }
+    }
+
+    /**
+     * Settings of the transactional outbox that decouples the publishing of Preference events from the broker.
+     */
+    public static class Outbox {
+
+        /** Maximum number of outbox messages published to the broker in one batch. */
+        private int batchSize = 100;
+
+        /** Time to wait for new outbox messages after the outbox has been drained. */
+        private Duration linger = Duration.ofMillis(500);
+
+        /** Time to wait for the broker to confirm a published batch. */
+        private Duration confirmTimeout = Duration.ofSeconds(5);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getLinger() {
+            return linger;
+        }
+
+        public void setLinger(Duration linger) {
+            this.linger = linger;
+        }
+
+        public Duration getConfirmTimeout() {
+            return confirmTimeout;
+        }
+
+        public void setConfirmTimeout(Duration confirmTimeout) {
+            this.confirmTimeout = confirmTimeout;
+        }
+    }
+
+    /**
+     * Settings of the delta synchronization that returns the Preferences changed since a watermark.
+     */
+    public static class Changes {
+
+        /** Time a transaction may take to commit, changes younger than this are returned again with the next request. */
+        private Duration safetyWindow = Duration.ofSeconds(5);
+
+        /** Time the tombstones of deleted Preferences are kept, older watermarks require a full reload. */
+        private Duration tombstoneRetention = Duration.ofDays(30);
+
+        /** Interval in that tombstones older than the retention are purged. */
+        private Duration purgeInterval = Duration.ofHours(1);
+
+        public Duration getSafetyWindow() {
+            return safetyWindow;
+        }
+
+        public void setSafetyWindow(Duration safetyWindow) {
+            this.safetyWindow = safetyWindow;
+        }
+
+        public Duration getTombstoneRetention() {
+            return tombstoneRetention;
+        }
+
+        public void setTombstoneRetention(Duration tombstoneRetention) {
+            this.tombstoneRetention = tombstoneRetention;
+        }
+
+        public Duration getPurgeInterval() {
+            return purgeInterval;
+        }
+
+        public void setPurgeInterval(Duration purgeInterval) {
+            this.purgeInterval = purgeInterval;
+        }
+    }
+
+    /**
+     * Settings of the stream that pushes Preference changes to subscribed clients as Server-Sent Events.
+     */
+    public static class Stream {
+
+        /** Maximum number of notifications buffered per subscriber, a subscriber that falls behind is disconnected. */
+        private int bufferSize = 256;
+
+        /** Interval of the heartbeat comments sent to idle subscribers to detect broken connections. */
+        private Duration heartbeat = Duration.ofSeconds(30);
+
+        /** Time after that a subscription is closed by the server and the client has to subscribe again. */
+        private Duration timeout = Duration.ofMinutes(30);
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public Duration getHeartbeat() {
+            return heartbeat;
+        }
+
+        public void setHeartbeat(Duration heartbeat) {
+            this.heartbeat = heartbeat;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * Settings of the hot reload that watches the file with initial Preferences for changes, only for files in the file system.
+     */
+    public static class FileWatch {
+
+        /** Whether the file with initial Preferences is watched and reloaded on change. */
+        private boolean enabled = false;
+
+        /** Time without further changes to the file before it is reloaded, so that a file being written is not read. */
+        private Duration debounce = Duration.ofMillis(500);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getDebounce() {
+            return debounce;
+        }
+
+        public void setDebounce(Duration debounce) {
+            this.debounce = debounce;
+        }
+    }
+
+    /**
+     * Settings of the streaming read of large files with initial Preferences.
+     */
+    public static class FileStreaming {
+
+        /** Whether the file is read element by element instead of being held in memory as a whole. */
+        private boolean enabled = false;
+
+        /** Whether the file is validated against the schema before any Preference is merged. */
+        private boolean validate = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isValidate() {
+            return validate;
+        }
+
+        public void setValidate(boolean validate) {
+            this.validate = validate;
+        }
+    }
+
+    /**
+     * Settings of the import of the files with initial Preferences.
+     */
+    public static class FileImport {
+
+        /** Number of files parsed and of transactions written concurrently, keep it below the size of the connection pool. */
+        private int parallelism = 1;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+    }
+
+    /**
+     * Settings of the binary snapshot of all Preferences, that is written periodically and on shutdown and loaded on startup.
+     */
+    public static class Snapshot {
+
+        /** Whether the resolution index is written to and loaded from a snapshot file. */
+        private boolean enabled = false;
+
+        /** The snapshot file, each node needs its own file. */
+        private String file = Path.of(System.getProperty("java.io.tmpdir"), "owms-preferences.snapshot").toString();
+
+        /** Interval in that the snapshot is written. */
+        private Duration interval = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+
+    /**
+     * Settings of the Micrometer timers, counters and gauges of the Preferences service.
+     */
+    public static class Metrics {
+
+        /** Whether the calls to the service, the persistence backend and the mappers are timed. */
+        private boolean enabled = true;
+
+        /** Maximum age of the number of Preferences per scope exposed as gauges, before it is counted again. */
+        private Duration countRefresh = Duration.ofMinutes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getCountRefresh() {
+            return countRefresh;
+        }
+
+        public void setCountRefresh(Duration countRefresh) {
+            this.countRefresh = countRefresh;
+        }
+    }
+}
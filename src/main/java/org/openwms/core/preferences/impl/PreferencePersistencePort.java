@@ -16,10 +16,17 @@
 package org.openwms.core.preferences.impl;
 
 import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceTombstone;
+import org.openwms.core.preferences.PreferenceUpsertResult;
 import org.openwms.core.preferences.PropertyScope;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * A PreferencePersistencePort defines the persistence operations needed by the service layer, returning domain {@link Preference} objects.
@@ -30,6 +37,33 @@ public interface PreferencePersistencePort {
 
     List<Preference> findAll();
 
+    Page<Preference> findAll(Pageable pageable);
+
+    /**
+     * Find a slice of all {@code Preference}s ordered by their persistent key, starting after the given {@code pKey}.
+     *
+     * @param pKey The persistent key of the last Preference of the previous slice, or {@literal null} to start with the first one
+     * @param limit The maximum number of Preferences to return
+     * @return The Preferences, never {@literal null}
+     */
+    List<Preference> findAllAfter(String pKey, int limit);
+
+    /**
+     * Count the {@code Preference}s of a {@code scope}.
+     *
+     * @param scope The scope
+     * @return The number of Preferences
+     */
+    long countByScope(PropertyScope scope);
+
+    /**
+     * Pass all {@code Preference}s one after another to the {@code consumer}, without keeping them in memory. Must be called within a
+     * transaction.
+     *
+     * @param consumer Consumes each Preference
+     */
+    void streamAll(Consumer<Preference> consumer);
+
     Optional<Preference> findBypKey(String pKey);
 
     List<Preference> findByOwnerAndScope(String owner, PropertyScope scope);
@@ -38,7 +72,88 @@ public interface PreferencePersistencePort {
 
     List<Preference> findByOwnerAndScopeAndGroupName(String owner, PropertyScope scope, String groupName);
 
+    /**
+     * Find all persisted {@code Preference}s that have the same owner, scope and key as one of the given {@code preferences}.
+     *
+     * @param preferences Defines the business keys to search for
+     * @return The persisted Preferences, never {@literal null}
+     */
+    List<Preference> findAllByBusinessKeys(Collection<Preference> preferences);
+
     Preference save(Preference preference);
 
+    /**
+     * Create all given new {@code preferences} in one go.
+     *
+     * @param preferences The Preferences to create
+     * @return The created Preferences
+     */
+    List<Preference> createAll(List<Preference> preferences);
+
+    /**
+     * Update the existing {@code Preference} identified by {@code pKey} with the state of the given {@code preference} and increment its
+     * version, regardless of the persisted version.
+     *
+     * @param pKey The persistent key of the Preference to update
+     * @param preference The new state
+     * @return The updated Preference, with the version {@link Preference#UNKNOWN_VERSION} if the incremented version is not returned by
+     * the store, or an empty Optional if no Preference with the {@code pKey} exists
+     */
+    Optional<Preference> update(String pKey, Preference preference);
+
+    /**
+     * Update the existing {@code Preference} identified by {@code pKey} with the state of the given {@code preference} and increment its
+     * version, if the persisted version still equals the version {@code ol}.
+     *
+     * @param pKey The persistent key of the Preference to update
+     * @param preference The new state
+     * @param ol The version the new state is based on
+     * @return The updated Preference as persisted, or an empty Optional if no Preference with the {@code pKey} exists
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the Preference exists with another version
+     */
+    Optional<Preference> update(String pKey, Preference preference, long ol);
+
+    /**
+     * Create or update all given {@code preferences} in one go. Existing Preferences are identified by their business key (owner, scope
+     * and key). A Preference that carries a persistent key is only updated if it matches the one of the existing Preference, otherwise it
+     * is rejected and not saved.
+     *
+     * @param preferences The Preferences to save
+     * @return One result for each passed Preference, in the same order
+     */
+    List<PreferenceUpsertResult> upsertAll(List<Preference> preferences);
+
+    /**
+     * Delete the {@code preference} and leave a {@link PreferenceTombstone} behind.
+     *
+     * @param preference The Preference to delete
+     */
     void delete(Preference preference);
+
+    /**
+     * Find all {@code Preference}s that have been created or modified at or after {@code since}.
+     *
+     * @param since The watermark, or {@literal null} to find all Preferences
+     * @param owner The owner of the Preferences, or {@literal null} for all owners
+     * @param scope The scope of the Preferences, or {@literal null} for all scopes
+     * @return The Preferences, never {@literal null}
+     */
+    List<Preference> findModifiedSince(LocalDateTime since, String owner, PropertyScope scope);
+
+    /**
+     * Find the tombstones of all {@code Preference}s that have been deleted at or after {@code since}.
+     *
+     * @param since The watermark
+     * @param owner The owner of the deleted Preferences, or {@literal null} for all owners
+     * @param scope The scope of the deleted Preferences, or {@literal null} for all scopes
+     * @return The tombstones, never {@literal null}
+     */
+    List<PreferenceTombstone> findDeletedSince(LocalDateTime since, String owner, PropertyScope scope);
+
+    /**
+     * Remove all tombstones of {@code Preference}s that have been deleted before {@code before}.
+     *
+     * @param before The retention horizon
+     */
+    void deleteTombstonesBefore(LocalDateTime before);
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl;
+
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A PreferenceTombstonePurger periodically removes the tombstones of deleted Preferences that are older than the configured retention.
+ * Clients with an older watermark get a full reload from the changes endpoint anyway, so these tombstones are not needed anymore. The
+ * purge runs in the background and not as part of deleting a Preference, each node of a cluster purges on its own.
+ *
+ * @author Heiko Scherrer
+ */
+@Component
+class PreferenceTombstonePurger implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferenceTombstonePurger.class);
+    private final PreferencePersistencePort persistencePort;
+    private final PreferencesProperties.Changes changes;
+    private final TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService executor;
+
+    PreferenceTombstonePurger(PreferencePersistencePort persistencePort, PreferencesProperties properties,
+            ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.persistencePort = persistencePort;
+        this.changes = properties.getChanges();
+        var txManager = transactionManager.getIfUnique();
+        this.transactionTemplate = txManager == null ? null : new TransactionTemplate(txManager);
+    }
+
+    /**
+     * Remove all tombstones older than the retention.
+     */
+    void purge() {
+        var before = LocalDateTime.now().minus(changes.getTombstoneRetention());
+        try {
+            if (transactionTemplate == null) {
+                persistencePort.deleteTombstonesBefore(before);
+            } else {
+                transactionTemplate.executeWithoutResult(status -> persistencePort.deleteTombstonesBefore(before));
+            }
+            LOGGER.debug("Purged the tombstones of Preferences deleted before [{}]", before);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Purging the tombstones of deleted Preferences failed: [{}]", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("preferences-tombstones").daemon().factory());
+        var millis = changes.getPurgeInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::purge, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdown();
+        executor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
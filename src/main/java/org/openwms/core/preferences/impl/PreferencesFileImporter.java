@@ -0,0 +1,302 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceUpsertResult;
+import org.openwms.core.preferences.PreferencesBulkEvent;
+import org.openwms.core.preferences.PreferencesMergeReport;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.openwms.core.preferences.impl.file.FilePreferenceMapper;
+import org.openwms.core.preferences.impl.file.PreferenceDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * A PreferencesFileImporter merges the {@code Preferences} of the initial preferences files with the ones in the persistent store. Only
+ * the {@code Preferences} that do not exist yet are created, existing ones are never overridden.
+ *
+ * <p>The files are parsed in parallel on as many threads as configured with {@literal owms.preferences.file-import.parallelism}. Each
+ * parsed batch is partitioned by the owner of the {@code Preferences} and every partition is handed to one of the same number of write
+ * lanes. A lane looks up the existing {@code Preferences} of a partition and creates the missing ones in a transaction of its own, so
+ * that partitions commit concurrently. The {@code Preferences} of an owner are always written by the same lane, whatever their scope is,
+ * because the unique constraint spans the key and the owner and two concurrent transactions must not create the same
+ * {@code Preference}. The number of partitions waiting for a lane is bounded, so parsing does not run ahead of writing. The time spent
+ * to parse, diff and write is logged for each file.</p>
+ *
+ * <p>The time spent in each phase is also recorded as timer {@value #IMPORT_METRIC} with a {@literal phase} tag, the number of merged
+ * {@code Preferences} is counted as {@value #MERGED_METRIC} with a {@literal result} tag.</p>
+ *
+ * @author Heiko Scherrer
+ */
+@Component
+class PreferencesFileImporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferencesFileImporter.class);
+    static final String IMPORT_METRIC = "owms.preferences.file.import";
+    static final String MERGED_METRIC = "owms.preferences.file.merged";
+    private final PreferenceDao fileDao;
+    private final PreferencePersistencePort persistencePort;
+    private final FilePreferenceMapper filePreferenceMapper;
+    private final ApplicationContext ctx;
+    private final PreferencesProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    PreferencesFileImporter(PreferenceDao fileDao, PreferencePersistencePort persistencePort, FilePreferenceMapper filePreferenceMapper,
+            ApplicationContext ctx, PreferencesProperties properties, ObjectProvider<PlatformTransactionManager> transactionManager,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.fileDao = fileDao;
+        this.persistencePort = persistencePort;
+        this.filePreferenceMapper = filePreferenceMapper;
+        this.ctx = ctx;
+        this.properties = properties;
+        var txManager = transactionManager.getIfUnique();
+        this.transactionTemplate = txManager == null ? null : new TransactionTemplate(txManager);
+        this.meterRegistry = meterRegistry.getIfAvailable();
+    }
+
+    /**
+     * Import all initial preferences files.
+     *
+     * @return A report of what has been added, skipped and what did conflict
+     */
+    PreferencesMergeReport importAll() {
+        var sources = fileDao.findSources();
+        var parallelism = Math.max(1, Math.min(properties.getFileImport().getParallelism(), sources.size()));
+        // A streamed file may be too large to keep every added and skipped Preference for the report
+        var merge = new FileMerge(!properties.getFileStreaming().isEnabled());
+        var files = sources.stream().map(FileStats::new).toList();
+        var failure = new AtomicReference<RuntimeException>();
+        var lanes = new ExecutorService[parallelism];
+        for (var i = 0; i < parallelism; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("preferences-import-lane-" + i).daemon().factory());
+        }
+        var pending = new Semaphore(2 * parallelism);
+        try (var parsers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("preferences-import-", 0).daemon().factory())) {
+            files.forEach(file -> parsers.execute(() -> importFile(file, merge, lanes, pending, failure)));
+        } finally {
+            for (var lane : lanes) {
+                lane.close();
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        files.forEach(file -> LOGGER.info("Imported [{}] Preferences from [{}]: parse [{}] ms, diff [{}] ms, write [{}] ms", file.count,
+                file.source, millis(file.parseNanos), millis(file.diffNanos.get()), millis(file.writeNanos.get())));
+        return merge.report();
+    }
+
+    private void importFile(FileStats file, FileMerge merge, ExecutorService[] lanes, Semaphore pending,
+            AtomicReference<RuntimeException> failure) {
+        var start = System.nanoTime();
+        var handOver = new AtomicLong();
+        try {
+            file.count = fileDao.forEachBatch(file.source, properties.getBatchSize(), batch -> {
+                var partitions = batch.stream()
+                        .map(filePreferenceMapper::toDomain)
+                        .collect(Collectors.groupingBy(p -> Math.floorMod(Objects.hashCode(p.getOwner()), lanes.length)));
+                var handOverStart = System.nanoTime();
+                partitions.forEach((lane, partition) -> {
+                    pending.acquireUninterruptibly();
+                    lanes[lane].execute(() -> {
+                        try {
+                            if (failure.get() == null) {
+                                inTransaction(() -> merge.merge(partition, file));
+                            }
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            pending.release();
+                        }
+                    });
+                });
+                handOver.addAndGet(System.nanoTime() - handOverStart);
+            });
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            file.parseNanos = System.nanoTime() - start - handOver.get();
+            record("parse", file.parseNanos);
+        }
+    }
+
+    private void inTransaction(Runnable action) {
+        if (transactionTemplate == null) {
+            action.run();
+        } else {
+            transactionTemplate.executeWithoutResult(status -> action.run());
+        }
+    }
+
+    private void record(String phase, long nanos) {
+        if (meterRegistry != null) {
+            Timer.builder(IMPORT_METRIC)
+                    .description("Time spent to import the initial Preferences files")
+                    .tag("phase", phase)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void count(String result, int count) {
+        if (meterRegistry != null && count > 0) {
+            Counter.builder(MERGED_METRIC)
+                    .description("Number of Preferences merged from the initial Preferences files")
+                    .tag("result", result)
+                    .register(meterRegistry)
+                    .increment(count);
+        }
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Merge the given {@code Preferences} from a file in the transaction of the caller.
+     *
+     * @param fromFile The Preferences from the file
+     * @return A report of what has been added, skipped and what did conflict
+     */
+    PreferencesMergeReport merge(List<Preference> fromFile) {
+        var batchSize = properties.getBatchSize();
+        var merge = new FileMerge(true);
+        var file = new FileStats(null);
+        for (var i = 0; i < fromFile.size(); i += batchSize) {
+            merge.merge(fromFile.subList(i, Math.min(i + batchSize, fromFile.size())), file);
+        }
+        return merge.report();
+    }
+
+    /**
+     * The statistics of importing one file.
+     */
+    private static final class FileStats {
+
+        private final Resource source;
+        private final AtomicLong diffNanos = new AtomicLong();
+        private final AtomicLong writeNanos = new AtomicLong();
+        private volatile int count;
+        private volatile long parseNanos;
+
+        FileStats(Resource source) {
+            this.source = source;
+        }
+    }
+
+    /**
+     * Merges {@code Preferences} from the files batch by batch and accumulates the outcome. Batches may be merged concurrently, the
+     * created {@code Preferences} are published per batch. A {@code Preference} that occurs more than once in a batch is created only once,
+     * its further occurrences are skipped or reported as conflict like those already persisted.
+     */
+    private final class FileMerge {
+
+        private final boolean retainAll;
+        private final List<Preference> added = new ArrayList<>();
+        private final List<Preference> skipped = new ArrayList<>();
+        private final List<Preference> conflicted = new ArrayList<>();
+        private final AtomicInteger total = new AtomicInteger();
+        private final AtomicInteger addedCount = new AtomicInteger();
+        private final AtomicInteger skippedCount = new AtomicInteger();
+
+        /**
+         * @param retainAll Whether the added and skipped Preferences are kept for the report, otherwise they are only counted
+         */
+        FileMerge(boolean retainAll) {
+            this.retainAll = retainAll;
+        }
+
+        void merge(List<Preference> batch, FileStats file) {
+            var start = System.nanoTime();
+            var persisted = persistencePort.findAllByBusinessKeys(batch).stream()
+                    .collect(Collectors.toMap(Preference::getPrefKey, p -> p, (p1, p2) -> p1));
+            var missing = new ArrayList<Preference>();
+            var batchSkipped = new ArrayList<Preference>();
+            var batchConflicted = new ArrayList<Preference>();
+            for (var pref : batch) {
+                var existing = persisted.get(pref.getPrefKey());
+                if (existing == null) {
+                    missing.add(pref);
+                    // A Preference defined twice in the batch is created once, the duplicate is compared with the first definition
+                    persisted.put(pref.getPrefKey(), pref);
+                } else if (Objects.equals(existing.getVal(), pref.getVal()) && existing.getType() == pref.getType()) {
+                    batchSkipped.add(existing);
+                } else {
+                    batchConflicted.add(existing);
+                }
+            }
+            var diffEnd = System.nanoTime();
+            file.diffNanos.addAndGet(diffEnd - start);
+            record("diff", diffEnd - start);
+            total.addAndGet(batch.size());
+            skippedCount.addAndGet(batchSkipped.size());
+            var created = missing.isEmpty() ? List.<Preference>of() : persistencePort.createAll(missing);
+            addedCount.addAndGet(created.size());
+            synchronized (this) {
+                conflicted.addAll(batchConflicted);
+                if (retainAll) {
+                    skipped.addAll(batchSkipped);
+                    added.addAll(created);
+                }
+            }
+            if (!created.isEmpty()) {
+                ctx.publishEvent(new PreferencesBulkEvent(created.stream()
+                        .map(p -> new PreferenceUpsertResult(p, PreferenceUpsertResult.Status.CREATED))
+                        .toList()));
+            }
+            var writeNanos = System.nanoTime() - diffEnd;
+            file.writeNanos.addAndGet(writeNanos);
+            record("write", writeNanos);
+            count("added", created.size());
+            count("skipped", batchSkipped.size());
+            count("conflicted", batchConflicted.size());
+        }
+
+        synchronized PreferencesMergeReport report() {
+            var report = new PreferencesMergeReport(added, skipped, conflicted);
+            LOGGER.info("Merged [{}] Preferences from file: [{}] added, [{}] skipped, [{}] conflicted with a different persisted value or "
+                    + "type", total.get(), addedCount.get(), skippedCount.get(), conflicted.size());
+            if (report.hasConflicts()) {
+                LOGGER.debug("Preferences that conflict with the file and have been kept: [{}]", conflicted);
+            }
+            return report;
+        }
+    }
+}
@@ -17,34 +17,58 @@ package org.openwms.core.preferences.impl;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import org.ameba.annotation.Measured;
 import org.ameba.annotation.TxService;
 import org.ameba.exception.NotFoundException;
 import org.ameba.exception.ResourceExistsException;
 import org.ameba.i18n.Translator;
+import org.openwms.core.preferences.InvalidPreferenceValueException;
 import org.openwms.core.preferences.NotAuthorizedException;
 import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceBusinessKey;
+import org.openwms.core.preferences.PreferenceChanges;
+import org.openwms.core.preferences.PreferenceTombstone;
+import org.openwms.core.preferences.PreferenceUpsertResult;
+import org.openwms.core.preferences.PreferenceValue;
+import org.openwms.core.preferences.PreferenceVersionConflictException;
+import org.openwms.core.preferences.PreferencesBulkEvent;
 import org.openwms.core.preferences.PreferencesEvent;
+import org.openwms.core.preferences.PreferencesMergeReport;
 import org.openwms.core.preferences.PreferencesService;
 import org.openwms.core.preferences.PropertyScope;
-import org.openwms.core.preferences.impl.file.FilePreferenceMapper;
-import org.openwms.core.preferences.impl.file.PreferenceDao;
+import org.openwms.core.preferences.UnreadablePreferenceValueException;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.openwms.core.preferences.impl.resolve.PreferenceResolutionIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.openwms.core.preferences.api.PreferencesConstants.ALREADY_EXISTS;
 import static org.openwms.core.preferences.api.PreferencesConstants.ALREADY_EXISTS_WITH_OWNER_AND_SCOPE_AND_KEY;
+import static org.openwms.core.preferences.api.PreferencesConstants.INVALID_VALUE;
 import static org.openwms.core.preferences.api.PreferencesConstants.NOT_ALLOWED_FETCH_USER_PREFS;
 import static org.openwms.core.preferences.api.PreferencesConstants.NOT_FOUND_BY_PKEY;
+import static org.openwms.core.preferences.api.PreferencesConstants.UNREADABLE_VALUE;
+import static org.openwms.core.preferences.api.PreferencesConstants.VERSION_CONFLICT;
 
 /**
  * A PreferencesServiceImpl is a transactional Spring managed service implementation to manage {@code Preferences}.
@@ -56,18 +80,21 @@ import static org.openwms.core.preferences.api.PreferencesConstants.NOT_FOUND_BY
 class PreferencesServiceImpl implements PreferencesService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PreferencesServiceImpl.class);
-    private final PreferenceDao fileDao;
+    private final PreferencesFileImporter fileImporter;
     private final PreferencePersistencePort persistencePort;
-    private final FilePreferenceMapper filePreferenceMapper;
     private final Translator translator;
     private final ApplicationContext ctx;
+    private final PreferencesProperties properties;
+    private final PreferenceResolutionIndex resolutionIndex;
 
-    PreferencesServiceImpl(PreferenceDao fileDao, PreferencePersistencePort persistencePort, FilePreferenceMapper filePreferenceMapper, Translator translator, ApplicationContext ctx) {
-        this.fileDao = fileDao;
+    PreferencesServiceImpl(PreferencesFileImporter fileImporter, PreferencePersistencePort persistencePort, Translator translator,
+            ApplicationContext ctx, PreferencesProperties properties, PreferenceResolutionIndex resolutionIndex) {
+        this.fileImporter = fileImporter;
         this.persistencePort = persistencePort;
-        this.filePreferenceMapper = filePreferenceMapper;
         this.translator = translator;
         this.ctx = ctx;
+        this.properties = properties;
+        this.resolutionIndex = resolutionIndex;
     }
 
     /**
@@ -94,6 +121,34 @@ class PreferencesServiceImpl implements PreferencesService {
         return persistencePort.findAll();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public @NotNull Page<Preference> findAll(@NotNull Pageable pageable) {
+        return persistencePort.findAll(pageable);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public @NotNull List<Preference> findAllAfter(String pKey, @Positive int limit) {
+        return persistencePort.findAllAfter(pKey, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    @Transactional(readOnly = true)
+    public void streamAll(@NotNull Consumer<Preference> consumer) {
+        persistencePort.streamAll(consumer);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -121,6 +176,56 @@ class PreferencesServiceImpl implements PreferencesService {
         return persistencePort.findByOwnerAndScopeAndKey(owner, scope, key);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * All keys are searched with a single query.
+     */
+    @Override
+    @Measured
+    public @NotNull Map<PreferenceBusinessKey, Preference> findAllByBusinessKeys(@NotNull Collection<PreferenceBusinessKey> keys) {
+        keys.forEach(k -> ensureUserPreferenceAccess(k.owner(), k.scope()));
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        var found = persistencePort.findAllByBusinessKeys(keys.stream().distinct().map(PreferenceBusinessKey::toPreference).toList());
+        return found.stream().collect(Collectors.toMap(PreferenceBusinessKey::of, Function.identity(), (a, b) -> a));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Answered from the in-memory {@link PreferenceResolutionIndex} without a transaction.
+     */
+    @Override
+    @Measured
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Preference> resolve(@NotBlank String key, String user, @NotNull List<String> roles, String module) {
+        return resolutionIndex.resolve(key, user, roles, module);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Answered from the in-memory {@link PreferenceResolutionIndex} that keeps the parsed values without a transaction.
+     */
+    @Override
+    @Measured
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<PreferenceValue> resolveValue(@NotBlank String key, String user, @NotNull List<String> roles, String module) {
+        return resolutionIndex.resolve(key, user, roles, module).map(this::typedValOf);
+    }
+
+    private PreferenceValue typedValOf(Preference preference) {
+        try {
+            return preference.getTypedVal();
+        } catch (IllegalArgumentException e) {
+            throw new UnreadablePreferenceValueException(translator, UNREADABLE_VALUE,
+                    new Serializable[]{preference.getKey(), preference.getType(), e.getMessage()},
+                    preference.getKey(), preference.getType(), e.getMessage());
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -152,12 +257,24 @@ class PreferencesServiceImpl implements PreferencesService {
                     new String[]{preference.getPersistentKey()},
                     preference.getPersistentKey());
         }
+        validateValue(preference);
         verifyDoesNotExist(preference.getOwner(), preference.getScope(), preference.getKey());
         return saveInternal(preference, PreferencesEvent.Type.CREATED);
     }
 
+    private void validateValue(Preference preference) {
+        try {
+            preference.validateVal();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPreferenceValueException(translator, INVALID_VALUE,
+                    new Serializable[]{preference.getKey(), e.getMessage()},
+                    preference.getKey(), e.getMessage());
+        }
+    }
+
     private Preference saveInternal(Preference preference, PreferencesEvent.Type type) {
         var saved = persistencePort.save(preference);
+        saved.adoptTypedVal(preference);
         ctx.publishEvent(new PreferencesEvent(saved, type));
         return saved;
     }
@@ -177,10 +294,62 @@ class PreferencesServiceImpl implements PreferencesService {
     @Override
     @Measured
     public @NotNull Preference update(@NotBlank String pKey, @NotNull Preference preference) {
-        var existing = findByPKeyInternal(pKey);
-        LOGGER.debug("Overriding existing Preference [{}] with [{}]", existing, preference);
-        preference.setPKey(existing.getPersistentKey());
-        return saveInternal(preference, PreferencesEvent.Type.UPDATED);
+        LOGGER.debug("Overriding existing Preference [{}] with [{}]", pKey, preference);
+        validateValue(preference);
+        var updated = persistencePort.update(pKey, preference).orElseThrow(
+                () -> new NotFoundException(translator, NOT_FOUND_BY_PKEY, new String[]{pKey}, pKey)
+        );
+        return updated(updated, preference);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public @NotNull Preference update(@NotBlank String pKey, @NotNull Preference preference, long ol) {
+        LOGGER.debug("Overriding existing Preference [{}] in version [{}] with [{}]", pKey, ol, preference);
+        validateValue(preference);
+        Preference updated;
+        try {
+            updated = persistencePort.update(pKey, preference, ol).orElseThrow(
+                    () -> new NotFoundException(translator, NOT_FOUND_BY_PKEY, new String[]{pKey}, pKey)
+            );
+        } catch (OptimisticLockingFailureException e) {
+            throw new PreferenceVersionConflictException(translator, VERSION_CONFLICT, new Serializable[]{pKey, ol}, pKey, ol);
+        }
+        return updated(updated, preference);
+    }
+
+    private Preference updated(Preference updated, Preference preference) {
+        updated.adoptTypedVal(preference);
+        ctx.publishEvent(new PreferencesEvent(updated, PreferencesEvent.Type.UPDATED));
+        return updated;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The Preferences are passed to the persistence layer in chunks of the configured batch size.
+     */
+    @Override
+    @Measured
+    public @NotNull List<PreferenceUpsertResult> upsertAll(@NotNull List<Preference> preferences) {
+        preferences.forEach(this::validateValue);
+        var batchSize = properties.getBatchSize();
+        var results = new ArrayList<PreferenceUpsertResult>(preferences.size());
+        for (var i = 0; i < preferences.size(); i += batchSize) {
+            results.addAll(persistencePort.upsertAll(preferences.subList(i, Math.min(i + batchSize, preferences.size()))));
+        }
+        for (var i = 0; i < results.size(); i++) {
+            results.get(i).preference().adoptTypedVal(preferences.get(i));
+        }
+        var saved = results.stream().filter(r -> !r.isRejected()).toList();
+        if (!saved.isEmpty()) {
+            ctx.publishEvent(new PreferencesBulkEvent(saved));
+        }
+        LOGGER.debug("Saved [{}] of [{}] Preferences in bulk", saved.size(), preferences.size());
+        return results;
     }
 
     /**
@@ -199,14 +368,40 @@ class PreferencesServiceImpl implements PreferencesService {
      */
     @Override
     @Measured
-    public void reloadInitialPreferences() {
-        var fromFile = fileDao.findAll();
-        var persistedPrefs = persistencePort.findAll().stream()
-                .collect(Collectors.toMap(Preference::getPrefKey, p -> p));
-        for (var pref : fromFile) {
-            if (!persistedPrefs.containsKey(pref.getPrefKey())) {
-                saveInternal(filePreferenceMapper.toDomain(pref), PreferencesEvent.Type.CREATED);
-            }
+    @Transactional(readOnly = true)
+    public @NotNull PreferenceChanges findChangesSince(LocalDateTime since, String owner, PropertyScope scope) {
+        ensureUserPreferenceAccess(owner, scope);
+        var now = LocalDateTime.now();
+        var changes = properties.getChanges();
+        var reset = since == null || since.isBefore(now.minus(changes.getTombstoneRetention()));
+        var changed = persistencePort.findModifiedSince(reset ? null : since, owner, scope);
+        var deleted = reset ? List.<PreferenceTombstone>of() : persistencePort.findDeletedSince(since, owner, scope);
+        var watermark = now.minus(changes.getSafetyWindow());
+        if (!reset && since.isAfter(watermark)) {
+            watermark = since;
         }
+        LOGGER.debug("Found [{}] changed and [{}] deleted Preferences since [{}]", changed.size(), deleted.size(), since);
+        return new PreferenceChanges(changed, deleted, watermark, reset);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Not executed in the transaction of the caller, the files are merged in a transaction per batch.
+     */
+    @Override
+    @Measured
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public @NotNull PreferencesMergeReport reloadInitialPreferences() {
+        return fileImporter.importAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Measured
+    public @NotNull PreferencesMergeReport mergeFilePreferences(@NotNull List<Preference> fromFile) {
+        return fileImporter.merge(fromFile);
     }
 }
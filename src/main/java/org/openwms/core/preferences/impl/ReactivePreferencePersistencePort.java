@@ -0,0 +1,41 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl;
+
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PropertyScope;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A ReactivePreferencePersistencePort defines the non-blocking read operations needed by the reactive service layer, returning domain
+ * {@link Preference} objects. Write operations are always performed through the blocking {@link PreferencePersistencePort}, because they
+ * take part in the transaction that writes the Preference events.
+ *
+ * @author Heiko Scherrer
+ */
+public interface ReactivePreferencePersistencePort {
+
+    Flux<Preference> findAll();
+
+    Mono<Preference> findBypKey(String pKey);
+
+    Flux<Preference> findByOwnerAndScope(String owner, PropertyScope scope);
+
+    Mono<Preference> findByOwnerAndScopeAndKey(String owner, PropertyScope scope, String key);
+
+    Flux<Preference> findByOwnerAndScopeAndGroupName(String owner, PropertyScope scope, String groupName);
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.ameba.exception.NotFoundException;
+import org.ameba.i18n.Translator;
+import org.openwms.core.preferences.NotAuthorizedException;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.ReactivePreferencesService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.openwms.core.preferences.api.PreferencesConstants.NOT_ALLOWED_FETCH_USER_PREFS;
+import static org.openwms.core.preferences.api.PreferencesConstants.NOT_FOUND_BY_PKEY;
+
+/**
+ * A ReactivePreferencesServiceImpl is a Spring managed service implementation that reads {@code Preferences} without blocking, only
+ * active with the Spring profiles {@literal MONGODB} and {@literal REACTIVE}, because only the MongoDB backend reads reactively.
+ *
+ * @author Heiko Scherrer
+ */
+@Profile("MONGODB & REACTIVE")
+@Validated
+@Service
+class ReactivePreferencesServiceImpl implements ReactivePreferencesService {
+
+    private final ReactivePreferencePersistencePort persistencePort;
+    private final Translator translator;
+
+    ReactivePreferencesServiceImpl(ReactivePreferencePersistencePort persistencePort, Translator translator) {
+        this.persistencePort = persistencePort;
+        this.translator = translator;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull Flux<Preference> findAll() {
+        return persistencePort.findAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull Mono<Preference> findByPKey(@NotBlank String pKey) {
+        return persistencePort.findBypKey(pKey)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException(translator, NOT_FOUND_BY_PKEY, new String[]{pKey}, pKey)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull Flux<Preference> findForOwnerAndScope(String owner, @NotNull PropertyScope scope) {
+        return ensureUserPreferenceAccess(owner, scope)
+                .thenMany(Flux.defer(() -> persistencePort.findByOwnerAndScope(owner, scope)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull Mono<Preference> findForOwnerAndScopeAndKey(String owner, @NotNull PropertyScope scope, @NotBlank String key) {
+        return ensureUserPreferenceAccess(owner, scope)
+                .then(Mono.defer(() -> persistencePort.findByOwnerAndScopeAndKey(owner, scope, key)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull Flux<Preference> findForScopeOwnerGroupName(String owner, @NotNull PropertyScope scope, @NotBlank String groupName) {
+        return ensureUserPreferenceAccess(owner, scope)
+                .thenMany(Flux.defer(() -> persistencePort.findByOwnerAndScopeAndGroupName(owner, scope, groupName)));
+    }
+
+    private Mono<Void> ensureUserPreferenceAccess(String owner, PropertyScope scope) {
+        if ((owner == null || owner.isEmpty()) && scope == PropertyScope.USER) {
+            return Mono.error(() -> new NotAuthorizedException(translator, NOT_ALLOWED_FETCH_USER_PREFS, new String[0]));
+        }
+        return Mono.empty();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.cache;
+
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceTombstone;
+import org.openwms.core.preferences.PreferenceUpsertResult;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.impl.PreferencePersistencePort;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * A CachingPreferencePersistenceAdapter is a read-through decorator of the backend specific {@link PreferencePersistencePort} that serves
+ * the lookups by owner, scope and key, by owner, scope and group name and by owner and scope from the {@link PreferenceCache}. All other
+ * operations are passed to the delegate. Being the primary bean, the decorator is injected into the service layer, whereas Spring
+ * excludes the decorator itself as a candidate for its own delegate.
+ *
+ * @author Heiko Scherrer
+ */
+@Primary
+@ConditionalOnProperty(prefix = "owms.preferences.cache", name = "enabled", havingValue = "true")
+@Component
+class CachingPreferencePersistenceAdapter implements PreferencePersistencePort {
+
+    private final PreferencePersistencePort delegate;
+    private final PreferenceCache cache;
+
+    CachingPreferencePersistenceAdapter(PreferencePersistencePort delegate, PreferenceCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public List<Preference> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Page<Preference> findAll(Pageable pageable) {
+        return delegate.findAll(pageable);
+    }
+
+    @Override
+    public List<Preference> findAllAfter(String pKey, int limit) {
+        return delegate.findAllAfter(pKey, limit);
+    }
+
+    @Override
+    public long countByScope(PropertyScope scope) {
+        return delegate.countByScope(scope);
+    }
+
+    @Override
+    public void streamAll(Consumer<Preference> consumer) {
+        delegate.streamAll(consumer);
+    }
+
+    @Override
+    public Optional<Preference> findBypKey(String pKey) {
+        return delegate.findBypKey(pKey);
+    }
+
+    @Override
+    public List<Preference> findByOwnerAndScope(String owner, PropertyScope scope) {
+        return cache.getByScope(owner, scope, () -> delegate.findByOwnerAndScope(owner, scope));
+    }
+
+    @Override
+    public Optional<Preference> findByOwnerAndScopeAndKey(String owner, PropertyScope scope, String key) {
+        return cache.getByKey(owner, scope, key, () -> delegate.findByOwnerAndScopeAndKey(owner, scope, key));
+    }
+
+    @Override
+    public List<Preference> findByOwnerAndScopeAndGroupName(String owner, PropertyScope scope, String groupName) {
+        return cache.getByGroupName(owner, scope, groupName, () -> delegate.findByOwnerAndScopeAndGroupName(owner, scope, groupName));
+    }
+
+    @Override
+    public List<Preference> findAllByBusinessKeys(Collection<Preference> preferences) {
+        return delegate.findAllByBusinessKeys(preferences);
+    }
+
+    @Override
+    public Preference save(Preference preference) {
+        return delegate.save(preference);
+    }
+
+    @Override
+    public List<Preference> createAll(List<Preference> preferences) {
+        return delegate.createAll(preferences);
+    }
+
+    @Override
+    public Optional<Preference> update(String pKey, Preference preference) {
+        return delegate.update(pKey, preference);
+    }
+
+    @Override
+    public Optional<Preference> update(String pKey, Preference preference, long ol) {
+        return delegate.update(pKey, preference, ol);
+    }
+
+    @Override
+    public List<PreferenceUpsertResult> upsertAll(List<Preference> preferences) {
+        return delegate.upsertAll(preferences);
+    }
+
+    @Override
+    public void delete(Preference preference) {
+        delegate.delete(preference);
+    }
+
+    @Override
+    public List<Preference> findModifiedSince(LocalDateTime since, String owner, PropertyScope scope) {
+        return delegate.findModifiedSince(since, owner, scope);
+    }
+
+    @Override
+    public List<PreferenceTombstone> findDeletedSince(LocalDateTime since, String owner, PropertyScope scope) {
+        return delegate.findDeletedSince(since, owner, scope);
+    }
+
+    @Override
+    public void deleteTombstonesBefore(LocalDateTime before) {
+        delegate.deleteTombstonesBefore(before);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferencesBulkEvent;
+import org.openwms.core.preferences.PreferencesEvent;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * A PreferenceCache is a bounded in-process cache of {@link Preference}s looked up by owner, scope and key, by owner, scope and group name
+ * or by owner and scope only. Entries expire after the configured time-to-live, are evicted when a cache region exceeds its maximum size
+ * and are invalidated precisely when a {@link PreferencesEvent} signals that a Preference has been created, updated or deleted.
+ *
+ * <p>Hit, miss and eviction statistics of each cache region are bound to the Micrometer {@link MeterRegistry}, if one exists.</p>
+ *
+ * @author Heiko Scherrer
+ */
+@ConditionalOnProperty(prefix = "owms.preferences.cache", name = "enabled", havingValue = "true")
+@Component
+public class PreferenceCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferenceCache.class);
+    private final Cache<CacheKey, Optional<Preference>> byKey;
+    private final Cache<CacheKey, List<Preference>> byGroupName;
+    private final Cache<CacheKey, List<Preference>> byScope;
+
+    PreferenceCache(PreferencesProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.byKey = build(properties.getCache());
+        this.byGroupName = build(properties.getCache());
+        this.byScope = build(properties.getCache());
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, byKey, "preferences.byKey");
+            CaffeineCacheMetrics.monitor(registry, byGroupName, "preferences.byGroupName");
+            CaffeineCacheMetrics.monitor(registry, byScope, "preferences.byScope");
+        });
+    }
+
+    private static <V> Cache<CacheKey, V> build(PreferencesProperties.Cache properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the {@link Preference} identified by {@code owner}, {@code scope} and {@code key} from the cache or load it with the
+     * {@code loader} on a cache miss. Non-existing Preferences are cached as well.
+     *
+     * @param owner The owner of the Preference
+     * @param scope What kind of Preference it is
+     * @param key The Preference key
+     * @param loader Loads the Preference from the persistent store
+     * @return The cached or loaded result
+     */
+    public Optional<Preference> getByKey(String owner, PropertyScope scope, String key, Supplier<Optional<Preference>> loader) {
+        return byKey.get(new CacheKey(owner, scope, key), k -> loader.get());
+    }
+
+    /**
+     * Get all {@link Preference}s of the group {@code groupName} from the cache or load them with the {@code loader} on a cache miss.
+     *
+     * @param owner The owner of the Preferences
+     * @param scope What kind of Preferences they are
+     * @param groupName The name of the group
+     * @param loader Loads the Preferences from the persistent store
+     * @return An unmodifiable list with the cached or loaded Preferences, never {@literal null}
+     */
+    public List<Preference> getByGroupName(String owner, PropertyScope scope, String groupName, Supplier<List<Preference>> loader) {
+        return byGroupName.get(new CacheKey(owner, scope, groupName), k -> copyOf(loader.get()));
+    }
+
+    /**
+     * Get all {@link Preference}s of the {@code owner} and {@code scope} from the cache or load them with the {@code loader} on a cache
+     * miss.
+     *
+     * @param owner The owner of the Preferences
+     * @param scope What kind of Preferences they are
+     * @param loader Loads the Preferences from the persistent store
+     * @return An unmodifiable list with the cached or loaded Preferences, never {@literal null}
+     */
+    public List<Preference> getByScope(String owner, PropertyScope scope, Supplier<List<Preference>> loader) {
+        return byScope.get(new CacheKey(owner, scope, null), k -> copyOf(loader.get()));
+    }
+
+    private static List<Preference> copyOf(List<Preference> preferences) {
+        return preferences == null ? List.of() : List.copyOf(preferences);
+    }
+
+    /**
+     * Evict the cache entries after a {@link Preference} has been changed. This happens after the surrounding transaction has completed,
+     * regardless of its outcome, so that uncommitted state that was read into the cache within the transaction does not survive a
+     * rollback.
+     *
+     * @param event Signals the created, updated or deleted Preference
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onEvent(PreferencesEvent event) {
+        evict(event.getSource());
+    }
+
+    /**
+     * Clear the cache after a batch of {@link Preference}s has been saved. A batch may touch an arbitrary number of cache entries, hence it
+     * is cheaper to drop all entries than to evict each Preference of the batch separately.
+     *
+     * @param event Signals the created and updated Preferences
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onBulkEvent(PreferencesBulkEvent event) {
+        clear();
+    }
+
+    /**
+     * Evict all cache entries the given {@code preference} may be part of. Lookups without an owner match Preferences of any owner, hence
+     * those entries are evicted as well. Entries that still hold a former state of the Preference, e.g. with a different key or group name,
+     * are found by the persistent key.
+     *
+     * @param preference The changed Preference
+     */
+    public void evict(Preference preference) {
+        var owner = preference.getOwner();
+        var scope = preference.getScope();
+        byKey.invalidateAll(List.of(new CacheKey(owner, scope, preference.getKey()), new CacheKey(null, scope, preference.getKey())));
+        byGroupName.invalidateAll(List.of(new CacheKey(owner, scope, preference.getGroupName()), new CacheKey(null, scope, preference.getGroupName())));
+        byScope.invalidateAll(List.of(new CacheKey(owner, scope, null), new CacheKey(null, scope, null)));
+        if (preference.hasPersistentKey()) {
+            var pKey = preference.getPersistentKey();
+            byKey.asMap().values().removeIf(cached -> cached.filter(p -> pKey.equals(p.getPersistentKey())).isPresent());
+            byGroupName.asMap().values().removeIf(cached -> contains(cached, pKey));
+            byScope.asMap().values().removeIf(cached -> contains(cached, pKey));
+        }
+        LOGGER.debug("Evicted Preference [{}] from cache", preference.getPrefKey());
+    }
+
+    private static boolean contains(List<Preference> preferences, String pKey) {
+        return preferences.stream().anyMatch(p -> pKey.equals(p.getPersistentKey()));
+    }
+
+    /**
+     * Evict all entries of all cache regions.
+     */
+    public void clear() {
+        byKey.invalidateAll();
+        byGroupName.invalidateAll();
+        byScope.invalidateAll();
+        LOGGER.debug("Cleared the Preference cache");
+    }
+
+    private record CacheKey(String owner, PropertyScope scope, String name) {
+    }
+}
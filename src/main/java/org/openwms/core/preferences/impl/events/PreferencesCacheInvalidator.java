@@ -0,0 +1,153 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.events;
+
+import org.ameba.app.SpringProfiles;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceChangeBroadcaster;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.api.messages.PreferenceBulkMO;
+import org.openwms.core.preferences.api.messages.PreferenceMO;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.openwms.core.preferences.impl.PreferencePersistencePort;
+import org.openwms.core.preferences.impl.cache.PreferenceCache;
+import org.openwms.core.preferences.impl.resolve.PreferenceResolutionIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitHandler;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+
+import static org.openwms.core.preferences.api.PreferencesConstants.HEADER_NODE_ID;
+
+/**
+ * A PreferencesCacheInvalidator keeps the local {@link PreferenceCache} and the {@link PreferenceResolutionIndex} up-to-date when
+ * Preferences have been changed on another node of the cluster. A single changed Preference is evicted from the cache and reloaded from
+ * the {@link PreferencePersistencePort} into the resolution index, a batch of saved Preferences clears the cache and is reloaded with one
+ * lookup by the business keys. The messages only identify the changed Preferences, their full state, like the default value, the range
+ * and the version, is always read from the persistent store. Messages sent by this
+ * node itself are skipped, because the local state has already been updated by the internal event. Whenever a new connection to the
+ * broker is established, e.g. after a broker outage, both are cleared because changes might have been missed in the meantime. The changes
+ * are also forwarded to the clients subscribed to the {@link PreferenceChangeBroadcaster} of this node. Only active
+ * with Spring Profile {@link SpringProfiles#AMQP}, the cache is only updated if it is enabled.
+ *
+ * @author Heiko Scherrer
+ */
+@Profile(SpringProfiles.AMQP)
+@RabbitListener(queues = "#{preferencesCacheQueue.name}")
+@Component
+class PreferencesCacheInvalidator implements ConnectionListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferencesCacheInvalidator.class);
+    private static final String CREATED = "preference.event.created";
+    private static final String CHANGED = "preference.event.changed";
+    private static final String DELETED = "preference.event.deleted";
+    private final ObjectProvider<PreferenceCache> cache;
+    private final PreferenceResolutionIndex resolutionIndex;
+    private final PreferenceChangeBroadcaster changeBroadcaster;
+    private final PreferencePersistencePort persistencePort;
+    private final String nodeId;
+
+    PreferencesCacheInvalidator(ObjectProvider<PreferenceCache> cache, PreferenceResolutionIndex resolutionIndex,
+            PreferenceChangeBroadcaster changeBroadcaster, PreferencePersistencePort persistencePort, PreferencesProperties properties,
+            ConnectionFactory connectionFactory) {
+        this.cache = cache;
+        this.resolutionIndex = resolutionIndex;
+        this.persistencePort = persistencePort;
+        this.changeBroadcaster = changeBroadcaster;
+        this.nodeId = properties.getNodeId();
+        connectionFactory.addConnectionListener(this);
+    }
+
+    @RabbitHandler
+    public void onEvent(@Payload PreferenceMO mo, @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey,
+            @Header(name = HEADER_NODE_ID, required = false) String originNodeId) {
+        if (nodeId.equals(originNodeId)) {
+            return;
+        }
+        if (mo.getScope() == null || mo.getpKey() == null) {
+            LOGGER.debug("Received Preference [{}] without scope or pKey from node [{}], clearing the cache", mo.getKey(), originNodeId);
+            clear();
+            return;
+        }
+        LOGGER.debug("Preference [{}] changed on node [{}]", mo.getKey(), originNodeId);
+        cache.ifAvailable(c -> c.evict(toBusinessKey(mo)));
+        if (DELETED.equals(routingKey)) {
+            resolutionIndex.remove(mo.getpKey());
+        } else {
+            // The reload goes through the evicted cache, a Preference deleted meanwhile is removed as well
+            persistencePort.findBypKey(mo.getpKey()).ifPresentOrElse(resolutionIndex::put, () -> resolutionIndex.remove(mo.getpKey()));
+        }
+        changeBroadcaster.broadcast(routingKey, mo);
+    }
+
+    @RabbitHandler
+    public void onBulkEvent(@Payload PreferenceBulkMO mo, @Header(name = HEADER_NODE_ID, required = false) String originNodeId) {
+        if (nodeId.equals(originNodeId)) {
+            return;
+        }
+        LOGGER.debug("[{}] Preferences saved in bulk on node [{}], clearing the cache", mo.getCreated().size() + mo.getUpdated().size(),
+                originNodeId);
+        cache.ifAvailable(PreferenceCache::clear);
+        var saved = new ArrayList<Preference>(mo.getCreated().size() + mo.getUpdated().size());
+        mo.getCreated().stream().filter(m -> m.getScope() != null).map(PreferencesCacheInvalidator::toBusinessKey).forEach(saved::add);
+        mo.getUpdated().stream().filter(m -> m.getScope() != null).map(PreferencesCacheInvalidator::toBusinessKey).forEach(saved::add);
+        if (!saved.isEmpty()) {
+            persistencePort.findAllByBusinessKeys(saved).forEach(resolutionIndex::put);
+        }
+        mo.getCreated().forEach(created -> changeBroadcaster.broadcast(CREATED, created));
+        mo.getUpdated().forEach(updated -> changeBroadcaster.broadcast(CHANGED, updated));
+    }
+
+    /**
+     * Only the identifying fields of the message are taken over, enough to evict the cache entries and to look up the Preference.
+     */
+    private static Preference toBusinessKey(PreferenceMO mo) {
+        return Preference.newBuilder()
+                .pKey(mo.getpKey())
+                .key(mo.getKey())
+                .owner(mo.getOwner())
+                .groupName(mo.getGroupName())
+                .scope(PropertyScope.valueOf(mo.getScope()))
+                .build();
+    }
+
+    private void clear() {
+        cache.ifAvailable(PreferenceCache::clear);
+        resolutionIndex.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Changes made by other nodes might have been missed while the connection was lost, so the cache and the resolution index are cleared.
+     */
+    @Override
+    public void onCreate(Connection connection) {
+        LOGGER.info("Connection to the broker established, clearing the Preference cache and the resolution index");
+        clear();
+    }
+}
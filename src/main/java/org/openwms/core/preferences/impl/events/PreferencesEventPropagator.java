@@ -20,24 +20,30 @@ import jakarta.validation.Validator;
 import org.ameba.annotation.Measured;
 import org.ameba.app.SpringProfiles;
 import org.openwms.core.preferences.PreferenceVOMapper;
+import org.openwms.core.preferences.PreferencesBulkEvent;
 import org.openwms.core.preferences.PreferencesEvent;
 import org.openwms.core.preferences.api.messages.PreferenceMO;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.openwms.core.preferences.impl.outbox.OutboxPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.util.Assert;
+import tools.jackson.databind.json.JsonMapper;
 
 import static org.ameba.system.ValidationUtil.validate;
+import static org.openwms.core.preferences.api.PreferencesConstants.HEADER_NODE_ID;
 
 /**
  * A PreferencesEventPropagator propagates internal {@link PreferencesEvent}s to the outer world, only active with Spring Profile
- * {@link SpringProfiles#AMQP}.
+ * {@link SpringProfiles#AMQP}. The events are not sent to the broker directly but written to the transactional outbox before the
+ * transaction that changed the Preferences commits. The {@link PreferencesOutboxRelay} publishes them afterwards.
  *
  * @author Heiko Scherrer
  */
@@ -49,45 +55,71 @@ class PreferencesEventPropagator {
     private final AmqpTemplate amqpTemplate;
     private final Validator validator;
     private final PreferenceVOMapper preferenceVOMapper;
+    private final OutboxPort outbox;
+    private final JsonMapper jsonMapper;
     private final String exchangeName;
+    private final String nodeId;
+    private final MessagePostProcessor nodeIdHeader;
 
     PreferencesEventPropagator(
             AmqpTemplate amqpTemplate,
             Validator validator,
-            PreferenceVOMapper preferenceVOMapper, @Value("${owms.events.core.preferences.exchange-name}") String exchangeName
+            PreferenceVOMapper preferenceVOMapper,
+            OutboxPort outbox,
+            JsonMapper jsonMapper,
+            @Value("${owms.events.core.preferences.exchange-name}") String exchangeName,
+            PreferencesProperties properties
     ) {
         this.amqpTemplate = amqpTemplate;
         this.validator = validator;
         this.preferenceVOMapper = preferenceVOMapper;
+        this.outbox = outbox;
+        this.jsonMapper = jsonMapper;
         this.exchangeName = exchangeName;
+        this.nodeId = properties.getNodeId();
+        this.nodeIdHeader = message -> {
+            message.getMessageProperties().setHeader(HEADER_NODE_ID, nodeId);
+            return message;
+        };
     }
 
     @Measured
-    @TransactionalEventListener(fallbackExecution = true)
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void onEvent(PreferencesEvent event) {
         var preference = event.getSource();
         switch (event.getType()) {
             case CREATED -> {
                 LOGGER.debug("Preference created: [{}]", preference);
-                amqpTemplate.convertAndSend(exchangeName, "preference.event.created", validateAndConvert(event));
+                append("preference.event.created", validateAndConvert(event));
             }
             case UPDATED -> {
                 LOGGER.debug("Preference updated: [{}]", preference);
-                amqpTemplate.convertAndSend(exchangeName, "preference.event.changed", validateAndConvert(event));
+                append("preference.event.changed", validateAndConvert(event));
             }
             case DELETED -> {
                 LOGGER.debug("Preference deleted: [{}]", preference);
-                amqpTemplate.convertAndSend(exchangeName, "preference.event.deleted", validateAndConvert(event));
+                append("preference.event.deleted", validateAndConvert(event));
             }
             default -> LOGGER.warn("Eventtype [{}] not supported", event.getType());
         }
     }
 
+    @Measured
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBulkEvent(PreferencesBulkEvent event) {
+        Assert.notNull(event, "Event to propagate is NULL");
+        LOGGER.debug("Preferences saved in bulk: [{}]", event.getSource().size());
+        append("preference.event.bulk", validate(validator, preferenceVOMapper.toBulkMO(event)));
+    }
+
+    private void append(String routingKey, Object message) {
+        outbox.append(routingKey, jsonMapper.writeValueAsString(message), nodeId);
+    }
+
     @PostConstruct
     void onStartup() {
         try {
-            amqpTemplate.convertAndSend(exchangeName, "preference.event.boot", new PreferenceMO("BOOT"));
+            amqpTemplate.convertAndSend(exchangeName, "preference.event.boot", new PreferenceMO("BOOT"), nodeIdHeader);
         } catch (Exception e) {
             // It's fine if the event broker is not available on startup
         }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.ameba.app.SpringProfiles;
+import org.openwms.core.preferences.api.messages.PreferenceBulkMO;
+import org.openwms.core.preferences.api.messages.PreferenceMO;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.openwms.core.preferences.impl.outbox.OutboxMessage;
+import org.openwms.core.preferences.impl.outbox.OutboxPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.openwms.core.preferences.api.PreferencesConstants.HEADER_NODE_ID;
+
+/**
+ * A PreferencesOutboxRelay drains the transactional outbox in the background and publishes the messages in batches to the broker. A batch
+ * is removed from the outbox as soon as the broker has confirmed it, if publisher confirms are enabled on the {@code ConnectionFactory}.
+ * When publishing fails the batch stays in the outbox and is retried after the configured linger time, so a slow or unavailable broker
+ * does not block the callers that change Preferences. Only active with Spring Profile {@link SpringProfiles#AMQP}.
+ *
+ * <p>The age of the oldest message in the outbox is exposed as gauge {@value #LAG_METRIC}, the number of published messages as counter
+ * {@value #PUBLISHED_METRIC}. The time from writing an event to the outbox until the broker has accepted it is recorded as timer
+ * {@value #PROPAGATION_METRIC}.</p>
+ *
+ * @author Heiko Scherrer
+ */
+@Profile(SpringProfiles.AMQP)
+@Component
+class PreferencesOutboxRelay implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferencesOutboxRelay.class);
+    static final String LAG_METRIC = "owms.preferences.outbox.lag";
+    static final String PUBLISHED_METRIC = "owms.preferences.outbox.published";
+    static final String PROPAGATION_METRIC = "owms.preferences.outbox.propagation";
+    private static final String BULK = "preference.event.bulk";
+    private final OutboxPort outbox;
+    private final RabbitTemplate rabbitTemplate;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final String exchangeName;
+    private final PreferencesProperties.Outbox properties;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter published;
+    private final Timer propagation;
+    private ScheduledExecutorService executor;
+
+    PreferencesOutboxRelay(OutboxPort outbox, RabbitTemplate rabbitTemplate, JsonMapper jsonMapper,
+            ObjectProvider<PlatformTransactionManager> transactionManager,
+            @Value("${owms.events.core.preferences.exchange-name}") String exchangeName, PreferencesProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.outbox = outbox;
+        this.rabbitTemplate = rabbitTemplate;
+        this.jsonMapper = jsonMapper;
+        var txManager = transactionManager.getIfUnique();
+        this.transactionTemplate = txManager == null ? null : new TransactionTemplate(txManager);
+        this.exchangeName = exchangeName;
+        this.properties = properties.getOutbox();
+        var registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            TimeGauge.builder(LAG_METRIC, lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                    .description("Age of the oldest Preference event in the outbox")
+                    .register(registry);
+            this.published = Counter.builder(PUBLISHED_METRIC)
+                    .description("Number of Preference events published from the outbox")
+                    .register(registry);
+            this.propagation = Timer.builder(PROPAGATION_METRIC)
+                    .description("Time from writing a Preference event to the outbox until the broker has accepted it")
+                    .register(registry);
+        } else {
+            this.published = null;
+            this.propagation = null;
+        }
+    }
+
+    /**
+     * Publish the outbox batch by batch until it is empty or publishing fails.
+     */
+    void drain() {
+        try {
+            int count;
+            do {
+                count = inTransaction(this::relayBatch);
+            } while (count == properties.getBatchSize());
+        } catch (Exception e) {
+            LOGGER.warn("Publishing Preference events from the outbox failed, retrying in [{}]: [{}]", properties.getLinger(),
+                    e.getMessage());
+        } finally {
+            lagMillis.set(outbox.findOldestCreatedDt()
+                    .map(oldest -> Duration.between(oldest, LocalDateTime.now()).toMillis())
+                    .orElse(0L));
+        }
+    }
+
+    private int inTransaction(Supplier<Integer> action) {
+        return transactionTemplate == null ? action.get() : transactionTemplate.execute(status -> action.get());
+    }
+
+    private int relayBatch() {
+        var batch = outbox.takeNextBatch(properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        var confirms = rabbitTemplate.getConnectionFactory().isSimplePublisherConfirms();
+        rabbitTemplate.invoke(operations -> {
+            for (var message : batch) {
+                operations.convertAndSend(exchangeName, message.routingKey(), deserialize(message), m -> {
+                    m.getMessageProperties().setHeader(HEADER_NODE_ID, message.nodeId());
+                    return m;
+                });
+            }
+            if (confirms) {
+                operations.waitForConfirmsOrDie(properties.getConfirmTimeout().toMillis());
+            }
+            return null;
+        });
+        outbox.delete(batch.stream().map(OutboxMessage::id).toList());
+        if (published != null) {
+            published.increment(batch.size());
+        }
+        if (propagation != null) {
+            var now = LocalDateTime.now();
+            batch.forEach(message -> propagation.record(Duration.between(message.createdDt(), now)));
+        }
+        LOGGER.debug("Published [{}] Preference events from the outbox", batch.size());
+        return batch.size();
+    }
+
+    private Object deserialize(OutboxMessage message) {
+        return BULK.equals(message.routingKey())
+                ? jsonMapper.readValue(message.payload(), PreferenceBulkMO.class)
+                : jsonMapper.readValue(message.payload(), PreferenceMO.class);
+    }
+
+    /**
+     * Get the age of the oldest message in the outbox, as of the last drain.
+     *
+     * @return The age in milliseconds
+     */
+    long getLagMillis() {
+        return lagMillis.get();
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("preferences-outbox").daemon().factory());
+        var linger = properties.getLinger().toMillis();
+        executor.scheduleWithFixedDelay(this::drain, linger, linger, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdown();
+        executor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.file;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A FilePreferencesDiff is the difference between two versions of the file with initial {@code Preferences}.
+ *
+ * @param added The Preferences that are new in the file
+ * @param changed The Preferences that exist in both versions but with a different value, type, description or range
+ * @param removed The keys of the Preferences that have been removed from the file
+ * @author Heiko Scherrer
+ */
+public record FilePreferencesDiff(List<GenericPreference> added, List<GenericPreference> changed, List<PreferenceKey> removed) {
+
+    public FilePreferencesDiff {
+        added = List.copyOf(added);
+        changed = List.copyOf(changed);
+        removed = List.copyOf(removed);
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+
+    /**
+     * Compute the difference between the {@code former} and the {@code current} Preferences.
+     *
+     * @param former The Preferences of the former version, by their key
+     * @param current The Preferences of the current version, by their key
+     * @return The difference
+     */
+    static FilePreferencesDiff between(Map<PreferenceKey, GenericPreference> former, Map<PreferenceKey, GenericPreference> current) {
+        var added = new ArrayList<GenericPreference>();
+        var changed = new ArrayList<GenericPreference>();
+        current.forEach((key, pref) -> {
+            var existing = former.get(key);
+            if (existing == null) {
+                added.add(pref);
+            } else if (!sameContent(existing, pref)) {
+                changed.add(pref);
+            }
+        });
+        var removed = former.keySet().stream().filter(key -> !current.containsKey(key)).toList();
+        return new FilePreferencesDiff(added, changed, removed);
+    }
+
+    /*
+     * The subclasses of GenericPreference only compare the identifying attributes in equals.
+     */
+    private static boolean sameContent(GenericPreference p1, GenericPreference p2) {
+        return p1.getClass() == p2.getClass()
+                && Objects.equals(p1.getValue(), p2.getValue())
+                && Objects.equals(p1.getType(), p2.getType())
+                && Objects.equals(p1.getDescription(), p2.getDescription())
+                && Objects.equals(p1.getMinimum(), p2.getMinimum())
+                && Objects.equals(p1.getMaximum(), p2.getMaximum());
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.file;
+
+import org.openwms.core.preferences.PreferencesService;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A FilePreferencesWatcher watches the files with initial {@code Preferences} with a {@link WatchService} and reloads them when one has
+ * been changed. Changes are debounced, the files are only reloaded when they have not been changed for the configured time. The files
+ * are parsed on the watching thread and swapped in at once by the {@link PreferenceDao}, then only the added and changed
+ * {@code Preferences} are merged with the persistent store. Preferences removed from a file are kept in the persistent store. If the files
+ * are streamed, no former version is held to compute the difference and all files are merged again batch by batch. Only active if
+ * {@literal owms.preferences.file-watch.enabled} is set to {@literal true}, only the files located in the file system when the application
+ * starts are watched.
+ *
+ * @author Heiko Scherrer
+ */
+@ConditionalOnProperty(prefix = "owms.preferences.file-watch", name = "enabled", havingValue = "true")
+@Component
+class FilePreferencesWatcher implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FilePreferencesWatcher.class);
+    private final PreferenceDao preferenceDao;
+    private final FilePreferenceMapper mapper;
+    private final PreferencesService preferencesService;
+    private final Duration debounce;
+    private final boolean streaming;
+    private Set<Path> files = Set.of();
+    private Thread watcher;
+
+    FilePreferencesWatcher(PreferenceDao preferenceDao, FilePreferenceMapper mapper, PreferencesService preferencesService,
+            PreferencesProperties properties) {
+        this.preferenceDao = preferenceDao;
+        this.mapper = mapper;
+        this.preferencesService = preferencesService;
+        this.debounce = properties.getFileWatch().getDebounce();
+        this.streaming = properties.getFileStreaming().isEnabled();
+    }
+
+    /**
+     * Reload the files and merge the added and changed {@code Preferences} with the persistent store. The former {@code Preferences} are
+     * kept if a file does not exist, e.g. while it is replaced, or cannot be parsed.
+     */
+    void reload() {
+        var missing = files.stream().filter(Files::notExists).findFirst();
+        if (missing.isPresent()) {
+            LOGGER.debug("Preferences file [{}] does not exist, keeping the loaded Preferences", missing.get());
+            return;
+        }
+        try {
+            if (streaming) {
+                preferencesService.reloadInitialPreferences();
+                return;
+            }
+            var diff = preferenceDao.reload();
+            if (diff.isEmpty()) {
+                return;
+            }
+            LOGGER.info("Reloaded Preferences files [{}]: [{}] added, [{}] changed, [{}] removed", files, diff.added().size(),
+                    diff.changed().size(), diff.removed().size());
+            var fromFile = Stream.concat(diff.added().stream(), diff.changed().stream()).map(mapper::toDomain).toList();
+            if (!fromFile.isEmpty()) {
+                preferencesService.mergeFilePreferences(fromFile);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Reloading Preferences files [{}] failed, keeping the loaded Preferences: [{}]", files, e.getMessage());
+        }
+    }
+
+    private void watch(WatchService watchService) {
+        try (watchService) {
+            while (!Thread.currentThread().isInterrupted()) {
+                var changed = affectsFile(watchService.take());
+                WatchKey next;
+                while ((next = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                    changed |= affectsFile(next);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOGGER.warn("Closing the watch service of [{}] failed: [{}]", files, e.getMessage());
+        }
+    }
+
+    private boolean affectsFile(WatchKey key) {
+        var affected = false;
+        for (var event : key.pollEvents()) {
+            affected |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || event.context() instanceof Path path && files.contains(((Path) key.watchable()).resolve(path));
+        }
+        key.reset();
+        return affected;
+    }
+
+    @Override
+    public void start() {
+        var watched = new LinkedHashSet<Path>();
+        try {
+            for (var source : preferenceDao.findSources()) {
+                if (source.isFile()) {
+                    watched.add(source.getFile().toPath().toAbsolutePath());
+                }
+            }
+            if (watched.isEmpty()) {
+                LOGGER.info("No Preferences file is located in the file system, nothing is watched");
+                return;
+            }
+            files = Set.copyOf(watched);
+            var watchService = watched.iterator().next().getFileSystem().newWatchService();
+            // Editors often replace a file instead of writing it, so creation and deletion are watched as well
+            for (var dir : watched.stream().map(Path::getParent).distinct().toList()) {
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+            }
+            watcher = Thread.ofPlatform().name("preferences-file-watch").daemon().start(() -> watch(watchService));
+            LOGGER.info("Watching Preferences files [{}] for changes", files);
+        } catch (IOException e) {
+            LOGGER.error("Cannot watch Preferences files [{}]: [{}]", watched, e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (watcher != null) {
+            watcher.interrupt();
+            watcher = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return watcher != null;
+    }
+}
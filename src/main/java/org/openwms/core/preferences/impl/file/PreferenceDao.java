@@ -15,7 +15,10 @@
  */
 package org.openwms.core.preferences.impl.file;
 
+import org.springframework.core.io.Resource;
+
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * A PreferenceDao offers basic functionality to find and retrieve {@link GenericPreference}s.
@@ -30,4 +33,39 @@ public interface PreferenceDao {
      * @return List of all entities
      */
     List<GenericPreference> findAll();
+
+    /**
+     * Pass all entities on to the {@code consumer} in batches, without holding more than one batch in memory if the implementation
+     * supports streaming.
+     *
+     * @param batchSize The maximum number of entities passed on at once
+     * @param consumer Called with each batch
+     * @return The number of entities passed on
+     */
+    int forEachBatch(int batchSize, Consumer<List<GenericPreference>> consumer);
+
+    /**
+     * Find the files that the entities are read from.
+     *
+     * @return The existing files, never {@literal null}
+     */
+    List<Resource> findSources();
+
+    /**
+     * Read the entities of the {@code source} file and pass them on to the {@code consumer} in batches, like
+     * {@link #forEachBatch(int, Consumer)} does for all files.
+     *
+     * @param source One of the files returned by {@link #findSources()}
+     * @param batchSize The maximum number of entities passed on at once
+     * @param consumer Called with each batch
+     * @return The number of entities passed on
+     */
+    int forEachBatch(Resource source, int batchSize, Consumer<List<GenericPreference>> consumer);
+
+    /**
+     * Load all entities again and replace the former ones at once, so that concurrent readers never see a partially loaded state.
+     *
+     * @return The difference between the former and the new entities, empty if the entities are streamed and not held in memory
+     */
+    FilePreferencesDiff reload();
 }
\ No newline at end of file
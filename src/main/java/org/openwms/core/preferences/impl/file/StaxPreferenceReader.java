@@ -0,0 +1,165 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.file;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import org.ameba.exception.IntegrationLayerException;
+import org.openwms.core.exception.NoUniqueResultException;
+import org.openwms.core.exception.ResourceNotFoundException;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+import static javax.xml.stream.XMLStreamConstants.END_DOCUMENT;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+/**
+ * A StaxPreferenceReader reads a file of {@code Preferences} element by element with StAX and passes them on in batches, so that only one
+ * batch is held in memory whatever the size of the file is. If a schema is given the file is validated in a streaming pass before, so
+ * that no {@code Preference} of an invalid file is passed on.
+ *
+ * @author Heiko Scherrer
+ */
+class StaxPreferenceReader {
+
+    private static final Map<String, Class<? extends GenericPreference>> TYPES = Map.of(
+            "application", ApplicationPreference.class,
+            "module", ModulePreference.class,
+            "role", RolePreference.class,
+            "user", UserPreference.class
+    );
+    private final JAXBContext jaxbContext;
+    private final Schema schema;
+    private final XMLInputFactory inputFactory;
+
+    /**
+     * Create a reader.
+     *
+     * @param validate Whether files are validated against the {@literal preferences.xsd} schema before they are read
+     */
+    StaxPreferenceReader(boolean validate) {
+        try {
+            this.jaxbContext = JAXBContext.newInstance(ObjectFactory.allTypes());
+            this.schema = validate
+                    ? SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                        .newSchema(new ClassPathResource("preferences.xsd").getURL())
+                    : null;
+        } catch (JAXBException | SAXException | IOException e) {
+            throw new IllegalStateException("Cannot initialize the reader of Preferences files", e);
+        }
+        this.inputFactory = XMLInputFactory.newFactory();
+        this.inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Read all {@code Preferences} of the {@code resource} and pass them on to the {@code consumer} in batches of {@code batchSize}.
+     *
+     * @param resource The file to read
+     * @param batchSize The maximum number of Preferences passed on at once
+     * @param consumer Called with each batch, the list must not be kept by the consumer beyond the call
+     * @return The number of Preferences read
+     * @throws IntegrationLayerException if the file is invalid or cannot be parsed
+     * @throws NoUniqueResultException if a Preference is defined twice within one batch
+     */
+    int read(Resource resource, int batchSize, Consumer<List<GenericPreference>> consumer) {
+        if (schema != null) {
+            validate(resource);
+        }
+        try (var is = resource.getInputStream()) {
+            var reader = inputFactory.createXMLStreamReader(is);
+            try {
+                return read(reader, batchSize, consumer);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | JAXBException e) {
+            throw new IntegrationLayerException(format("Exception while reading Preferences from [%s]", resource), e);
+        } catch (IOException ioe) {
+            throw new ResourceNotFoundException(format("Exception while accessing the resource [%s]", resource), ioe);
+        }
+    }
+
+    private int read(XMLStreamReader reader, int batchSize, Consumer<List<GenericPreference>> consumer)
+            throws XMLStreamException, JAXBException {
+        var unmarshaller = jaxbContext.createUnmarshaller();
+        var batch = new ArrayList<GenericPreference>();
+        var keys = new HashSet<PreferenceKey>();
+        var count = 0;
+        reader.nextTag();
+        reader.next();
+        while (nextElement(reader) == START_ELEMENT) {
+            var type = TYPES.get(reader.getLocalName());
+            if (type == null) {
+                throw new IntegrationLayerException(format("Unknown element [%s] in Preferences file", reader.getLocalName()));
+            }
+            // Unmarshalling positions the reader right after the end of the element
+            var pref = unmarshaller.unmarshal(reader, type).getValue();
+            if (!keys.add(pref.getPrefKey())) {
+                throw new NoUniqueResultException(format("Preference with key [%s] already loaded", pref.getPrefKey()));
+            }
+            batch.add(pref);
+            count++;
+            if (batch.size() == batchSize) {
+                consumer.accept(batch);
+                batch = new ArrayList<>();
+                keys.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+        }
+        return count;
+    }
+
+    private static int nextElement(XMLStreamReader reader) throws XMLStreamException {
+        var event = reader.getEventType();
+        while (event != START_ELEMENT && event != END_ELEMENT && event != END_DOCUMENT) {
+            event = reader.next();
+        }
+        return event;
+    }
+
+    private void validate(Resource resource) {
+        try (var is = resource.getInputStream()) {
+            var validator = schema.newValidator();
+            validator.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            validator.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            validator.validate(new StreamSource(is));
+        } catch (SAXException se) {
+            throw new IntegrationLayerException(format("Preferences file [%s] is not valid: [%s]", resource, se.getMessage()), se);
+        } catch (IOException ioe) {
+            throw new ResourceNotFoundException(format("Exception while accessing the resource [%s]", resource), ioe);
+        }
+    }
+}
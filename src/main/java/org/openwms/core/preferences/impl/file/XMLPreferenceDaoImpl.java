@@ -15,14 +15,19 @@
  */
 package org.openwms.core.preferences.impl.file;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import org.ameba.annotation.Measured;
 import org.ameba.exception.IntegrationLayerException;
 import org.openwms.core.event.ReloadFilePreferencesEvent;
 import org.openwms.core.exception.NoUniqueResultException;
 import org.openwms.core.exception.ResourceNotFoundException;
+import org.openwms.core.preferences.config.PreferencesProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationListener;
@@ -32,21 +37,37 @@ import org.springframework.oxm.XmlMappingException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import javax.xml.transform.stream.StreamSource;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 import static java.lang.String.format;
 
 /**
- * A XMLPreferenceDaoImpl reads an XML file of {@code Preferences} and keeps them in-memory in a Map. An initial preferences file can be
- * configured with a property {@literal owms.core.config.initial-properties} in the {@literal application.properties} file.
+ * A XMLPreferenceDaoImpl reads XML files of {@code Preferences} and keeps them in-memory in a Map. The initial preferences files can be
+ * configured with a property {@literal owms.core.config.initial-properties} in the {@literal application.properties} file, as a comma
+ * separated list of resource locations that may contain patterns like {@literal file:/etc/owms/sites/*.xml}. A {@code Preference} must
+ * not be defined in more than one file.
  *
- * <p>On a {@link ReloadFilePreferencesEvent} the internal Map is cleared and reloaded.</p>
+ * <p>On a {@link ReloadFilePreferencesEvent} the files are reloaded. The files are parsed into a new immutable snapshot that replaces the
+ * former one at once, so concurrent readers see either all former or all new {@code Preferences}. If a file cannot be parsed the former
+ * snapshot is kept.</p>
+ *
+ * <p>With {@literal owms.preferences.file-streaming.enabled} set to {@literal true} no snapshot is held at all. The files are read
+ * element by element with StAX each time the {@code Preferences} are requested in batches, so that large files can be merged with
+ * bounded memory.</p>
+ *
+ * <p>The duration of loading the files is recorded as timer {@value #RELOAD_METRIC}, the number of {@code Preferences} in the snapshot is
+ * exposed as gauge {@value #ENTRIES_METRIC}.</p>
  *
  * @author Heiko Scherrer
  * @see org.openwms.core.event.ReloadFilePreferencesEvent
@@ -56,18 +77,42 @@ import static java.lang.String.format;
 class XMLPreferenceDaoImpl implements PreferenceDao, ApplicationListener<ReloadFilePreferencesEvent> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(XMLPreferenceDaoImpl.class);
+    static final String RELOAD_METRIC = "owms.preferences.file.reload";
+    static final String ENTRIES_METRIC = "owms.preferences.file.entries";
     private final ApplicationContext ctx;
     private final Unmarshaller unmarshaller;
-    private final String fileName;
-    private Resource fileResource;
-    private Preferences preferences;
-    private final Map<PreferenceKey, GenericPreference> prefs = new ConcurrentHashMap<>();
+    private final String[] locations;
+    private final StaxPreferenceReader streamingReader;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final Timer reloadTimer;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private record Snapshot(List<GenericPreference> all, Map<PreferenceKey, GenericPreference> byKey,
+            Map<Resource, List<GenericPreference>> bySource) {
+        static final Snapshot EMPTY = new Snapshot(List.of(), Map.of(), Map.of());
+    }
 
     XMLPreferenceDaoImpl(ApplicationContext ctx, Unmarshaller unmarshaller,
-            @Value("${owms.core.config.initial-properties:}") String fileName) {
+            @Value("${owms.core.config.initial-properties:}") String fileName, PreferencesProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
         this.ctx = ctx;
         this.unmarshaller = unmarshaller;
-        this.fileName = fileName;
+        this.locations = StringUtils.commaDelimitedListToStringArray(StringUtils.trimAllWhitespace(fileName));
+        var streaming = properties.getFileStreaming();
+        this.streamingReader = streaming.isEnabled() ? new StaxPreferenceReader(streaming.isValidate()) : null;
+        var registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            this.reloadTimer = Timer.builder(RELOAD_METRIC)
+                    .description("Duration of loading the initial Preferences files")
+                    .register(registry);
+            if (streamingReader == null) {
+                Gauge.builder(ENTRIES_METRIC, this, dao -> dao.snapshot.all().size())
+                        .description("Number of Preferences loaded from the initial Preferences files")
+                        .register(registry);
+            }
+        } else {
+            this.reloadTimer = null;
+        }
     }
 
     /**
@@ -75,7 +120,107 @@ class XMLPreferenceDaoImpl implements PreferenceDao, ApplicationListener<ReloadF
      */
     @Override
     public List<GenericPreference> findAll() {
-        return preferences == null ? Collections.emptyList() : preferences.getAll();
+        if (streamingReader == null) {
+            return snapshot.all();
+        }
+        var all = new ArrayList<GenericPreference>();
+        forEachBatch(Integer.MAX_VALUE, all::addAll);
+        return all;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Does not require a transaction, because it does not touch the persistent store.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Resource> findSources() {
+        var sources = new LinkedHashSet<Resource>();
+        for (var location : locations) {
+            try {
+                for (var resource : ctx.getResources(location)) {
+                    if (resource.exists()) {
+                        sources.add(resource);
+                    }
+                }
+            } catch (IOException ioe) {
+                throw new ResourceNotFoundException(format("Exception while resolving the resources of [%s]", location), ioe);
+            }
+        }
+        if (sources.isEmpty()) {
+            LOGGER.debug("Files to load initial preferences do not exist or are not preset. Locations [{}]", (Object) locations);
+        }
+        return List.copyOf(sources);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Does not require a transaction, because it does not touch the persistent store.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public int forEachBatch(int batchSize, Consumer<List<GenericPreference>> consumer) {
+        if (streamingReader != null) {
+            var count = 0;
+            for (var source : findSources()) {
+                count += forEachBatch(source, batchSize, consumer);
+            }
+            return count;
+        }
+        var all = snapshot.all();
+        for (var i = 0; i < all.size(); i += batchSize) {
+            consumer.accept(all.subList(i, Math.min(i + batchSize, all.size())));
+        }
+        return all.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Without streaming the {@code Preferences} of the file are taken from the snapshot, only a file that has been added since the last
+     * load is parsed. Does not require a transaction, because it does not touch the persistent store.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public int forEachBatch(Resource source, int batchSize, Consumer<List<GenericPreference>> consumer) {
+        if (streamingReader != null) {
+            var count = streamingReader.read(source, batchSize, consumer);
+            LOGGER.debug("Streamed [{}] Preferences from [{}]", count, source);
+            return count;
+        }
+        var all = snapshot.bySource().get(source);
+        if (all == null) {
+            all = parse(source);
+        }
+        for (var i = 0; i < all.size(); i += batchSize) {
+            consumer.accept(all.subList(i, Math.min(i + batchSize, all.size())));
+        }
+        return all.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Does not require a transaction, because it does not touch the persistent store.
+     */
+    @Override
+    @Measured
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public FilePreferencesDiff reload() {
+        if (streamingReader != null) {
+            return FilePreferencesDiff.between(Map.of(), Map.of());
+        }
+        reloadLock.lock();
+        try {
+            var former = snapshot;
+            var current = timedLoad();
+            snapshot = current;
+            return FilePreferencesDiff.between(former.byKey(), current.byKey());
+        } finally {
+            reloadLock.unlock();
+        }
     }
 
     /**
@@ -84,7 +229,7 @@ class XMLPreferenceDaoImpl implements PreferenceDao, ApplicationListener<ReloadF
     @Override
     @Measured
     public void onApplicationEvent(ReloadFilePreferencesEvent event) {
-        reloadResources();
+        reload();
     }
 
     /**
@@ -92,38 +237,42 @@ class XMLPreferenceDaoImpl implements PreferenceDao, ApplicationListener<ReloadF
      */
     @PostConstruct
     private void loadResources() {
-        if (initialPropertiesExist()) {
-            try {
-                preferences = (Preferences) unmarshaller.unmarshal(new StreamSource(fileResource.getInputStream()));
-                for (var pref : preferences.getAll()) {
-                    if (prefs.containsKey(pref.getPrefKey())) {
-                        throw new NoUniqueResultException(format("Preference with key [%s] already loaded", pref.getPrefKey()));
-                    }
-                    prefs.put(pref.getPrefKey(), pref);
-                }
-                LOGGER.debug("Loaded [{}] properties into cache", preferences.getAll().size());
-            } catch (XmlMappingException xme) {
-                throw new IntegrationLayerException(format("Exception while unmarshalling from [%s]", fileName), xme);
-            } catch (IOException ioe) {
-                throw new ResourceNotFoundException(format("Exception while accessing the resource with name [%s]", fileName), ioe);
-            }
+        if (streamingReader == null) {
+            snapshot = timedLoad();
         }
     }
 
-    private boolean initialPropertiesExist() {
-        if (fileName != null && !fileName.isEmpty()) {
-            fileResource = ctx.getResource(fileName);
+    private Snapshot timedLoad() {
+        return reloadTimer == null ? load() : reloadTimer.record(this::load);
+    }
+
+    private Snapshot load() {
+        var sources = findSources();
+        if (sources.isEmpty()) {
+            return Snapshot.EMPTY;
         }
-        if (fileResource == null || !fileResource.exists()) {
-            LOGGER.debug("File to load initial preferences does not exist or is not preset. Filename [{}]", fileName);
-            return false;
+        var byKey = new LinkedHashMap<PreferenceKey, GenericPreference>();
+        var bySource = new LinkedHashMap<Resource, List<GenericPreference>>();
+        for (var source : sources) {
+            var prefs = parse(source);
+            for (var pref : prefs) {
+                if (byKey.putIfAbsent(pref.getPrefKey(), pref) != null) {
+                    throw new NoUniqueResultException(format("Preference with key [%s] already loaded", pref.getPrefKey()));
+                }
+            }
+            bySource.put(source, List.copyOf(prefs));
         }
-        return true;
+        LOGGER.debug("Loaded [{}] properties from [{}] files into cache", byKey.size(), sources.size());
+        return new Snapshot(List.copyOf(byKey.values()), Collections.unmodifiableMap(byKey), Collections.unmodifiableMap(bySource));
     }
 
-    private void reloadResources() {
-        preferences = null;
-        prefs.clear();
-        loadResources();
+    private List<GenericPreference> parse(Resource source) {
+        try (var is = source.getInputStream()) {
+            return ((Preferences) unmarshaller.unmarshal(new StreamSource(is))).getAll();
+        } catch (XmlMappingException xme) {
+            throw new IntegrationLayerException(format("Exception while unmarshalling from [%s]", source), xme);
+        } catch (IOException ioe) {
+            throw new ResourceNotFoundException(format("Exception while accessing the resource with name [%s]", source), ioe);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.jpa;
+
+import org.openwms.core.preferences.impl.outbox.OutboxMessage;
+import org.openwms.core.preferences.impl.outbox.OutboxPort;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A JpaOutboxAdapter implements the {@link OutboxPort} with a database table, written in the same transaction as the Preferences.
+ *
+ * @author Heiko Scherrer
+ */
+@Profile("!MONGODB")
+@Component
+class JpaOutboxAdapter implements OutboxPort {
+
+    private final OutboxMessageRepository repository;
+
+    JpaOutboxAdapter(OutboxMessageRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void append(String routingKey, String payload, String nodeId) {
+        repository.save(new OutboxMessageEO(routingKey, payload, nodeId, LocalDateTime.now()));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The rows stay locked until the surrounding transaction ends, rows locked by other service nodes are skipped.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<OutboxMessage> takeNextBatch(int limit) {
+        return repository.findNextBatch(Limit.of(limit)).stream()
+                .map(eo -> new OutboxMessage(String.valueOf(eo.getId()), eo.getRoutingKey(), eo.getPayload(), eo.getNodeId(),
+                        eo.getCreatedDt()))
+                .toList();
+    }
+
+    @Override
+    public void delete(Collection<String> ids) {
+        repository.deleteAllByIdInBatch(ids.stream().map(Long::valueOf).toList());
+    }
+
+    @Override
+    public Optional<LocalDateTime> findOldestCreatedDt() {
+        return repository.findFirstByOrderByCreatedDtAsc().map(OutboxMessageEO::getCreatedDt);
+    }
+}
@@ -15,14 +15,32 @@
  */
 package org.openwms.core.preferences.impl.jpa;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceTombstone;
+import org.openwms.core.preferences.PreferenceUpsertResult;
 import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.config.PreferencesProperties;
 import org.openwms.core.preferences.impl.PreferencePersistencePort;
+import org.openwms.core.preferences.impl.file.PreferenceKey;
 import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * A JpaPreferencePersistenceAdapter implements {@link PreferencePersistencePort} using JPA.
@@ -33,12 +51,25 @@ import java.util.Optional;
 @Component
 class JpaPreferencePersistenceAdapter implements PreferencePersistencePort {
 
+    /** Some databases restrict the number of bind parameters of an IN-clause. */
+    private static final int MAX_IN_CLAUSE = 1000;
+    /** Each business key binds three parameters. */
+    private static final int MAX_BUSINESS_KEYS = MAX_IN_CLAUSE / 3;
     private final PreferenceRepository preferenceRepository;
+    private final PreferenceTombstoneRepository tombstoneRepository;
     private final PreferenceEOMapper mapper;
+    private final EntityManager entityManager;
+    private final boolean secondLevelCache;
+    private final int batchSize;
 
-    JpaPreferencePersistenceAdapter(PreferenceRepository preferenceRepository, PreferenceEOMapper mapper) {
+    JpaPreferencePersistenceAdapter(PreferenceRepository preferenceRepository, PreferenceTombstoneRepository tombstoneRepository,
+            PreferenceEOMapper mapper, EntityManager entityManager, PreferencesProperties properties) {
         this.preferenceRepository = preferenceRepository;
+        this.tombstoneRepository = tombstoneRepository;
         this.mapper = mapper;
+        this.entityManager = entityManager;
+        this.secondLevelCache = properties.getSecondLevelCache().isEnabled();
+        this.batchSize = properties.getBatchSize();
     }
 
     @Override
@@ -46,6 +77,36 @@ class JpaPreferencePersistenceAdapter implements PreferencePersistencePort {
         return mapper.toDomainList(preferenceRepository.findAll());
     }
 
+    @Override
+    public Page<Preference> findAll(Pageable pageable) {
+        return preferenceRepository.findAll(pageable).map(mapper::toDomain);
+    }
+
+    @Override
+    public List<Preference> findAllAfter(String pKey, int limit) {
+        return mapper.toDomainList(preferenceRepository.findAllAfter(pKey, Limit.of(limit)));
+    }
+
+    @Override
+    public long countByScope(PropertyScope scope) {
+        return preferenceRepository.countByScope(scope);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The rows are fetched with a JDBC cursor and each entity is detached from the persistence context after it has been consumed.
+     */
+    @Override
+    public void streamAll(Consumer<Preference> consumer) {
+        try (var stream = preferenceRepository.streamAll()) {
+            stream.forEach(eo -> {
+                consumer.accept(mapper.toDomain(eo));
+                entityManager.detach(eo);
+            });
+        }
+    }
+
     @Override
     public Optional<Preference> findBypKey(String pKey) {
         return preferenceRepository.findBypKey(pKey).map(mapper::toDomain);
@@ -53,17 +114,37 @@ class JpaPreferencePersistenceAdapter implements PreferencePersistencePort {
 
     @Override
     public List<Preference> findByOwnerAndScope(String owner, PropertyScope scope) {
-        return mapper.toDomainList(preferenceRepository.findByOwnerAndScope(owner, scope));
+        return mapper.toDomainList(owner == null
+                ? preferenceRepository.findByScope(scope)
+                : preferenceRepository.findByOwnerAndScope(owner, scope));
     }
 
     @Override
     public Optional<Preference> findByOwnerAndScopeAndKey(String owner, PropertyScope scope, String key) {
-        return preferenceRepository.findByOwnerAndScopeAndKey(owner, scope, key).map(mapper::toDomain);
+        return (owner == null
+                ? preferenceRepository.findByScopeAndKey(scope, key)
+                : preferenceRepository.findByOwnerAndScopeAndKey(owner, scope, key)).map(mapper::toDomain);
     }
 
     @Override
     public List<Preference> findByOwnerAndScopeAndGroupName(String owner, PropertyScope scope, String groupName) {
-        return mapper.toDomainList(preferenceRepository.findByOwnerAndScopeAndGroupName(owner, scope, groupName));
+        return mapper.toDomainList(owner == null
+                ? preferenceRepository.findByScopeAndGroupName(scope, groupName)
+                : preferenceRepository.findByOwnerAndScopeAndGroupName(owner, scope, groupName));
+    }
+
+    @Override
+    public List<Preference> findAllByBusinessKeys(Collection<Preference> preferences) {
+        return mapper.toDomainList(findEntitiesByBusinessKeys(preferences));
+    }
+
+    private List<PreferenceEO> findEntitiesByBusinessKeys(Collection<Preference> preferences) {
+        var all = List.copyOf(preferences);
+        var result = new ArrayList<PreferenceEO>(all.size());
+        for (var i = 0; i < all.size(); i += MAX_BUSINESS_KEYS) {
+            result.addAll(preferenceRepository.findAllByBusinessKeys(all.subList(i, Math.min(i + MAX_BUSINESS_KEYS, all.size()))));
+        }
+        return result;
     }
 
     @Override
@@ -82,11 +163,211 @@ class JpaPreferencePersistenceAdapter implements PreferencePersistencePort {
         return mapper.toDomain(preferenceRepository.save(eo));
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The new entities are persisted and flushed at once, so that Hibernate can send the inserts in JDBC batches.
+     */
+    @Override
+    public List<Preference> createAll(List<Preference> preferences) {
+        return batched(() -> {
+            var saved = preferenceRepository.saveAll(preferences.stream().map(mapper::toEntity).toList());
+            preferenceRepository.flush();
+            return mapper.toDomainList(saved);
+        });
+    }
+
+    /**
+     * Runs the {@code work} with the JDBC batch size of the current session set to {@literal owms.preferences.batch-size}, the session
+     * factory wide setting is not changed for the other entities of the application.
+     */
+    private <T> T batched(Supplier<T> work) {
+        var session = entityManager.unwrap(Session.class);
+        var jdbcBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+        try {
+            return work.get();
+        } finally {
+            session.setJdbcBatchSize(jdbcBatchSize);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The entity is not loaded but updated with one single {@code UPDATE} statement that increments the optimistic lock column, hence the
+     * new version is unknown. With the second-level cache the entity is loaded instead, see {@link #update(String, Preference, long)}.
+     */
+    @Override
+    public Optional<Preference> update(String pKey, Preference preference) {
+        if (secondLevelCache) {
+            return preferenceRepository.findBypKey(pKey)
+                    .map(eo -> mapper.toDomain(preferenceRepository.saveAndFlush(mapper.updateEntity(preference, eo))));
+        }
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        if (preferenceRepository.update(pKey, preference, now) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(updated(pKey, preference, now, Preference.UNKNOWN_VERSION));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The entity is not loaded but updated with one single {@code UPDATE} statement that is conditional on the optimistic lock column and
+     * increments it. Only if no row has been updated, the existence of the entity is checked to tell a missing entity from a version
+     * conflict. A bulk {@code UPDATE} drops the whole second-level cache region of the entity though, so with the second-level cache the
+     * entity is loaded, which is then mostly served from the cache, and flushed with a version checked update of this entity only.
+     */
+    @Override
+    public Optional<Preference> update(String pKey, Preference preference, long ol) {
+        if (secondLevelCache) {
+            var existing = preferenceRepository.findBypKey(pKey);
+            if (existing.isEmpty()) {
+                return Optional.empty();
+            }
+            if (existing.get().getOl() != ol) {
+                throw versionConflict(pKey, ol);
+            }
+            return Optional.of(mapper.toDomain(preferenceRepository.saveAndFlush(mapper.updateEntity(preference, existing.get()))));
+        }
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        if (preferenceRepository.update(pKey, ol, preference, now) == 0) {
+            if (preferenceRepository.existsBypKey(pKey)) {
+                throw versionConflict(pKey, ol);
+            }
+            return Optional.empty();
+        }
+        return Optional.of(updated(pKey, preference, now, ol + 1));
+    }
+
+    private static Preference updated(String pKey, Preference preference, LocalDateTime now, long ol) {
+        return Preference.newBuilder()
+                .pKey(pKey)
+                .key(preference.getKey())
+                .owner(preference.getOwner())
+                .description(preference.getDescription())
+                .val(preference.getVal())
+                .defValue(preference.getDefValue())
+                .minValue(preference.getMinValue())
+                .maxValue(preference.getMaxValue())
+                .groupName(preference.getGroupName())
+                .scope(preference.getScope())
+                .type(preference.getType())
+                .fromFile(preference.isFromFile())
+                .lastModifiedDt(now)
+                .ol(ol)
+                .build();
+    }
+
+    private static OptimisticLockingFailureException versionConflict(String pKey, long ol) {
+        return new OptimisticLockingFailureException(
+                "Preference with pKey [%s] has been changed meanwhile, expected version [%d]".formatted(pKey, ol));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the existing Preferences with the same business keys are looked up, in chunks that respect the bind parameter limits, other
+     * owners and scopes of the same keys are not loaded. New entities are persisted and the modified managed entities are flushed at once,
+     * so that Hibernate can send the statements in JDBC batches.
+     */
+    @Override
+    public List<PreferenceUpsertResult> upsertAll(List<Preference> preferences) {
+        return batched(() -> doUpsertAll(preferences));
+    }
+
+    private List<PreferenceUpsertResult> doUpsertAll(List<Preference> preferences) {
+        var existing = new HashMap<PreferenceKey, PreferenceEO>(preferences.size());
+        findEntitiesByBusinessKeys(distinctByBusinessKey(preferences)).forEach(eo -> existing.put(eo.getPrefKey(), eo));
+        var created = new ArrayList<PreferenceEO>();
+        var written = new ArrayList<Written>(preferences.size());
+        for (var preference : preferences) {
+            var eo = existing.get(preference.getPrefKey());
+            if (eo == null) {
+                if (preference.hasPersistentKey()) {
+                    written.add(new Written(preference, null, PreferenceUpsertResult.Status.REJECTED));
+                    continue;
+                }
+                eo = mapper.toEntity(preference);
+                existing.put(eo.getPrefKey(), eo);
+                created.add(eo);
+                written.add(new Written(preference, eo, PreferenceUpsertResult.Status.CREATED));
+            } else if (preference.hasPersistentKey() && !preference.getPersistentKey().equals(eo.getPersistentKey())) {
+                written.add(new Written(preference, null, PreferenceUpsertResult.Status.REJECTED));
+            } else {
+                mapper.updateEntity(preference, eo);
+                written.add(new Written(preference, eo, PreferenceUpsertResult.Status.UPDATED));
+            }
+        }
+        preferenceRepository.saveAll(created);
+        preferenceRepository.flush();
+        return written.stream()
+                .map(w -> w.entity() == null
+                        ? new PreferenceUpsertResult(w.preference(), w.status())
+                        : new PreferenceUpsertResult(mapper.toDomain(w.entity()), w.status()))
+                .toList();
+    }
+
+    private static Collection<Preference> distinctByBusinessKey(List<Preference> preferences) {
+        var distinct = new LinkedHashMap<PreferenceKey, Preference>(preferences.size());
+        preferences.forEach(p -> distinct.putIfAbsent(p.getPrefKey(), p));
+        return distinct.values();
+    }
+
+    private record Written(Preference preference, PreferenceEO entity, PreferenceUpsertResult.Status status) {
+    }
+
     @Override
     public void delete(Preference preference) {
         if (preference.hasPersistentKey()) {
             preferenceRepository.findBypKey(preference.getPersistentKey())
-                    .ifPresent(preferenceRepository::delete);
+                    .ifPresent(eo -> {
+                        preferenceRepository.delete(eo);
+                        tombstoneRepository.save(new PreferenceTombstoneEO(eo.getPersistentKey(), eo.getKey(), eo.getOwner(), eo.getScope(),
+                                LocalDateTime.now()));
+                    });
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * One query per combination of the given filters is used, so that each can be served by an index: without {@code since} the finders
+     * by owner and scope, otherwise the indexes on {@code C_UPDATED} and on {@code (C_OWNER, C_SCOPE, C_UPDATED)}.
+     */
+    @Override
+    public List<Preference> findModifiedSince(LocalDateTime since, String owner, PropertyScope scope) {
+        if (since == null) {
+            return mapper.toDomainList(owner == null
+                    ? (scope == null ? preferenceRepository.findAll() : preferenceRepository.findByScope(scope))
+                    : (scope == null ? preferenceRepository.findByOwner(owner) : preferenceRepository.findByOwnerAndScope(owner, scope)));
         }
+        return mapper.toDomainList(owner == null
+                ? (scope == null
+                    ? preferenceRepository.findModifiedSince(since)
+                    : preferenceRepository.findModifiedSinceByScope(since, scope))
+                : (scope == null
+                    ? preferenceRepository.findModifiedSinceByOwner(since, owner)
+                    : preferenceRepository.findModifiedSinceByOwnerAndScope(since, owner, scope)));
+    }
+
+    @Override
+    public List<PreferenceTombstone> findDeletedSince(LocalDateTime since, String owner, PropertyScope scope) {
+        var tombstones = owner == null
+                ? (scope == null
+                    ? tombstoneRepository.findDeletedSince(since)
+                    : tombstoneRepository.findDeletedSinceByScope(since, scope))
+                : (scope == null
+                    ? tombstoneRepository.findDeletedSinceByOwner(since, owner)
+                    : tombstoneRepository.findDeletedSinceByOwnerAndScope(since, owner, scope));
+        return tombstones.stream()
+                .map(t -> new PreferenceTombstone(t.getPKey(), t.getKey(), t.getOwner(), t.getScope(), t.getDeletedDt()))
+                .toList();
+    }
+
+    @Override
+    public void deleteTombstonesBefore(LocalDateTime before) {
+        tombstoneRepository.deleteAllBefore(before);
     }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.jpa;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * An OutboxMessageEO is the persistent entity class of an event in the transactional outbox.
+ *
+ * @author Heiko Scherrer
+ */
+@Entity
+@Table(name = "COR_PREF_OUTBOX", indexes = @Index(name = "IDX_PREF_OUTBOX_CREATED", columnList = "C_CREATED"))
+public class OutboxMessageEO implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "C_PK")
+    private Long id;
+
+    @Column(name = "C_ROUTING_KEY", nullable = false, length = 64)
+    private String routingKey;
+
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    @Column(name = "C_PAYLOAD", nullable = false)
+    private String payload;
+
+    @Column(name = "C_NODE_ID", length = 64)
+    private String nodeId;
+
+    @Column(name = "C_CREATED", nullable = false)
+    private LocalDateTime createdDt;
+
+    protected OutboxMessageEO() {}
+
+    public OutboxMessageEO(String routingKey, String payload, String nodeId, LocalDateTime createdDt) {
+        this.routingKey = routingKey;
+        this.payload = payload;
+        this.nodeId = nodeId;
+        this.createdDt = createdDt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public LocalDateTime getCreatedDt() {
+        return createdDt;
+    }
+}
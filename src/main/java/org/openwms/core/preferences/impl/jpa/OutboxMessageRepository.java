@@ -0,0 +1,43 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.jpa;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An OutboxMessageRepository is a Spring Data JPA repository that deals with {@link OutboxMessageEO}s.
+ *
+ * @author Heiko Scherrer
+ */
+interface OutboxMessageRepository extends JpaRepository<OutboxMessageEO, Long> {
+
+    /** A lock timeout of -2 lets Hibernate skip rows that are locked by another transaction ({@code SKIP LOCKED}). */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from OutboxMessageEO o order by o.createdDt, o.id")
+    List<OutboxMessageEO> findNextBatch(Limit limit);
+
+    Optional<OutboxMessageEO> findFirstByOrderByCreatedDtAsc();
+}
@@ -15,22 +15,28 @@
  */
 package org.openwms.core.preferences.impl.jpa;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.ameba.integration.jpa.ApplicationEntity;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.openwms.core.preferences.PreferenceType;
 import org.openwms.core.preferences.PropertyScope;
 import org.openwms.core.preferences.impl.file.PreferenceKey;
 
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.StringJoiner;
 
@@ -42,12 +48,23 @@ import static org.openwms.core.preferences.api.PreferencesConstants.LENGTH_TYPE;
 import static org.openwms.core.preferences.api.PreferencesConstants.LENGTH_VALUE;
 
 /**
- * An PreferenceEO is the persistent entity class that represents preferences in the database.
+ * An PreferenceEO is the persistent entity class that represents preferences in the database. Entities are kept in the second-level
+ * cache if it is enabled. The primary keys are allocated in blocks by the {@link PreferenceIdGenerator}.
  *
  * @author Heiko Scherrer
  */
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@PreferenceId
 @Entity
-@Table(name = "COR_PREF_PREFERENCE", uniqueConstraints = @UniqueConstraint(name = "UC_PREFERENCE", columnNames = {"C_KEY", "C_OWNER"}))
+@Table(name = "COR_PREF_PREFERENCE",
+        uniqueConstraints = @UniqueConstraint(name = "UC_PREFERENCE", columnNames = {"C_KEY", "C_OWNER"}),
+        indexes = {
+                @Index(name = "IDX_PREF_SCOPE_OWNER_KEY", columnList = "C_SCOPE, C_OWNER, C_KEY"),
+                @Index(name = "IDX_PREF_SCOPE_OWNER_GROUP", columnList = "C_SCOPE, C_OWNER, C_GROUP_NAME"),
+                @Index(name = "IDX_PREF_UPDATED", columnList = "C_UPDATED"),
+                @Index(name = "IDX_PREF_OWNER_SCOPE_UPDATED", columnList = "C_OWNER, C_SCOPE, C_UPDATED")
+        })
 public class PreferenceEO extends ApplicationEntity implements Serializable {
 
     /** Suffix for the FIND_ALL named query. Default {@value} */
@@ -109,6 +126,17 @@ public class PreferenceEO extends ApplicationEntity implements Serializable {
     @NotNull
     protected PreferenceType type;
 
+    /**
+     * Set the modification time on insert as well, so that the changes since a watermark are found with a range scan on {@code C_UPDATED}
+     * alone. The auditing listener is called before and has usually set it already.
+     */
+    @PrePersist
+    void initLastModifiedDt() {
+        if (getLastModifiedDt() == null) {
+            setLastModifiedDt(getCreateDt() == null ? LocalDateTime.now() : getCreateDt());
+        }
+    }
+
     public String getKey() {
         return key;
     }
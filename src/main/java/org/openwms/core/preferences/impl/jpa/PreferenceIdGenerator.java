@@ -0,0 +1,77 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.jpa;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.tool.schema.extract.spi.SequenceInformation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * A PreferenceIdGenerator draws the primary keys of {@link PreferenceEO}s from the database sequence {@value #SEQUENCE_NAME} in blocks
+ * with the {@literal pooled-lo} optimizer. The block size is taken from the Hibernate setting {@value #INCREMENT_SIZE}, that is set from
+ * {@literal owms.preferences.id-increment-size}. If the existing database sequence has been created with a different increment, the
+ * increment of the sequence is used instead, so that existing installations keep working until the sequence has been migrated. Other
+ * entities of the consuming application are not affected.
+ *
+ * @author Heiko Scherrer
+ */
+public class PreferenceIdGenerator extends SequenceStyleGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferenceIdGenerator.class);
+    /** Name of the database sequence. Default {@value} */
+    public static final String SEQUENCE_NAME = "cor_pref_seq";
+    /** Name of the Hibernate setting with the number of ids allocated with one sequence call. Default {@value} */
+    public static final String INCREMENT_SIZE = "owms.preferences.id-increment-size";
+    /** The number of ids allocated with one sequence call if nothing else is configured. Default {@value} */
+    public static final int DEFAULT_INCREMENT_SIZE = 50;
+
+    @Override
+    public void configure(GeneratorCreationContext creationContext, Properties parameters) throws MappingException {
+        var incrementSize = creationContext.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSetting(INCREMENT_SIZE, StandardConverters.INTEGER, DEFAULT_INCREMENT_SIZE);
+        if (incrementSize > 1) {
+            var sequenceIncrement = findSequenceIncrement(creationContext);
+            if (sequenceIncrement > 0 && sequenceIncrement != incrementSize) {
+                LOGGER.warn("The database sequence [{}] is incremented by [{}] but [{}] is configured with [{}], the increment of the "
+                        + "sequence is used", SEQUENCE_NAME, sequenceIncrement, INCREMENT_SIZE, incrementSize);
+                incrementSize = sequenceIncrement;
+            }
+            parameters.put(OPT_PARAM, "pooled-lo");
+        }
+        parameters.put(SEQUENCE_PARAM, SEQUENCE_NAME);
+        parameters.put(INCREMENT_PARAM, String.valueOf(incrementSize));
+        super.configure(creationContext, parameters);
+    }
+
+    private static int findSequenceIncrement(GeneratorCreationContext creationContext) {
+        var metaData = creationContext.getDatabase().getJdbcEnvironment().getExtractedDatabaseMetaData();
+        return metaData.getSequenceInformationList().stream()
+                .filter(si -> SEQUENCE_NAME.equalsIgnoreCase(si.getSequenceName().getSequenceName().getText()))
+                .map(SequenceInformation::getIncrementValue)
+                .filter(Objects::nonNull)
+                .mapToInt(Number::intValue)
+                .findFirst()
+                .orElse(0);
+    }
+}
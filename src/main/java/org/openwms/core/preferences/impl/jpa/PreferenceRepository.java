@@ -15,62 +15,166 @@
  */
 package org.openwms.core.preferences.impl.jpa;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.openwms.core.preferences.Preference;
 import org.openwms.core.preferences.PropertyScope;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
- * A PreferenceRepository is a Spring Data JPA repository that deals with {@link PreferenceEO}s.
+ * A PreferenceRepository is a Spring Data JPA repository that deals with {@link PreferenceEO}s. The results of the finder queries are kept
+ * in the query cache if it is enabled, whereas streaming all entities bypasses the second-level cache.
  *
  * @author Heiko Scherrer
  */
 interface PreferenceRepository extends JpaRepository<PreferenceEO, Long>, PreferenceRepositoryCustom {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<PreferenceEO> findBypKey(String pKey);
 
+    boolean existsBypKey(String pKey);
+
+    long countByScope(PropertyScope scope);
+
     @Query(
             """
         select p
          from PreferenceEO p
-        where (:owner is null or p.owner = :owner)
-          and p.scope = :scope
+        where (:pKey is null or p.pKey > :pKey)
+        order by p.pKey
             """
     )
-    List<PreferenceEO> findByOwnerAndScope(
-            @Param("owner") String owner,
-            @Param("scope") PropertyScope scope
-    );
+    List<PreferenceEO> findAllAfter(@Param("pKey") String pKey, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select p from PreferenceEO p")
+    Stream<PreferenceEO> streamAll();
 
+    @Modifying(flushAutomatically = true)
     @Query(
             """
-        select p
-         from PreferenceEO p
-        where (:owner is null or p.owner = :owner)
-          and p.scope = :scope
-          and p.key = :key
+        update PreferenceEO p
+           set p.key = :#{#p.key},
+               p.owner = :#{#p.owner},
+               p.description = :#{#p.description},
+               p.val = :#{#p.val},
+               p.defValue = :#{#p.defValue},
+               p.minValue = :#{#p.minValue},
+               p.maxValue = :#{#p.maxValue},
+               p.groupName = :#{#p.groupName},
+               p.scope = :#{#p.scope},
+               p.type = :#{#p.type},
+               p.fromFile = :#{#p.fromFile},
+               p.lastModifiedDt = :now,
+               p.ol = p.ol + 1
+         where p.pKey = :pKey
             """
     )
-    Optional<PreferenceEO> findByOwnerAndScopeAndKey(
-            @Param("owner") String owner,
-            @Param("scope") PropertyScope scope,
-            @Param("key") String key
+    int update(
+            @Param("pKey") String pKey,
+            @Param("p") Preference preference,
+            @Param("now") LocalDateTime now
     );
 
+    @Modifying(flushAutomatically = true)
     @Query(
             """
-        select p
-         from PreferenceEO p
-        where (:owner is null or p.owner = :owner)
-          and p.scope = :scope
-          and p.groupName = :groupName
+        update PreferenceEO p
+           set p.key = :#{#p.key},
+               p.owner = :#{#p.owner},
+               p.description = :#{#p.description},
+               p.val = :#{#p.val},
+               p.defValue = :#{#p.defValue},
+               p.minValue = :#{#p.minValue},
+               p.maxValue = :#{#p.maxValue},
+               p.groupName = :#{#p.groupName},
+               p.scope = :#{#p.scope},
+               p.type = :#{#p.type},
+               p.fromFile = :#{#p.fromFile},
+               p.lastModifiedDt = :now,
+               p.ol = p.ol + 1
+         where p.pKey = :pKey
+           and p.ol = :ol
             """
     )
-    List<PreferenceEO> findByOwnerAndScopeAndGroupName(
+    int update(
+            @Param("pKey") String pKey,
+            @Param("ol") long ol,
+            @Param("p") Preference preference,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Find all Preferences that have been created or modified at or after {@code since}, with a range scan on the {@code C_UPDATED}
+     * column, which is set on insert as well.
+     */
+    @Query("""
+            select p from PreferenceEO p
+             where p.lastModifiedDt >= :since
+             order by p.lastModifiedDt, p.pKey
+            """)
+    List<PreferenceEO> findModifiedSince(@Param("since") LocalDateTime since);
+
+    @Query("""
+            select p from PreferenceEO p
+             where p.scope = :scope
+               and p.lastModifiedDt >= :since
+             order by p.lastModifiedDt, p.pKey
+            """)
+    List<PreferenceEO> findModifiedSinceByScope(@Param("since") LocalDateTime since, @Param("scope") PropertyScope scope);
+
+    @Query("""
+            select p from PreferenceEO p
+             where p.owner = :owner
+               and p.lastModifiedDt >= :since
+             order by p.lastModifiedDt, p.pKey
+            """)
+    List<PreferenceEO> findModifiedSinceByOwner(@Param("since") LocalDateTime since, @Param("owner") String owner);
+
+    @Query("""
+            select p from PreferenceEO p
+             where p.owner = :owner
+               and p.scope = :scope
+               and p.lastModifiedDt >= :since
+             order by p.lastModifiedDt, p.pKey
+            """)
+    List<PreferenceEO> findModifiedSinceByOwnerAndScope(
+            @Param("since") LocalDateTime since,
             @Param("owner") String owner,
-            @Param("scope") PropertyScope scope,
-            @Param("groupName") String groupName);
-}
\ No newline at end of file
+            @Param("scope") PropertyScope scope
+    );
+
+    List<PreferenceEO> findByOwner(String owner);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<PreferenceEO> findByScope(PropertyScope scope);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<PreferenceEO> findByOwnerAndScope(String owner, PropertyScope scope);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<PreferenceEO> findByScopeAndKey(PropertyScope scope, String key);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<PreferenceEO> findByOwnerAndScopeAndKey(String owner, PropertyScope scope, String key);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<PreferenceEO> findByScopeAndGroupName(PropertyScope scope, String groupName);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<PreferenceEO> findByOwnerAndScopeAndGroupName(String owner, PropertyScope scope, String groupName);
+}
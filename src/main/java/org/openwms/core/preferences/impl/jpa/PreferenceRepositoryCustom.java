@@ -15,6 +15,9 @@
  */
 package org.openwms.core.preferences.impl.jpa;
 
+import org.openwms.core.preferences.Preference;
+
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -32,4 +35,12 @@ interface PreferenceRepositoryCustom {
      * @return A list of all preferences or an empty list, never {@literal null}
      */
     <T extends PreferenceEO> List<T> findByType(Class<T> clazz);
+
+    /**
+     * Find and return all preferences that have the same owner, scope and key as one of the given {@code preferences}.
+     *
+     * @param preferences Defines the business keys to search for
+     * @return A list of all matching preferences or an empty list, never {@literal null}
+     */
+    List<PreferenceEO> findAllByBusinessKeys(Collection<Preference> preferences);
 }
@@ -17,9 +17,12 @@ package org.openwms.core.preferences.impl.jpa;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Predicate;
+import org.openwms.core.preferences.Preference;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -45,4 +48,27 @@ class PreferenceRepositoryImpl implements PreferenceRepositoryCustom {
         var result = em.createNamedQuery(clazz.getSimpleName() + PreferenceEO.FIND_ALL, clazz).getResultList();
         return result == null ? Collections.emptyList() : result;
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The business keys are combined to one disjunction, that is the portable form of {@code (owner, key, scope) IN (...)}.
+     */
+    @Override
+    public List<PreferenceEO> findAllByBusinessKeys(Collection<Preference> preferences) {
+        if (preferences.isEmpty()) {
+            return Collections.emptyList();
+        }
+        var cb = em.getCriteriaBuilder();
+        var query = cb.createQuery(PreferenceEO.class);
+        var root = query.from(PreferenceEO.class);
+        query.where(cb.or(preferences.stream()
+                .map(p -> cb.and(
+                        p.getOwner() == null ? cb.isNull(root.get("owner")) : cb.equal(root.get("owner"), p.getOwner()),
+                        cb.equal(root.get("key"), p.getKey()),
+                        cb.equal(root.get("scope"), p.getScope())
+                ))
+                .toArray(Predicate[]::new)));
+        return em.createQuery(query).getResultList();
+    }
 }
\ No newline at end of file
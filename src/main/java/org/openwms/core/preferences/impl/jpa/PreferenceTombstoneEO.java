@@ -0,0 +1,98 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.jpa;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.openwms.core.preferences.PropertyScope;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import static org.openwms.core.preferences.api.PreferencesConstants.LENGTH_KEY;
+import static org.openwms.core.preferences.api.PreferencesConstants.LENGTH_OWNER;
+
+/**
+ * A PreferenceTombstoneEO is the persistent entity class of a deleted {@link PreferenceEO}.
+ *
+ * @author Heiko Scherrer
+ */
+@Entity
+@Table(name = "COR_PREF_TOMBSTONE",
+        indexes = {
+                @Index(name = "IDX_PREF_TOMBSTONE_DELETED", columnList = "C_DELETED"),
+                @Index(name = "IDX_PREF_TOMBSTONE_OWNER_SCOPE_DELETED", columnList = "C_OWNER, C_SCOPE, C_DELETED")
+        })
+public class PreferenceTombstoneEO implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "C_PK")
+    private Long id;
+
+    @Column(name = "C_PID", nullable = false)
+    private String pKey;
+
+    @Column(name = "C_KEY", length = LENGTH_KEY)
+    private String key;
+
+    @Column(name = "C_OWNER", length = LENGTH_OWNER)
+    private String owner;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "C_SCOPE")
+    private PropertyScope scope;
+
+    @Column(name = "C_DELETED", nullable = false)
+    private LocalDateTime deletedDt;
+
+    protected PreferenceTombstoneEO() {}
+
+    public PreferenceTombstoneEO(String pKey, String key, String owner, PropertyScope scope, LocalDateTime deletedDt) {
+        this.pKey = pKey;
+        this.key = key;
+        this.owner = owner;
+        this.scope = scope;
+        this.deletedDt = deletedDt;
+    }
+
+    public String getPKey() {
+        return pKey;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public PropertyScope getScope() {
+        return scope;
+    }
+
+    public LocalDateTime getDeletedDt() {
+        return deletedDt;
+    }
+}
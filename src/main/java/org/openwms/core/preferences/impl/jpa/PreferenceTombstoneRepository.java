@@ -0,0 +1,73 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.jpa;
+
+import org.openwms.core.preferences.PropertyScope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A PreferenceTombstoneRepository is a Spring Data JPA repository that deals with {@link PreferenceTombstoneEO}s.
+ *
+ * @author Heiko Scherrer
+ */
+interface PreferenceTombstoneRepository extends JpaRepository<PreferenceTombstoneEO, Long> {
+
+    @Query("""
+            select t from PreferenceTombstoneEO t
+             where t.deletedDt >= :since
+             order by t.deletedDt
+            """)
+    List<PreferenceTombstoneEO> findDeletedSince(@Param("since") LocalDateTime since);
+
+    @Query("""
+            select t from PreferenceTombstoneEO t
+             where t.scope = :scope
+               and t.deletedDt >= :since
+             order by t.deletedDt
+            """)
+    List<PreferenceTombstoneEO> findDeletedSinceByScope(@Param("since") LocalDateTime since, @Param("scope") PropertyScope scope);
+
+    @Query("""
+            select t from PreferenceTombstoneEO t
+             where t.owner = :owner
+               and t.deletedDt >= :since
+             order by t.deletedDt
+            """)
+    List<PreferenceTombstoneEO> findDeletedSinceByOwner(@Param("since") LocalDateTime since, @Param("owner") String owner);
+
+    @Query("""
+            select t from PreferenceTombstoneEO t
+             where t.owner = :owner
+               and t.scope = :scope
+               and t.deletedDt >= :since
+             order by t.deletedDt
+            """)
+    List<PreferenceTombstoneEO> findDeletedSinceByOwnerAndScope(
+            @Param("since") LocalDateTime since,
+            @Param("owner") String owner,
+            @Param("scope") PropertyScope scope
+    );
+
+    @Modifying
+    @Query("delete from PreferenceTombstoneEO t where t.deletedDt < :before")
+    int deleteAllBefore(@Param("before") LocalDateTime before);
+}
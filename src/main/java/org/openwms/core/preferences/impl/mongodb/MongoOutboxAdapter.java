@@ -0,0 +1,88 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.mongodb;
+
+import org.openwms.core.preferences.impl.outbox.OutboxMessage;
+import org.openwms.core.preferences.impl.outbox.OutboxPort;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A MongoOutboxAdapter implements the {@link OutboxPort} with a MongoDB collection. The outbox is only written atomically with the
+ * Preferences if MongoDB transactions are enabled. MongoDB does not support to skip locked documents, hence each taken message is leased
+ * to the service node for a while, so that other nodes skip it.
+ *
+ * @author Heiko Scherrer
+ */
+@Profile("MONGODB")
+@Component
+class MongoOutboxAdapter implements OutboxPort {
+
+    private static final Duration LEASE = Duration.ofMinutes(1);
+    private final MongoOperations mongoOperations;
+
+    MongoOutboxAdapter(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public void append(String routingKey, String payload, String nodeId) {
+        mongoOperations.insert(new OutboxMessageDocument(routingKey, payload, nodeId, LocalDateTime.now()));
+    }
+
+    @Override
+    public List<OutboxMessage> takeNextBatch(int limit) {
+        var now = LocalDateTime.now();
+        var query = Query.query(new Criteria().orOperator(
+                Criteria.where("takenUntil").is(null),
+                Criteria.where("takenUntil").lt(now)
+        )).with(Sort.by("createdDt", "_id"));
+        var result = new ArrayList<OutboxMessage>(limit);
+        for (var i = 0; i < limit; i++) {
+            var doc = mongoOperations.findAndModify(query, Update.update("takenUntil", now.plus(LEASE)),
+                    FindAndModifyOptions.options().returnNew(true), OutboxMessageDocument.class);
+            if (doc == null) {
+                break;
+            }
+            result.add(new OutboxMessage(doc.getId(), doc.getRoutingKey(), doc.getPayload(), doc.getNodeId(), doc.getCreatedDt()));
+        }
+        return result;
+    }
+
+    @Override
+    public void delete(Collection<String> ids) {
+        mongoOperations.remove(Query.query(Criteria.where("_id").in(ids)), OutboxMessageDocument.class);
+    }
+
+    @Override
+    public Optional<LocalDateTime> findOldestCreatedDt() {
+        return Optional.ofNullable(mongoOperations.findOne(new Query().with(Sort.by("createdDt")), OutboxMessageDocument.class))
+                .map(OutboxMessageDocument::getCreatedDt);
+    }
+}
@@ -15,14 +15,38 @@
  */
 package org.openwms.core.preferences.impl.mongodb;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceTombstone;
+import org.openwms.core.preferences.PreferenceUpsertResult;
 import org.openwms.core.preferences.PropertyScope;
 import org.openwms.core.preferences.impl.PreferencePersistencePort;
+import org.openwms.core.preferences.impl.file.PreferenceKey;
 import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * A MongoPreferencePersistenceAdapter implements {@link PreferencePersistencePort} using MongoDB.
@@ -35,10 +59,13 @@ class MongoPreferencePersistenceAdapter implements PreferencePersistencePort {
 
     private final PreferenceDocumentRepository repository;
     private final PreferenceDocumentMapper mapper;
+    private final MongoOperations mongoOperations;
 
-    MongoPreferencePersistenceAdapter(PreferenceDocumentRepository repository, PreferenceDocumentMapper mapper) {
+    MongoPreferencePersistenceAdapter(PreferenceDocumentRepository repository, PreferenceDocumentMapper mapper,
+            MongoOperations mongoOperations) {
         this.repository = repository;
         this.mapper = mapper;
+        this.mongoOperations = mongoOperations;
     }
 
     @Override
@@ -46,6 +73,34 @@ class MongoPreferencePersistenceAdapter implements PreferencePersistencePort {
         return mapper.toDomainList(repository.findAll());
     }
 
+    @Override
+    public Page<Preference> findAll(Pageable pageable) {
+        return repository.findAll(pageable).map(mapper::toDomain);
+    }
+
+    @Override
+    public List<Preference> findAllAfter(String pKey, int limit) {
+        var query = pKey == null ? new Query() : Query.query(Criteria.where("_id").gt(pKey));
+        return mapper.toDomainList(mongoOperations.find(query.with(Sort.by("_id")).limit(limit), PreferenceDocument.class));
+    }
+
+    @Override
+    public long countByScope(PropertyScope scope) {
+        return repository.countByScope(scope);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The documents are read with a server side cursor.
+     */
+    @Override
+    public void streamAll(Consumer<Preference> consumer) {
+        try (var stream = mongoOperations.stream(new Query(), PreferenceDocument.class)) {
+            stream.map(mapper::toDomain).forEach(consumer);
+        }
+    }
+
     @Override
     public Optional<Preference> findBypKey(String pKey) {
         return repository.findById(pKey).map(mapper::toDomain);
@@ -66,6 +121,26 @@ class MongoPreferencePersistenceAdapter implements PreferencePersistencePort {
         return mapper.toDomainList(repository.findByOwnerAndScopeAndGroupName(owner, scope, groupName));
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The business keys are combined to one {@code $or} query, a missing owner matches documents without an owner.
+     */
+    @Override
+    public List<Preference> findAllByBusinessKeys(Collection<Preference> preferences) {
+        if (preferences.isEmpty()) {
+            return List.of();
+        }
+        return mapper.toDomainList(findDocumentsByBusinessKeys(preferences));
+    }
+
+    private List<PreferenceDocument> findDocumentsByBusinessKeys(Collection<Preference> preferences) {
+        var criteria = preferences.stream()
+                .map(p -> Criteria.where("owner").is(p.getOwner()).and("key").is(p.getKey()).and("scope").is(p.getScope()))
+                .toArray(Criteria[]::new);
+        return mongoOperations.find(Query.query(new Criteria().orOperator(criteria)), PreferenceDocument.class);
+    }
+
     @Override
     public Preference save(Preference preference) {
         PreferenceDocument doc;
@@ -73,19 +148,191 @@ class MongoPreferencePersistenceAdapter implements PreferencePersistencePort {
             var existingOpt = repository.findById(preference.getPersistentKey());
             if (existingOpt.isPresent()) {
                 doc = mapper.updateDocument(preference, existingOpt.get());
+                doc.setOl(doc.getOl() + 1);
             } else {
                 doc = mapper.toDocument(preference);
             }
         } else {
             doc = mapper.toDocument(preference);
         }
+        doc.setLastModifiedDt(LocalDateTime.now());
         return mapper.toDomain(repository.save(doc));
     }
 
+    @Override
+    public List<Preference> createAll(List<Preference> preferences) {
+        var now = LocalDateTime.now();
+        var docs = preferences.stream().map(mapper::toDocument).toList();
+        docs.forEach(doc -> doc.setLastModifiedDt(now));
+        return mapper.toDomainList(repository.insert(docs));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The document is not loaded but modified with one single {@code findAndModify} command that sets all fields, increments the version
+     * and returns the new state.
+     */
+    @Override
+    public Optional<Preference> update(String pKey, Preference preference) {
+        var doc = mapper.toDocument(preference);
+        doc.setLastModifiedDt(LocalDateTime.now());
+        var fields = new Document();
+        mongoOperations.getConverter().write(doc, fields);
+        var update = new Update().inc("ol", 1);
+        mongoOperations.getConverter().getMappingContext().getRequiredPersistentEntity(PreferenceDocument.class)
+                .doWithProperties((PropertyHandler<MongoPersistentProperty>) property -> {
+                    var name = property.getFieldName();
+                    if (property.isIdProperty() || "ol".equals(name)) {
+                        return;
+                    }
+                    if (fields.get(name) == null) {
+                        update.unset(name);
+                    } else {
+                        update.set(name, fields.get(name));
+                    }
+                });
+        var updated = mongoOperations.findAndModify(
+                Query.query(Criteria.where("_id").is(pKey)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                PreferenceDocument.class
+        );
+        return Optional.ofNullable(updated).map(mapper::toDomain);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The document is not loaded but replaced with one single {@code findAndModify} command that is conditional on the version and
+     * returns the new state. Only if no document has been replaced, the existence of the document is checked to tell a missing document
+     * from a version conflict. Documents written without version match the version {@literal 0}.
+     */
+    @Override
+    public Optional<Preference> update(String pKey, Preference preference, long ol) {
+        var doc = mapper.toDocument(preference);
+        doc.setPKey(pKey);
+        doc.setLastModifiedDt(LocalDateTime.now());
+        doc.setOl(ol + 1);
+        var version = ol == 0
+                ? new Criteria().orOperator(Criteria.where("ol").is(0L), Criteria.where("ol").exists(false))
+                : Criteria.where("ol").is(ol);
+        var replaced = mongoOperations.findAndReplace(
+                Query.query(Criteria.where("_id").is(pKey)).addCriteria(version),
+                doc,
+                FindAndReplaceOptions.options().returnNew()
+        );
+        if (replaced == null) {
+            if (repository.existsById(pKey)) {
+                throw new OptimisticLockingFailureException(
+                        "Preference with pKey [%s] has been changed meanwhile, expected version [%d]".formatted(pKey, ol));
+            }
+            return Optional.empty();
+        }
+        return Optional.of(mapper.toDomain(replaced));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the existing Preferences with the same business keys are looked up with one query and all inserts and replacements are sent to the server with one
+     * ordered {@code bulkWrite}. Identifiers of new documents are assigned upfront so that the result can be built without reading back.
+     */
+    @Override
+    public List<PreferenceUpsertResult> upsertAll(List<Preference> preferences) {
+        var existing = new HashMap<PreferenceKey, PreferenceDocument>();
+        if (!preferences.isEmpty()) {
+            findDocumentsByBusinessKeys(preferences).forEach(doc -> existing.put(mapper.toDomain(doc).getPrefKey(), doc));
+        }
+        var created = new LinkedHashMap<String, PreferenceDocument>();
+        var updated = new LinkedHashMap<String, PreferenceDocument>();
+        var written = new ArrayList<Written>(preferences.size());
+        for (var preference : preferences) {
+            var doc = existing.get(preference.getPrefKey());
+            if (doc == null) {
+                if (preference.hasPersistentKey()) {
+                    written.add(new Written(preference, null, PreferenceUpsertResult.Status.REJECTED));
+                    continue;
+                }
+                doc = mapper.toDocument(preference);
+                doc.setPKey(new ObjectId().toHexString());
+                existing.put(preference.getPrefKey(), doc);
+                created.put(doc.getPKey(), doc);
+                written.add(new Written(preference, doc, PreferenceUpsertResult.Status.CREATED));
+            } else if (preference.hasPersistentKey() && !preference.getPersistentKey().equals(doc.getPKey())) {
+                written.add(new Written(preference, null, PreferenceUpsertResult.Status.REJECTED));
+            } else {
+                var id = doc.getPKey();
+                mapper.updateDocument(preference, doc);
+                doc.setPKey(id);
+                if (!created.containsKey(id)) {
+                    doc.setOl(doc.getOl() + 1);
+                    updated.put(id, doc);
+                }
+                written.add(new Written(preference, doc, PreferenceUpsertResult.Status.UPDATED));
+            }
+        }
+        if (!created.isEmpty() || !updated.isEmpty()) {
+            var now = LocalDateTime.now();
+            created.values().forEach(doc -> doc.setLastModifiedDt(now));
+            updated.values().forEach(doc -> doc.setLastModifiedDt(now));
+            var bulkOps = mongoOperations.bulkOps(BulkOperations.BulkMode.ORDERED, PreferenceDocument.class);
+            created.values().forEach(bulkOps::insert);
+            updated.values().forEach(doc -> bulkOps.replaceOne(Query.query(Criteria.where("_id").is(doc.getPKey())), doc));
+            bulkOps.execute();
+        }
+        return written.stream()
+                .map(w -> w.document() == null
+                        ? new PreferenceUpsertResult(w.preference(), w.status())
+                        : new PreferenceUpsertResult(mapper.toDomain(w.document()), w.status()))
+                .toList();
+    }
+
+    private record Written(Preference preference, PreferenceDocument document, PreferenceUpsertResult.Status status) {
+    }
+
     @Override
     public void delete(Preference preference) {
         if (preference.hasPersistentKey()) {
-            repository.deleteById(preference.getPersistentKey());
+            repository.findById(preference.getPersistentKey()).ifPresent(doc -> {
+                repository.delete(doc);
+                mongoOperations.insert(new PreferenceTombstoneDocument(doc.getPKey(), doc.getKey(), doc.getOwner(), doc.getScope(),
+                        LocalDateTime.now()));
+            });
         }
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Documents without modification time are only found if no watermark is given.
+     */
+    @Override
+    public List<Preference> findModifiedSince(LocalDateTime since, String owner, PropertyScope scope) {
+        var query = filter(since == null ? new Query() : Query.query(Criteria.where("lastModifiedDt").gte(since)), owner, scope);
+        return mapper.toDomainList(mongoOperations.find(query.with(Sort.by("lastModifiedDt", "_id")), PreferenceDocument.class));
+    }
+
+    @Override
+    public List<PreferenceTombstone> findDeletedSince(LocalDateTime since, String owner, PropertyScope scope) {
+        var query = filter(Query.query(Criteria.where("deletedDt").gte(since)), owner, scope);
+        return mongoOperations.find(query.with(Sort.by("deletedDt")), PreferenceTombstoneDocument.class).stream()
+                .map(t -> new PreferenceTombstone(t.getPKey(), t.getKey(), t.getOwner(), t.getScope(), t.getDeletedDt()))
+                .toList();
+    }
+
+    private static Query filter(Query query, String owner, PropertyScope scope) {
+        if (owner != null) {
+            query.addCriteria(Criteria.where("owner").is(owner));
+        }
+        if (scope != null) {
+            query.addCriteria(Criteria.where("scope").is(scope));
+        }
+        return query;
+    }
+
+    @Override
+    public void deleteTombstonesBefore(LocalDateTime before) {
+        mongoOperations.remove(Query.query(Criteria.where("deletedDt").lt(before)), PreferenceTombstoneDocument.class);
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.mongodb;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * An OutboxMessageDocument is the MongoDB document representation of an event in the transactional outbox.
+ *
+ * @author Heiko Scherrer
+ */
+@Document(collection = "cor_pref_outbox")
+public class OutboxMessageDocument implements Serializable {
+
+    @Id
+    private String id;
+
+    @Field("routingKey")
+    private String routingKey;
+
+    @Field("payload")
+    private String payload;
+
+    @Field("nodeId")
+    private String nodeId;
+
+    @Indexed
+    @Field("createdDt")
+    private LocalDateTime createdDt;
+
+    /** Until when the message is taken by a service node, {@literal null} if not taken. */
+    @Field("takenUntil")
+    private LocalDateTime takenUntil;
+
+    public OutboxMessageDocument() {
+    }
+
+    public OutboxMessageDocument(String routingKey, String payload, String nodeId, LocalDateTime createdDt) {
+        this.routingKey = routingKey;
+        this.payload = payload;
+        this.nodeId = nodeId;
+        this.createdDt = createdDt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public LocalDateTime getCreatedDt() {
+        return createdDt;
+    }
+
+    public LocalDateTime getTakenUntil() {
+        return takenUntil;
+    }
+}
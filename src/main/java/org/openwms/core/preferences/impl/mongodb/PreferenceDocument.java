@@ -19,6 +19,7 @@ import org.openwms.core.preferences.PreferenceType;
 import org.openwms.core.preferences.PropertyScope;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -32,7 +33,13 @@ import java.util.Objects;
  * @author Heiko Scherrer
  */
 @Document(collection = "cor_pref_preference")
-@CompoundIndex(name = "uc_preference", def = "{'key': 1, 'owner': 1}", unique = true)
+@CompoundIndexes({
+        @CompoundIndex(name = "uc_preference", def = "{'key': 1, 'owner': 1}", unique = true),
+        @CompoundIndex(name = "idx_pref_scope_owner_key", def = "{'scope': 1, 'owner': 1, 'key': 1}"),
+        @CompoundIndex(name = "idx_pref_scope_owner_group", def = "{'scope': 1, 'owner': 1, 'groupName': 1}"),
+        @CompoundIndex(name = "idx_pref_updated", def = "{'lastModifiedDt': 1}"),
+        @CompoundIndex(name = "idx_pref_owner_scope_updated", def = "{'owner': 1, 'scope': 1, 'lastModifiedDt': 1}")
+})
 public class PreferenceDocument implements Serializable {
 
     @Id
@@ -74,6 +81,10 @@ public class PreferenceDocument implements Serializable {
     @Field("lastModifiedDt")
     private LocalDateTime lastModifiedDt;
 
+    /** Version for optimistic locking, incremented with each replacement. Documents written before miss the field. */
+    @Field("ol")
+    private long ol;
+
     public PreferenceDocument() {
     }
 
@@ -181,6 +192,14 @@ public class PreferenceDocument implements Serializable {
         this.lastModifiedDt = lastModifiedDt;
     }
 
+    public long getOl() {
+        return ol;
+    }
+
+    public void setOl(long ol) {
+        this.ol = ol;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
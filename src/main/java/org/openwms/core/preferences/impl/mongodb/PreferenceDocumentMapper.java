@@ -38,7 +38,9 @@ public interface PreferenceDocumentMapper {
 
     List<Preference> toDomainList(List<PreferenceDocument> documents);
 
+    @Mapping(target = "ol", ignore = true)
     PreferenceDocument toDocument(Preference preference);
 
+    @Mapping(target = "ol", ignore = true)
     PreferenceDocument updateDocument(Preference preference, @MappingTarget PreferenceDocument document);
 }
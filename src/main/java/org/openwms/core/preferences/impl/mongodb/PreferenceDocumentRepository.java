@@ -18,7 +18,6 @@ package org.openwms.core.preferences.impl.mongodb;
 import org.openwms.core.preferences.PropertyScope;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -26,17 +25,19 @@ import java.util.Optional;
 /**
  * A PreferenceDocumentRepository is a Spring Data MongoDB repository that deals with {@link PreferenceDocument}s.
  *
+ * <p>A {@literal null} owner is queried as {@code {'owner': null}}, which matches documents without an owner and can be answered from the
+ * compound indexes of the {@link PreferenceDocument}.</p>
+ *
  * @author Heiko Scherrer
  */
 @Profile("MONGODB")
 interface PreferenceDocumentRepository extends MongoRepository<PreferenceDocument, String> {
 
-    @Query("{ '$or': [ { '$and': [ { 'owner': { '$exists': false } }, { '$expr': { '$eq': [ ?0, null ] } } ] }, { 'owner': ?0 } ], 'scope': ?1 }")
+    long countByScope(PropertyScope scope);
+
     List<PreferenceDocument> findByOwnerAndScope(String owner, PropertyScope scope);
 
-    @Query("{ '$or': [ { '$and': [ { 'owner': { '$exists': false } }, { '$expr': { '$eq': [ ?0, null ] } } ] }, { 'owner': ?0 } ], 'scope': ?1, 'key': ?2 }")
     Optional<PreferenceDocument> findByOwnerAndScopeAndKey(String owner, PropertyScope scope, String key);
 
-    @Query("{ '$or': [ { '$and': [ { 'owner': { '$exists': false } }, { '$expr': { '$eq': [ ?0, null ] } } ] }, { 'owner': ?0 } ], 'scope': ?1, 'groupName': ?2 }")
     List<PreferenceDocument> findByOwnerAndScopeAndGroupName(String owner, PropertyScope scope, String groupName);
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.mongodb;
+
+import org.openwms.core.preferences.PropertyScope;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A PreferenceTombstoneDocument is the MongoDB document representation of a deleted {@link PreferenceDocument}.
+ *
+ * @author Heiko Scherrer
+ */
+@Document(collection = "cor_pref_tombstone")
+@CompoundIndex(name = "idx_pref_tombstone_owner_scope_deleted", def = "{'owner': 1, 'scope': 1, 'deletedDt': 1}")
+public class PreferenceTombstoneDocument implements Serializable {
+
+    @Id
+    private String id;
+
+    @Field("pKey")
+    private String pKey;
+
+    @Field("key")
+    private String key;
+
+    @Field("owner")
+    private String owner;
+
+    @Field("scope")
+    private PropertyScope scope;
+
+    @Indexed
+    @Field("deletedDt")
+    private LocalDateTime deletedDt;
+
+    public PreferenceTombstoneDocument() {
+    }
+
+    public PreferenceTombstoneDocument(String pKey, String key, String owner, PropertyScope scope, LocalDateTime deletedDt) {
+        this.pKey = pKey;
+        this.key = key;
+        this.owner = owner;
+        this.scope = scope;
+        this.deletedDt = deletedDt;
+    }
+
+    public String getPKey() {
+        return pKey;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public PropertyScope getScope() {
+        return scope;
+    }
+
+    public LocalDateTime getDeletedDt() {
+        return deletedDt;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.mongodb;
+
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.impl.ReactivePreferencePersistencePort;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A ReactiveMongoPreferencePersistenceAdapter implements {@link ReactivePreferencePersistencePort} using the reactive MongoDB driver.
+ *
+ * @author Heiko Scherrer
+ */
+@Profile("MONGODB & REACTIVE")
+@Component
+class ReactiveMongoPreferencePersistenceAdapter implements ReactivePreferencePersistencePort {
+
+    private final ReactivePreferenceDocumentRepository repository;
+    private final PreferenceDocumentMapper mapper;
+
+    ReactiveMongoPreferencePersistenceAdapter(ReactivePreferenceDocumentRepository repository, PreferenceDocumentMapper mapper) {
+        this.repository = repository;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Flux<Preference> findAll() {
+        return repository.findAll().map(mapper::toDomain);
+    }
+
+    @Override
+    public Mono<Preference> findBypKey(String pKey) {
+        return repository.findById(pKey).map(mapper::toDomain);
+    }
+
+    @Override
+    public Flux<Preference> findByOwnerAndScope(String owner, PropertyScope scope) {
+        return repository.findByOwnerAndScope(owner, scope).map(mapper::toDomain);
+    }
+
+    @Override
+    public Mono<Preference> findByOwnerAndScopeAndKey(String owner, PropertyScope scope, String key) {
+        return repository.findByOwnerAndScopeAndKey(owner, scope, key).map(mapper::toDomain);
+    }
+
+    @Override
+    public Flux<Preference> findByOwnerAndScopeAndGroupName(String owner, PropertyScope scope, String groupName) {
+        return repository.findByOwnerAndScopeAndGroupName(owner, scope, groupName).map(mapper::toDomain);
+    }
+}
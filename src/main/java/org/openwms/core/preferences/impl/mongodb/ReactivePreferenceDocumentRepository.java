@@ -0,0 +1,38 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.mongodb;
+
+import org.openwms.core.preferences.PropertyScope;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A ReactivePreferenceDocumentRepository is a reactive Spring Data MongoDB repository that deals with {@link PreferenceDocument}s. A
+ * {@literal null} owner is queried like in the {@link PreferenceDocumentRepository}.
+ *
+ * @author Heiko Scherrer
+ */
+@Profile("MONGODB & REACTIVE")
+interface ReactivePreferenceDocumentRepository extends ReactiveMongoRepository<PreferenceDocument, String> {
+
+    Flux<PreferenceDocument> findByOwnerAndScope(String owner, PropertyScope scope);
+
+    Mono<PreferenceDocument> findByOwnerAndScopeAndKey(String owner, PropertyScope scope, String key);
+
+    Flux<PreferenceDocument> findByOwnerAndScopeAndGroupName(String owner, PropertyScope scope, String groupName);
+}
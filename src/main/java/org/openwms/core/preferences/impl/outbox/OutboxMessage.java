@@ -0,0 +1,31 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * An OutboxMessage is an event waiting in the outbox to be published to the broker.
+ *
+ * @param id The identifier within the outbox
+ * @param routingKey The routing key to publish the message with
+ * @param payload The JSON serialized message
+ * @param nodeId The id of the service node that has written the message
+ * @param createdDt When the message has been written
+ * @author Heiko Scherrer
+ */
+public record OutboxMessage(String id, String routingKey, String payload, String nodeId, LocalDateTime createdDt) {
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.outbox;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An OutboxPort defines the operations on the transactional outbox, implemented by each persistence backend.
+ *
+ * @author Heiko Scherrer
+ */
+public interface OutboxPort {
+
+    /**
+     * Append a message to the outbox, within the current transaction if one exists.
+     *
+     * @param routingKey The routing key to publish the message with
+     * @param payload The JSON serialized message
+     * @param nodeId The id of the service node that writes the message
+     */
+    void append(String routingKey, String payload, String nodeId);
+
+    /**
+     * Take the oldest messages of the outbox that are not taken by another service node at the same time.
+     *
+     * @param limit The maximum number of messages to take
+     * @return The messages in the order they have been written, never {@literal null}
+     */
+    List<OutboxMessage> takeNextBatch(int limit);
+
+    /**
+     * Remove published messages from the outbox.
+     *
+     * @param ids The identifiers of the published messages
+     */
+    void delete(Collection<String> ids);
+
+    /**
+     * Find when the oldest message of the outbox has been written.
+     *
+     * @return The creation time of the oldest message, or an empty Optional if the outbox is empty
+     */
+    Optional<LocalDateTime> findOldestCreatedDt();
+}
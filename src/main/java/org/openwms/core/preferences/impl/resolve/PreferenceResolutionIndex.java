@@ -0,0 +1,253 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.resolve;
+
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceUpsertResult;
+import org.openwms.core.preferences.PreferencesBulkEvent;
+import org.openwms.core.preferences.PreferencesEvent;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.impl.PreferencePersistencePort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A PreferenceResolutionIndex keeps all {@link Preference}s in memory, grouped by their key, to resolve the effective Preference of a key
+ * in one lookup. The effective Preference is the first one that exists in the order {@code USER}, {@code ROLE} (in the given order of
+ * roles), {@code MODULE} and {@code APPLICATION}.
+ *
+ * <p>The index is loaded from the persistent store on first use and afterwards maintained incrementally from the
+ * {@link PreferencesEvent}s and {@link PreferencesBulkEvent}s of committed transactions and the Preference changes of other nodes.
+ * Alternatively it can be loaded from a snapshot of formerly indexed Preferences that is brought up to date with the changes since.</p>
+ *
+ * <p>Changes are serialized with a {@link ReentrantLock} rather than a monitor, because the initial load queries the persistent store
+ * while holding it and must not pin the carrier of a virtual thread.</p>
+ *
+ * @author Heiko Scherrer
+ */
+@Component
+public class PreferenceResolutionIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferenceResolutionIndex.class);
+    private final PreferencePersistencePort persistencePort;
+    /** The Preferences of a key by scope and owner, each inner Map is immutable and replaced on change. */
+    private final Map<String, Map<Slot, Preference>> byKey = new ConcurrentHashMap<>();
+    /** The key of each indexed Preference by its persistent key, to find former entries of a changed Preference. */
+    private final Map<String, String> keyByPKey = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    PreferenceResolutionIndex(PreferencePersistencePort persistencePort) {
+        this.persistencePort = persistencePort;
+    }
+
+    /**
+     * Resolve the effective {@link Preference} of the given {@code key}.
+     *
+     * @param key The Preference key
+     * @param user The name of the User, or {@literal null} to skip the {@code USER} scope
+     * @param roles The names of the Roles of the User in the order of precedence, may be empty
+     * @param module The name of the Module, or {@literal null} to skip the {@code MODULE} scope
+     * @return The effective Preference, or an empty Optional if no Preference with that key exists in any of the scopes
+     */
+    public Optional<Preference> resolve(String key, String user, List<String> roles, String module) {
+        ensureLoaded();
+        var candidates = byKey.get(key);
+        if (candidates == null) {
+            return Optional.empty();
+        }
+        var slots = new ArrayList<Slot>(roles.size() + 3);
+        if (user != null) {
+            slots.add(new Slot(PropertyScope.USER, user));
+        }
+        roles.forEach(role -> slots.add(new Slot(PropertyScope.ROLE, role)));
+        if (module != null) {
+            slots.add(new Slot(PropertyScope.MODULE, module));
+        }
+        slots.add(new Slot(PropertyScope.APPLICATION, null));
+        return slots.stream().map(candidates::get).filter(Objects::nonNull).findFirst();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            lock.lock();
+            try {
+                if (!loaded) {
+                    var preferences = persistencePort.findAll();
+                    preferences.forEach(this::putInternal);
+                    loaded = true;
+                    LOGGER.debug("Loaded [{}] Preferences into the resolution index", preferences.size());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Load the index from a snapshot of formerly indexed {@link Preference}s instead of reading all Preferences from the persistent store.
+     * Only the Preferences that have been created, modified or deleted at or after the {@code watermark} of the snapshot are read to bring
+     * it up to date.
+     *
+     * @param preferences The Preferences of the snapshot
+     * @param watermark The point in time up to that all changes are contained in the snapshot
+     * @return {@literal true} if the index has been loaded, {@literal false} if it had already been loaded before
+     */
+    public boolean loadFrom(Collection<Preference> preferences, LocalDateTime watermark) {
+        lock.lock();
+        try {
+            if (loaded) {
+                return false;
+            }
+            preferences.forEach(this::putInternal);
+            var modified = persistencePort.findModifiedSince(watermark, null, null);
+            modified.forEach(this::putInternal);
+            var deleted = persistencePort.findDeletedSince(watermark, null, null);
+            deleted.forEach(tombstone -> removeInternal(tombstone.pKey()));
+            loaded = true;
+            LOGGER.debug("Loaded [{}] Preferences from a snapshot into the resolution index, [{}] modified and [{}] deleted since",
+                    preferences.size(), modified.size(), deleted.size());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get all indexed {@link Preference}s, e.g. to take a snapshot of the index.
+     *
+     * @return The Preferences, an empty list as long as the index has not been loaded
+     */
+    public List<Preference> indexed() {
+        if (!loaded) {
+            return List.of();
+        }
+        return byKey.values().stream().flatMap(slots -> slots.values().stream()).toList();
+    }
+
+    /**
+     * Apply a committed change of a single {@link Preference}.
+     *
+     * @param event Signals the created, updated or deleted Preference
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEvent(PreferencesEvent event) {
+        if (event.getType() == PreferencesEvent.Type.DELETED) {
+            remove(event.getSource().getPersistentKey());
+        } else {
+            put(event.getSource());
+        }
+    }
+
+    /**
+     * Apply a committed batch of created and updated {@link Preference}s.
+     *
+     * @param event Signals the created and updated Preferences
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBulkEvent(PreferencesBulkEvent event) {
+        event.getPreferences(PreferenceUpsertResult.Status.CREATED).forEach(this::put);
+        event.getPreferences(PreferenceUpsertResult.Status.UPDATED).forEach(this::put);
+    }
+
+    /**
+     * Add the {@code preference} to the index or replace its former state. Ignored as long as the index has not been loaded, because the
+     * load reads the current state anyway.
+     *
+     * @param preference The created or updated Preference
+     */
+    public void put(Preference preference) {
+        lock.lock();
+        try {
+            if (loaded && preference.hasPersistentKey()) {
+                putInternal(preference);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void putInternal(Preference preference) {
+        removeInternal(preference.getPersistentKey());
+        var slot = new Slot(preference.getScope(), preference.getScope() == PropertyScope.APPLICATION ? null : preference.getOwner());
+        byKey.compute(preference.getKey(), (key, slots) -> {
+            var result = slots == null ? new HashMap<Slot, Preference>() : new HashMap<>(slots);
+            result.put(slot, preference);
+            return Map.copyOf(result);
+        });
+        keyByPKey.put(preference.getPersistentKey(), preference.getKey());
+    }
+
+    /**
+     * Remove the {@link Preference} with the persistent key {@code pKey} from the index.
+     *
+     * @param pKey The persistent key of the deleted Preference
+     */
+    public void remove(String pKey) {
+        lock.lock();
+        try {
+            if (loaded) {
+                removeInternal(pKey);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeInternal(String pKey) {
+        var key = keyByPKey.remove(pKey);
+        if (key == null) {
+            return;
+        }
+        byKey.computeIfPresent(key, (k, slots) -> {
+            var result = new HashMap<>(slots);
+            result.values().removeIf(p -> pKey.equals(p.getPersistentKey()));
+            return result.isEmpty() ? null : Map.copyOf(result);
+        });
+    }
+
+    /**
+     * Drop the whole index, it is loaded again on next use.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            byKey.clear();
+            keyByPKey.clear();
+            loaded = false;
+        } finally {
+            lock.unlock();
+        }
+        LOGGER.debug("Cleared the resolution index");
+    }
+
+    private record Slot(PropertyScope scope, String owner) {
+    }
+}
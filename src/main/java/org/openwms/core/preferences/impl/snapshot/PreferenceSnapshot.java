@@ -0,0 +1,35 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.snapshot;
+
+import org.openwms.core.preferences.Preference;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A PreferenceSnapshot is the state of all {@link Preference}s at a point in time.
+ *
+ * @param watermark All changes before this point in time are contained in the snapshot
+ * @param preferences The Preferences
+ * @author Heiko Scherrer
+ */
+record PreferenceSnapshot(LocalDateTime watermark, List<Preference> preferences) {
+
+    PreferenceSnapshot {
+        preferences = List.copyOf(preferences);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.snapshot;
+
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceType;
+import org.openwms.core.preferences.PropertyScope;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * A PreferenceSnapshotFile writes and reads a {@link PreferenceSnapshot} in a compact binary format. The file consists of
+ * <ul>
+ *     <li>a header with a magic number, the format version, the watermark, the number of records and strings and a CRC32C checksum of
+ *     all following bytes,</li>
+ *     <li>one fixed-width record per Preference, that refers to its attribute values by their index in the string table and</li>
+ *     <li>a string table with each distinct value once, as length-prefixed UTF-8.</li>
+ * </ul>
+ * The file is read memory-mapped. It is written to a temporary file that replaces the former one at once, so a node that stops while
+ * writing leaves the former snapshot intact.
+ *
+ * @author Heiko Scherrer
+ */
+final class PreferenceSnapshotFile {
+
+    private static final int MAGIC = 0x4F575053;
+    static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 64;
+    private static final int NULL = -1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private PreferenceSnapshotFile() {
+    }
+
+    /**
+     * Write the {@code snapshot} to the {@code file}.
+     *
+     * @param file The file to write, replaced if it exists
+     * @param snapshot The snapshot to write
+     * @throws IOException If writing fails
+     */
+    static void write(Path file, PreferenceSnapshot snapshot) throws IOException {
+        var strings = new StringTable();
+        var records = ByteBuffer.allocate(snapshot.preferences().size() * RECORD_SIZE);
+        for (var pref : snapshot.preferences()) {
+            records.putInt(strings.indexOf(pref.getPersistentKey()))
+                    .putInt(strings.indexOf(pref.getKey()))
+                    .putInt(strings.indexOf(pref.getOwner()))
+                    .putInt(strings.indexOf(pref.getDescription()))
+                    .putInt(strings.indexOf(pref.getVal()))
+                    .putInt(strings.indexOf(pref.getDefValue()))
+                    .putInt(strings.indexOf(pref.getMinValue()))
+                    .putInt(strings.indexOf(pref.getMaxValue()))
+                    .putInt(strings.indexOf(pref.getGroupName()))
+                    .putInt(strings.indexOf(pref.getScope() == null ? null : pref.getScope().name()))
+                    .putInt(strings.indexOf(pref.getType() == null ? null : pref.getType().name()))
+                    .putInt(pref.isFromFile() ? 1 : 0)
+                    .putLong(toEpochMilli(pref.getLastModifiedDt()))
+                    .putLong(pref.getOl());
+        }
+        records.flip();
+        var table = strings.encode();
+        var checksum = new CRC32C();
+        checksum.update(records.duplicate());
+        checksum.update(table.duplicate());
+        var header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(toEpochMilli(snapshot.watermark()))
+                .putInt(snapshot.preferences().size())
+                .putInt(strings.size())
+                .putLong(checksum.getValue())
+                .flip();
+        var tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (var channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                var buffers = new ByteBuffer[]{header, records, table};
+                var remaining = (long) header.remaining() + records.remaining() + table.remaining();
+                while (remaining > 0) {
+                    remaining -= channel.write(buffers);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Read the snapshot from the {@code file}.
+     *
+     * @param file The file to read
+     * @return The snapshot
+     * @throws IOException If reading fails or the file is not a valid snapshot of the current format version
+     */
+    static PreferenceSnapshot read(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Snapshot is truncated");
+            }
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("File is not a Preferences snapshot");
+            }
+            var version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Snapshot has format version [%d] instead of [%d]".formatted(version, FORMAT_VERSION));
+            }
+            var watermark = toLocalDateTime(buffer.getLong());
+            var recordCount = buffer.getInt();
+            var stringCount = buffer.getInt();
+            var expected = buffer.getLong();
+            var checksum = new CRC32C();
+            checksum.update(buffer.slice(HEADER_SIZE, (int) size - HEADER_SIZE));
+            if (checksum.getValue() != expected) {
+                throw new IOException("Snapshot checksum does not match");
+            }
+            var records = buffer.slice(HEADER_SIZE, recordCount * RECORD_SIZE);
+            var strings = decode(buffer.slice(HEADER_SIZE + recordCount * RECORD_SIZE, (int) size - HEADER_SIZE
+                    - recordCount * RECORD_SIZE), stringCount);
+            var preferences = new ArrayList<Preference>(recordCount);
+            for (var i = 0; i < recordCount; i++) {
+                preferences.add(Preference.newBuilder()
+                        .pKey(string(strings, records.getInt()))
+                        .key(string(strings, records.getInt()))
+                        .owner(string(strings, records.getInt()))
+                        .description(string(strings, records.getInt()))
+                        .val(string(strings, records.getInt()))
+                        .defValue(string(strings, records.getInt()))
+                        .minValue(string(strings, records.getInt()))
+                        .maxValue(string(strings, records.getInt()))
+                        .groupName(string(strings, records.getInt()))
+                        .scope(constant(PropertyScope.class, string(strings, records.getInt())))
+                        .type(constant(PreferenceType.class, string(strings, records.getInt())))
+                        .fromFile(records.getInt() == 1)
+                        .lastModifiedDt(toLocalDateTime(records.getLong()))
+                        .ol(records.getLong())
+                        .build());
+            }
+            return new PreferenceSnapshot(watermark, preferences);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Snapshot is corrupt", e);
+        }
+    }
+
+    private static String[] decode(ByteBuffer table, int count) {
+        var strings = new String[count];
+        for (var i = 0; i < count; i++) {
+            var bytes = new byte[table.getInt()];
+            table.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    private static String string(String[] strings, int index) {
+        return index == NULL ? null : strings[index];
+    }
+
+    private static <T extends Enum<T>> T constant(Class<T> type, String name) {
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime == null ? NO_DATE : dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMilli) {
+        return epochMilli == NO_DATE ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneOffset.UTC);
+    }
+
+    /**
+     * Assigns each distinct string an index, so that repeated keys, owners and values are stored once.
+     */
+    private static final class StringTable {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> encoded = new ArrayList<>();
+        private int byteSize;
+
+        int indexOf(String value) {
+            if (value == null) {
+                return NULL;
+            }
+            return indexes.computeIfAbsent(value, v -> {
+                var bytes = v.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                byteSize += Integer.BYTES + bytes.length;
+                return encoded.size() - 1;
+            });
+        }
+
+        int size() {
+            return encoded.size();
+        }
+
+        ByteBuffer encode() {
+            var buffer = ByteBuffer.allocate(byteSize);
+            encoded.forEach(bytes -> buffer.putInt(bytes.length).put(bytes));
+            return buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.snapshot;
+
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.openwms.core.preferences.impl.resolve.PreferenceResolutionIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A PreferenceSnapshotManager loads the {@link PreferenceResolutionIndex} from a {@link PreferenceSnapshotFile} on startup and writes the
+ * index to that file periodically and on shutdown. Only active if {@literal owms.preferences.snapshot.enabled} is set to {@literal true}.
+ *
+ * <p>A snapshot is only used if its checksum and format version match and its watermark is younger than the retention of tombstones,
+ * otherwise deletions since the snapshot could be missed. The index is then brought up to date with the Preferences modified and deleted
+ * since the watermark. An invalid or outdated snapshot is ignored and the index is loaded from the persistent store on first use.</p>
+ *
+ * @author Heiko Scherrer
+ */
+@ConditionalOnProperty(prefix = "owms.preferences.snapshot", name = "enabled", havingValue = "true")
+@Component
+class PreferenceSnapshotManager implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferenceSnapshotManager.class);
+    private final PreferenceResolutionIndex index;
+    private final Path file;
+    private final Duration interval;
+    private final PreferencesProperties.Changes changes;
+    private ScheduledExecutorService executor;
+
+    PreferenceSnapshotManager(PreferenceResolutionIndex index, PreferencesProperties properties) {
+        this.index = index;
+        this.file = Path.of(properties.getSnapshot().getFile());
+        this.interval = properties.getSnapshot().getInterval();
+        this.changes = properties.getChanges();
+    }
+
+    /**
+     * Load the index from the snapshot file, if it exists and is still valid.
+     */
+    void load() {
+        if (!Files.exists(file)) {
+            LOGGER.info("No Preferences snapshot [{}] exists, the resolution index is loaded from the persistent store", file);
+            return;
+        }
+        var start = System.nanoTime();
+        try {
+            var snapshot = PreferenceSnapshotFile.read(file);
+            if (snapshot.watermark().isBefore(LocalDateTime.now().minus(changes.getTombstoneRetention()))) {
+                LOGGER.info("Preferences snapshot [{}] of [{}] is older than the retained tombstones and is ignored", file,
+                        snapshot.watermark());
+                return;
+            }
+            if (index.loadFrom(snapshot.preferences(), snapshot.watermark())) {
+                LOGGER.info("Loaded [{}] Preferences from snapshot [{}] in [{}] ms", snapshot.preferences().size(), file,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Preferences snapshot [{}] cannot be used and is ignored: [{}]", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Write the index to the snapshot file, if it has been loaded. The watermark lags behind by the safety window, so that changes of
+     * transactions that commit late are read again when the snapshot is loaded.
+     */
+    void write() {
+        var watermark = LocalDateTime.now().minus(changes.getSafetyWindow());
+        var preferences = index.indexed();
+        if (preferences.isEmpty()) {
+            return;
+        }
+        try {
+            PreferenceSnapshotFile.write(file, new PreferenceSnapshot(watermark, preferences));
+            LOGGER.debug("Wrote [{}] Preferences to snapshot [{}]", preferences.size(), file);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Writing the Preferences snapshot [{}] failed: [{}]", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        load();
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("preferences-snapshot").daemon().factory());
+        var millis = interval.toMillis();
+        executor.scheduleWithFixedDelay(this::write, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdown();
+        executor = null;
+        write();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
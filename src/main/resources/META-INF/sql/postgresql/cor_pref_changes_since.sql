@@ -0,0 +1,7 @@
+-- Prepares existing PostgreSQL installations for the delta synchronization with the changes endpoint. The modification time C_UPDATED
+-- is set on insert since, rows created before get their creation time, so that the changes since a watermark are a plain range on
+-- C_UPDATED. The indexes serve the changes without filter and the changes of one owner, the tombstone table is created by Hibernate.
+UPDATE cor_pref_preference SET c_updated = c_created WHERE c_updated IS NULL;
+CREATE INDEX IF NOT EXISTS idx_pref_updated ON cor_pref_preference (c_updated);
+CREATE INDEX IF NOT EXISTS idx_pref_owner_scope_updated ON cor_pref_preference (c_owner, c_scope, c_updated);
+CREATE INDEX IF NOT EXISTS idx_pref_tombstone_owner_scope_deleted ON cor_pref_tombstone (c_owner, c_scope, c_deleted);
@@ -0,0 +1,6 @@
+-- Migrates the id sequence of COR_PREF_PREFERENCE from allocation size 1 to pooled id allocation on existing PostgreSQL installations.
+-- The increment should match the property owms.preferences.id-increment-size (default 50), a different increment is accepted as well,
+-- because the generator of the Preferences adjusts its allocation size to the increment of the database sequence at startup.
+-- The sequence is restarted above the highest assigned primary key so that no id is handed out twice.
+ALTER SEQUENCE cor_pref_seq INCREMENT BY 50;
+SELECT setval('cor_pref_seq', (SELECT COALESCE(MAX(c_pk), 0) + 1 FROM cor_pref_preference), false);
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.api.messages.PreferenceMO;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.openwms.core.preferences.PreferenceChangeBroadcaster.EVENT_CHANGED;
+import static org.openwms.core.preferences.PreferenceChangeBroadcaster.EVENT_CREATED;
+import static org.openwms.core.preferences.PreferenceChangeBroadcaster.EVENT_OVERFLOW;
+
+/**
+ * A PreferenceChangeBroadcasterTest.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferenceChangeBroadcasterTest {
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private PreferenceChangeBroadcaster testee;
+
+    @BeforeEach
+    void onSetup() {
+        var properties = new PreferencesProperties();
+        properties.getStream().setBufferSize(1);
+        properties.getStream().setHeartbeat(Duration.ofMinutes(1));
+        testee = new PreferenceChangeBroadcaster(mock(PreferenceVOMapper.class), properties) {
+            @Override
+            SseEmitter newEmitter() {
+                var emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    void onTearDown() {
+        emitters.forEach(e -> e.release.countDown());
+    }
+
+    @Test
+    void shall_send_overflow_and_disconnect_a_slow_subscriber() throws Exception {
+        testee.subscribe(null, null, null);
+        var emitter = emitters.getFirst();
+        emitter.blockSending();
+
+        testee.broadcast(EVENT_CREATED, preference("1", null, PropertyScope.APPLICATION, "GLOBAL"));
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        testee.broadcast(EVENT_CHANGED, preference("2", null, PropertyScope.APPLICATION, "GLOBAL"));
+        testee.broadcast(EVENT_CHANGED, preference("3", null, PropertyScope.APPLICATION, "GLOBAL"));
+        emitter.release.countDown();
+
+        assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.events).containsExactly(EVENT_CREATED + ":1", EVENT_OVERFLOW);
+        awaitSubscriberCount(0);
+    }
+
+    @Test
+    void shall_filter_by_owner() throws Exception {
+        testee.subscribe("owner1", null, null);
+
+        testee.broadcast(EVENT_CHANGED, preference("1", "owner2", PropertyScope.USER, "GLOBAL"));
+        testee.broadcast(EVENT_CHANGED, preference("2", "owner1", PropertyScope.USER, "GLOBAL"));
+
+        assertThat(emitters.getFirst().next()).isEqualTo(EVENT_CHANGED + ":2");
+    }
+
+    @Test
+    void shall_filter_by_scope() throws Exception {
+        testee.subscribe(null, PropertyScope.ROLE, null);
+
+        testee.broadcast(EVENT_CHANGED, preference("1", "role1", PropertyScope.USER, "GLOBAL"));
+        testee.broadcast(EVENT_CHANGED, preference("2", "role1", PropertyScope.ROLE, "GLOBAL"));
+
+        assertThat(emitters.getFirst().next()).isEqualTo(EVENT_CHANGED + ":2");
+    }
+
+    @Test
+    void shall_filter_by_group_name() throws Exception {
+        testee.subscribe(null, null, "UI");
+
+        testee.broadcast(EVENT_CHANGED, preference("1", null, PropertyScope.APPLICATION, "GLOBAL"));
+        testee.broadcast(EVENT_CHANGED, preference("2", null, PropertyScope.APPLICATION, "UI"));
+
+        assertThat(emitters.getFirst().next()).isEqualTo(EVENT_CHANGED + ":2");
+    }
+
+    @Test
+    void shall_send_to_all_matching_subscribers() throws Exception {
+        testee.subscribe("owner1", PropertyScope.USER, "GLOBAL");
+        testee.subscribe("owner2", null, null);
+        testee.subscribe(null, null, null);
+        assertThat(testee.getSubscriberCount()).isEqualTo(3);
+
+        testee.broadcast(EVENT_CHANGED, preference("1", "owner1", PropertyScope.USER, "GLOBAL"));
+        testee.broadcast(EVENT_CHANGED, preference("2", "owner2", PropertyScope.USER, "GLOBAL"));
+        testee.broadcast(EVENT_CHANGED, preference("3", null, PropertyScope.APPLICATION, "GLOBAL"));
+
+        assertThat(emitters.get(0).next()).isEqualTo(EVENT_CHANGED + ":1");
+        assertThat(emitters.get(1).next()).isEqualTo(EVENT_CHANGED + ":2");
+        assertThat(emitters.get(2).next()).isEqualTo(EVENT_CHANGED + ":3");
+        assertThat(emitters.get(0).events.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(emitters.get(1).events.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void shall_not_send_user_preferences_without_owner() throws Exception {
+        testee.subscribe(null, null, null);
+        testee.subscribe(null, null, "GLOBAL");
+
+        testee.broadcast(EVENT_CHANGED, preference("1", "owner1", PropertyScope.USER, "GLOBAL"));
+        testee.broadcast(EVENT_CHANGED, preference("2", "role1", PropertyScope.ROLE, "GLOBAL"));
+
+        assertThat(emitters.get(0).next()).isEqualTo(EVENT_CHANGED + ":2");
+        assertThat(emitters.get(1).next()).isEqualTo(EVENT_CHANGED + ":2");
+    }
+
+    private void awaitSubscriberCount(int expected) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (testee.getSubscriberCount() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(testee.getSubscriberCount()).isEqualTo(expected);
+    }
+
+    private static PreferenceMO preference(String pKey, String owner, PropertyScope scope, String groupName) {
+        var mo = new PreferenceMO("key" + pKey);
+        mo.setpKey(pKey);
+        mo.setOwner(owner);
+        mo.setScope(scope.name());
+        mo.setGroupName(groupName);
+        return mo;
+    }
+
+    /**
+     * Records the names of sent events, a notification is recorded with the persistent key of the Preference it carries.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile CountDownLatch release = new CountDownLatch(0);
+
+        void blockSending() {
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            var data = builder.build().stream().map(ResponseBodyEmitter.DataWithMediaType::getData).toList();
+            if (data.stream().noneMatch(d -> d instanceof String s && s.startsWith(":"))) {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                events.add(data.stream()
+                        .filter(PreferenceMO.class::isInstance)
+                        .map(d -> ((PreferenceMO) d).getpKey())
+                        .findFirst()
+                        .map(pKey -> eventName(data) + ":" + pKey)
+                        .orElseGet(() -> eventName(data)));
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        String next() throws InterruptedException {
+            return events.poll(5, TimeUnit.SECONDS);
+        }
+
+        private static String eventName(List<Object> data) {
+            var text = String.valueOf(data.getFirst());
+            var start = text.indexOf("event:") + "event:".length();
+            return text.substring(start, text.indexOf('\n', start));
+        }
+    }
+}
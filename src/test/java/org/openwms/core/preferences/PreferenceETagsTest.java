@@ -0,0 +1,78 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A PreferenceETagsTest.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferenceETagsTest {
+
+    private static Preference preference(String val, String description) {
+        return Preference.newBuilder()
+                .pKey("4711")
+                .key("key1")
+                .owner("owner1")
+                .scope(PropertyScope.USER)
+                .type(PreferenceType.STRING)
+                .val(val)
+                .description(description)
+                .build();
+    }
+
+    @Test
+    void shall_tag_equal_content_equally() {
+        assertThat(PreferenceETags.of(preference("Aa", null))).isEqualTo(PreferenceETags.of(preference("Aa", null)));
+    }
+
+    @Test
+    void shall_tag_content_with_equal_hash_codes_differently() {
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        assertThat(PreferenceETags.of(preference("Aa", null))).isNotEqualTo(PreferenceETags.of(preference("BB", null)));
+        assertThat(PreferenceETags.of(List.of(preference("Aa", null)))).isNotEqualTo(PreferenceETags.of(List.of(preference("BB", null))));
+    }
+
+    @Test
+    void shall_tag_missing_and_empty_fields_differently() {
+        assertThat(PreferenceETags.of(preference("", null))).isNotEqualTo(PreferenceETags.of(preference(null, "")));
+        assertThat(PreferenceETags.of(preference(null, null))).isNotEqualTo(PreferenceETags.of(preference("", null)));
+    }
+
+    @Test
+    void shall_read_the_version_from_the_tag() {
+        var preference = preference("Aa", null);
+        preference.setOl(42);
+
+        assertThat(PreferenceETags.versionOf("\"" + PreferenceETags.of(preference) + "\"")).isEqualTo(42);
+        assertThat(PreferenceETags.versionOf("W/\"" + PreferenceETags.of(preference) + "\"")).isEqualTo(42);
+        assertThat(PreferenceETags.versionOf("\"garbage\"")).isEqualTo(-1);
+    }
+
+    @Test
+    void shall_not_read_an_unknown_version_from_the_tag() {
+        var preference = preference("Aa", null);
+        preference.setOl(Preference.UNKNOWN_VERSION);
+
+        assertThat(PreferenceETags.versionOf(PreferenceETags.of(preference))).isEqualTo(-1);
+    }
+}
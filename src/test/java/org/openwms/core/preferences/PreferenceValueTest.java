@@ -0,0 +1,76 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A PreferenceValueTest.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferenceValueTest {
+
+    @Test
+    void shall_parse_according_to_type() {
+        assertThat(PreferenceValue.parse(PreferenceType.INT, " 42 ")).isEqualTo(new PreferenceValue.IntValue(42));
+        assertThat(PreferenceValue.parse(PreferenceType.FLOAT, "1.5")).isEqualTo(new PreferenceValue.FloatValue(1.5f));
+        assertThat(PreferenceValue.parse(PreferenceType.BOOL, "TRUE")).isEqualTo(new PreferenceValue.BoolValue(true));
+        assertThat(PreferenceValue.parse(PreferenceType.STRING, "abc")).isEqualTo(new PreferenceValue.StringValue("abc"));
+        assertThat(PreferenceValue.parse(PreferenceType.JSON, "{\"a\":1}").get().toString()).isEqualTo("{\"a\":1}");
+    }
+
+    @Test
+    void shall_fail_with_invalid_values() {
+        assertThatThrownBy(() -> PreferenceValue.parse(PreferenceType.INT, "abc")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PreferenceValue.parse(PreferenceType.BOOL, "yes")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PreferenceValue.parse(PreferenceType.JSON, "{")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shall_check_range() {
+        var value = PreferenceValue.parse(PreferenceType.INT, "5");
+        value.checkRange("1", "10");
+        value.checkRange(null, null);
+        assertThatThrownBy(() -> value.checkRange("6", null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> value.checkRange(null, "4")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shall_parse_once_and_reset_on_change() {
+        var preference = Preference.newBuilder().type(PreferenceType.INT).val("1").build();
+        var parsed = preference.getTypedVal();
+        assertThat(preference.getTypedVal()).isSameAs(parsed);
+        preference.setVal("2");
+        assertThat(preference.getTypedVal()).isEqualTo(new PreferenceValue.IntValue(2));
+    }
+
+    @Test
+    void shall_adopt_the_parsed_value_of_the_same_value_only() {
+        var validated = Preference.newBuilder().type(PreferenceType.INT).val("42").build();
+        validated.validateVal();
+        var saved = Preference.newBuilder().type(PreferenceType.INT).val("42").build();
+        saved.adoptTypedVal(validated);
+        assertThat(saved.getTypedVal()).isSameAs(validated.getTypedVal());
+
+        var changed = Preference.newBuilder().type(PreferenceType.INT).val("43").build();
+        changed.adoptTypedVal(validated);
+        assertThat(changed.getTypedVal()).isEqualTo(new PreferenceValue.IntValue(43));
+    }
+}
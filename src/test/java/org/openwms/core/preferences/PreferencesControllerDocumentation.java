@@ -20,32 +20,45 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openwms.core.preferences.api.ApplicationPreferenceVO;
 import org.openwms.core.preferences.api.ModulePreferenceVO;
+import org.openwms.core.preferences.api.PreferenceKeyVO;
 import org.openwms.core.preferences.api.PreferenceVO;
 import org.openwms.core.preferences.api.PreferencesApi;
 import org.openwms.core.preferences.api.RolePreferenceVO;
 import org.openwms.core.preferences.api.UserPreferenceVO;
+import org.openwms.core.preferences.impl.resolve.PreferenceResolutionIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.restdocs.RestDocumentationContextProvider;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlMergeMode;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
 import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessResponse;
 import static org.springframework.restdocs.operation.preprocess.Preprocessors.prettyPrint;
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
 import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -58,8 +71,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Sql(scripts = "classpath:delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
 class PreferencesControllerDocumentation extends DefaultTestProfile {
 
+    /** An INT Preference with a stored value that cannot be parsed, e.g. written by a former version. */
+    private static final String INVALID_INT = "insert into COR_PREF_PREFERENCE (c_pk, c_pid, c_ol, c_created, c_updated, c_key, c_owner, "
+            + "c_description, c_from_file, c_scope, c_current_value, c_group_name, c_type) values (1005, '1005', 0, now(), now(), 'keyInt', "
+            + "null, 'An Integer', false, 'APPLICATION', 'abc', 'GLOBAL', 'java.lang.Integer')";
     @Autowired
     private WebApplicationContext context;
+    @Autowired
+    private PreferenceResolutionIndex resolutionIndex;
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -76,9 +95,19 @@ class PreferencesControllerDocumentation extends DefaultTestProfile {
                 .andExpect(status().isOk())
                 .andDo(document("prefs-index", preprocessResponse(prettyPrint())))
                 .andExpect(jsonPath("$._links.preferences-findall").exists())
+                .andExpect(jsonPath("$._links.preferences-findpage").exists())
+                .andExpect(jsonPath("$._links.preferences-findallafter").exists())
+                .andExpect(jsonPath("$._links.preferences-export").exists())
                 .andExpect(jsonPath("$._links.preferences-findbypkey").exists())
+                .andExpect(jsonPath("$._links.preferences-value").exists())
                 .andExpect(jsonPath("$._links.preferences-findallofscope").exists())
+                .andExpect(jsonPath("$._links.preferences-lookup").exists())
+                .andExpect(jsonPath("$._links.preferences-changes").exists())
+                .andExpect(jsonPath("$._links.preferences-stream").exists())
+                .andExpect(jsonPath("$._links.preferences-resolve").exists())
+                .andExpect(jsonPath("$._links.preferences-resolve-value").exists())
                 .andExpect(jsonPath("$._links.preferences-create").exists())
+                .andExpect(jsonPath("$._links.preferences-bulk").exists())
                 .andExpect(jsonPath("$._links.preferences-update").exists())
                 .andExpect(jsonPath("$._links.preferences-delete").exists())
                 .andExpect(jsonPath("$._links.user-preferences-findbyuser").exists())
@@ -87,7 +116,7 @@ class PreferencesControllerDocumentation extends DefaultTestProfile {
                 .andExpect(jsonPath("$._links.role-preferences-findbyroleandkey").exists())
                 .andExpect(jsonPath("$._links.module-preferences-findbymodule").exists())
                 .andExpect(jsonPath("$._links.module-preferences-findbymoduleandkey").exists())
-                .andExpect(jsonPath("$._links.length()", is(13)))
+                .andExpect(jsonPath("$._links.length()", is(23)))
         ;
     }
 
@@ -119,6 +148,231 @@ class PreferencesControllerDocumentation extends DefaultTestProfile {
         ;
     }
 
+    @Test
+    void shall_return_a_page_of_preferences() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES).queryParam("page", "0").queryParam("size", "2")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("prefs-findpage", preprocessResponse(prettyPrint())))
+                .andExpect(header().exists("X-Total-Count"))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+                .andExpect(jsonPath("$.length()", is(2)))
+        ;
+    }
+
+    @Test
+    void shall_return_preferences_after_pKey() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES).queryParam("after", "1000").queryParam("limit", "2")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("prefs-findallafter", preprocessResponse(prettyPrint())))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("after=")))
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].pKey", is("1001")))
+        ;
+    }
+
+    @Test
+    void shall_export_all_preferences() throws Exception {
+        var result = mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES + "/export")
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andDo(document("prefs-export"))
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"pKey\":\"1000\"")))
+        ;
+    }
+
+    @Test
+    void shall_lookup_preferences() throws Exception {
+        var keys = List.of(
+                new PreferenceKeyVO("owner1", "USER", "key1"),
+                new PreferenceKeyVO("role1", "ROLE", "key4"),
+                new PreferenceKeyVO(null, "APPLICATION", "key3"),
+                new PreferenceKeyVO("owner1", "USER", "unknown")
+        );
+        mockMvc.perform(
+                        MockMvcRequestBuilders.post(PreferencesApi.API_PREFERENCES + "/lookup")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(JsonMapper.builder().build().writeValueAsString(keys))
+                )
+                .andExpect(status().isOk())
+                .andDo(document("prefs-lookup", preprocessResponse(prettyPrint())))
+                .andExpect(jsonPath("$.length()", is(3)))
+                .andExpect(jsonPath("$['USER/owner1/key1'].pKey", is("1000")))
+                .andExpect(jsonPath("$['ROLE/role1/key4'].pKey", is("1003")))
+                .andExpect(jsonPath("$['APPLICATION//key3'].pKey", is("1002")))
+        ;
+    }
+
+    @Test
+    void shall_lookup_preferences_403() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders.post(PreferencesApi.API_PREFERENCES + "/lookup")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(JsonMapper.builder().build().writeValueAsString(
+                                        List.of(new PreferenceKeyVO(null, "USER", "key1"))
+                                ))
+                )
+                .andExpect(status().isForbidden())
+        ;
+    }
+
+    @Test
+    void shall_return_changes_since() throws Exception {
+        mockMvc.perform(delete(PreferencesApi.API_PREFERENCES + "/1001"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES + "/changes")
+                                .queryParam("since", OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(1).toString())
+                                .queryParam("owner", "owner1")
+                                .queryParam("scope", "USER")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("prefs-changes", preprocessResponse(prettyPrint()),
+                        responseFields(
+                                fieldWithPath("changed[]").description("The Preferences created or updated since the watermark"),
+                                fieldWithPath("changed[].*").ignored(),
+                                fieldWithPath("deleted[]").description("The persistent keys of the Preferences deleted since the watermark"),
+                                fieldWithPath("watermark").description("The watermark to pass as parameter since with the next request"),
+                                fieldWithPath("reset").description("If true, the changes are a full snapshot that replaces all Preferences known by the client")
+                        )))
+                .andExpect(jsonPath("$.changed.length()", is(1)))
+                .andExpect(jsonPath("$.changed[0].pKey", is("1000")))
+                .andExpect(jsonPath("$.deleted[0]", is("1001")))
+                .andExpect(jsonPath("$.watermark").exists())
+                .andExpect(jsonPath("$.reset", is(false)))
+        ;
+    }
+
+    @Test
+    void shall_return_all_changes_without_watermark() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES + "/changes")
+                                .queryParam("owner", "owner1")
+                                .queryParam("scope", "USER")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("prefs-changes-reset", preprocessResponse(prettyPrint())))
+                .andExpect(jsonPath("$.changed.length()", is(2)))
+                .andExpect(jsonPath("$.deleted.length()", is(0)))
+                .andExpect(jsonPath("$.reset", is(true)))
+        ;
+    }
+
+    @Test
+    void shall_subscribe_to_changes() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES + "/stream")
+                                .queryParam("owner", "owner1")
+                                .queryParam("scope", "USER")
+                                .queryParam("groupName", "group1")
+                                .accept(MediaType.TEXT_EVENT_STREAM)
+                )
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted())
+                .andDo(document("prefs-stream"))
+        ;
+    }
+
+    @Test
+    void shall_subscribe_to_changes_403() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES + "/stream")
+                                .queryParam("scope", "USER")
+                )
+                .andExpect(status().isUnauthorized())
+                .andDo(document("prefs-stream-403", preprocessResponse(prettyPrint())))
+        ;
+    }
+
+    @Test
+    void shall_resolve_preference() throws Exception {
+        resolutionIndex.clear();
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES + "/resolve")
+                                .queryParam("key", "key4")
+                                .queryParam("user", "owner1")
+                                .queryParam("roles", "role0", "role1")
+                                .queryParam("module", "module1")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("prefs-resolve", preprocessResponse(prettyPrint())))
+                .andExpect(jsonPath("$.pKey", is("1003")))
+                .andExpect(jsonPath("$.owner", is("role1")))
+        ;
+    }
+
+    @Test
+    void shall_resolve_nothing() throws Exception {
+        resolutionIndex.clear();
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES + "/resolve")
+                                .queryParam("key", "unknown")
+                                .queryParam("user", "owner1")
+                )
+                .andExpect(status().isNoContent())
+                .andDo(document("prefs-resolve-204", preprocessResponse(prettyPrint())))
+        ;
+    }
+
+    @Test
+    void shall_resolve_value() throws Exception {
+        resolutionIndex.clear();
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES + "/resolve/value")
+                                .queryParam("key", "key4")
+                                .queryParam("user", "owner1")
+                                .queryParam("roles", "role1")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("prefs-resolve-value", preprocessResponse(prettyPrint())))
+                .andExpect(jsonPath("$", is("current val")))
+        ;
+    }
+
+    @Test
+    void shall_return_value_by_pKey() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES + "/1000/value")
+                )
+                .andExpect(status().isOk())
+                .andDo(document("prefs-value", preprocessResponse(prettyPrint())))
+                .andExpect(jsonPath("$", is("current val")))
+        ;
+    }
+
+    @Test
+    @SqlMergeMode(SqlMergeMode.MergeMode.MERGE)
+    @Sql(statements = INVALID_INT)
+    void shall_fail_to_return_unparseable_value_by_pKey() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES + "/1005/value")
+                )
+                .andExpect(status().isConflict())
+                .andDo(document("prefs-value-409", preprocessResponse(prettyPrint())))
+        ;
+    }
+
+    @Test
+    @SqlMergeMode(SqlMergeMode.MergeMode.MERGE)
+    @Sql(statements = INVALID_INT)
+    void shall_fail_to_resolve_unparseable_value() throws Exception {
+        resolutionIndex.clear();
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES + "/resolve/value")
+                                .queryParam("key", "keyInt")
+                )
+                .andExpect(status().isConflict())
+        ;
+    }
+
     @Test
     void shall_return_all_of_scope() throws Exception {
         mockMvc.perform(
@@ -170,6 +424,46 @@ class PreferencesControllerDocumentation extends DefaultTestProfile {
         ;
     }
 
+    @Test
+    void shall_return_preference_by_key_304() throws Exception {
+        var eTag = mockMvc.perform(
+                        get(PreferencesApi.API_PREFERENCES + "/1000")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(
+                        get(PreferencesApi.API_PREFERENCES + "/1000").header(HttpHeaders.IF_NONE_MATCH, eTag)
+                )
+                .andExpect(status().isNotModified())
+                .andDo(document("prefs-findbykey-304"))
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""))
+        ;
+    }
+
+    @Test
+    void shall_return_all_preferences_304_until_changed() throws Exception {
+        var eTag = mockMvc.perform(
+                        get(PreferencesApi.API_PREFERENCES)
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(
+                        get(PreferencesApi.API_PREFERENCES).header(HttpHeaders.IF_NONE_MATCH, eTag)
+                )
+                .andExpect(status().isNotModified())
+        ;
+        mockMvc.perform(delete(PreferencesApi.API_PREFERENCES + "/1001"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(
+                        get(PreferencesApi.API_PREFERENCES).header(HttpHeaders.IF_NONE_MATCH, eTag)
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+        ;
+    }
+
     @Test
     void shall_return_role_preference_by_key() throws Exception {
         mockMvc.perform(
@@ -238,6 +532,27 @@ class PreferencesControllerDocumentation extends DefaultTestProfile {
         ;
     }
 
+    @Test
+    void shall_not_update_preference_changed_meanwhile() throws Exception {
+        var om = JsonMapper.builder().build();
+        var vo = new UserPreferenceVO();
+        vo.setpKey("1000");
+        vo.setKey("keyX");
+        vo.setOwner("owner2");
+        vo.setDescription("A Boolean");
+        vo.setType("BOOL");
+        vo.setVal(true);
+        mockMvc.perform(
+                        put(PreferencesApi.API_PREFERENCES + "/1000")
+                                .header(HttpHeaders.IF_MATCH, "\"1000-42-0123abcd\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(om.writeValueAsString(vo))
+                )
+                .andExpect(status().isConflict())
+                .andDo(document("prefs-update-409", preprocessResponse(prettyPrint())))
+        ;
+    }
+
     @Test
     void shall_update_preference_UNKNOWN() throws Exception {
         var om = JsonMapper.builder().build();
@@ -379,4 +694,54 @@ class PreferencesControllerDocumentation extends DefaultTestProfile {
                 .andDo(document("prefs-create-fails", preprocessResponse(prettyPrint())))
         ;
     }
+
+    @Test
+    void shall_fail_to_create_preference_with_invalid_value() throws Exception {
+        var om = JsonMapper.builder().build();
+        var vo = new ApplicationPreferenceVO();
+        vo.setKey("keyInt");
+        vo.setDescription("An Integer");
+        vo.setType("INT");
+        vo.setVal("abc");
+        mockMvc.perform(
+                        MockMvcRequestBuilders.post(PreferencesApi.API_PREFERENCES)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(om.writeValueAsString(vo))
+                )
+                .andExpect(status().isBadRequest())
+                .andDo(document("prefs-create-invalid-value", preprocessResponse(prettyPrint())))
+        ;
+    }
+
+    @Test
+    void shall_upsert_preferences_in_bulk() throws Exception {
+        var om = JsonMapper.builder().build();
+        var existing = new UserPreferenceVO();
+        existing.setKey("key1");
+        existing.setOwner("owner1");
+        existing.setType("STRING");
+        existing.setVal("changed val");
+        var created = new RolePreferenceVO();
+        created.setKey("keyZ");
+        created.setOwner("role2");
+        created.setType("BOOL");
+        created.setVal(true);
+        var invalid = new ApplicationPreferenceVO();
+        invalid.setType("STRING");
+        mockMvc.perform(
+                        MockMvcRequestBuilders.post(PreferencesApi.API_PREFERENCES + "/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(om.writeValueAsString(List.of(existing, created, invalid)))
+                )
+                .andExpect(status().isOk())
+                .andDo(document("prefs-bulk", preprocessResponse(prettyPrint())))
+                .andExpect(jsonPath("$.length()", is(3)))
+                .andExpect(jsonPath("$[0].status", is("UPDATED")))
+                .andExpect(jsonPath("$[0].pKey", is("1000")))
+                .andExpect(jsonPath("$[1].status", is("CREATED")))
+                .andExpect(jsonPath("$[1].pKey").exists())
+                .andExpect(jsonPath("$[2].status", is("REJECTED")))
+                .andExpect(jsonPath("$[2].message").exists())
+        ;
+    }
 }
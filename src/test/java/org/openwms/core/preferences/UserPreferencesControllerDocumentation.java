@@ -21,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import org.openwms.core.preferences.api.PreferencesApi;
 import org.openwms.core.preferences.api.UserPreferenceVO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.restdocs.RestDocumentationContextProvider;
 import org.springframework.restdocs.mockmvc.MockMvcRestDocumentation;
@@ -65,6 +66,24 @@ class UserPreferencesControllerDocumentation extends DefaultTestProfile {
         ;
     }
 
+    @Test
+    void shall_return_all_for_user_304() throws Exception {
+        var eTag = mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES)
+                                .queryParam("user", "owner1")
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get(PreferencesApi.API_PREFERENCES)
+                                .queryParam("user", "owner1")
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                )
+                .andExpect(status().isNotModified())
+                .andDo(MockMvcRestDocumentation.document("prefs-findforuser-304"))
+        ;
+    }
+
     @Test
     void shall_return_all_for_user_and_key() throws Exception {
         mockMvc.perform(
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.api.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.api.PreferenceKeyVO;
+import org.openwms.core.preferences.api.PreferenceVO;
+import org.openwms.core.preferences.api.PreferencesApi;
+import org.openwms.core.preferences.api.messages.PreferenceMO;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A CachingPreferencesApiTest.
+ *
+ * @author Heiko Scherrer
+ */
+class CachingPreferencesApiTest {
+
+    private PreferencesApi delegate;
+    private CachingPreferencesApi testee;
+
+    @BeforeEach
+    void onSetup() {
+        delegate = mock(PreferencesApi.class);
+        testee = new CachingPreferencesApi(delegate, Duration.ofMinutes(1), 100);
+    }
+
+    private static PreferenceVO preference(String pKey) {
+        var vo = new PreferenceVO();
+        vo.setpKey(pKey);
+        return vo;
+    }
+
+    private static PreferenceMO changed(String pKey, String key, String scope) {
+        var mo = new PreferenceMO(key);
+        mo.setpKey(pKey);
+        mo.setScope(scope);
+        return mo;
+    }
+
+    @Test
+    void shall_cache_per_operation_and_key() {
+        when(delegate.findByPKey("USER")).thenReturn(preference("USER"));
+        when(delegate.findAllOfScope("USER")).thenReturn(List.of(preference("1"), preference("2")));
+
+        assertThat(testee.findByPKey("USER").getpKey()).isEqualTo("USER");
+        assertThat(testee.findAllOfScope("USER")).hasSize(2);
+        assertThat(testee.findByPKey("USER").getpKey()).isEqualTo("USER");
+        assertThat(testee.findAllOfScope("USER")).hasSize(2);
+
+        verify(delegate).findByPKey("USER");
+        verify(delegate).findAllOfScope("USER");
+    }
+
+    @Test
+    void shall_cache_missing_preferences() {
+        assertThat(testee.findByOwnerScopeKey("owner1", "USER", "key1")).isNull();
+        assertThat(testee.findByOwnerScopeKey("owner1", "USER", "key1")).isNull();
+
+        verify(delegate).findByOwnerScopeKey("owner1", "USER", "key1");
+    }
+
+    @Test
+    void shall_lookup_only_missing_keys() {
+        var key1 = new PreferenceKeyVO("owner1", "USER", "key1");
+        var key2 = new PreferenceKeyVO("owner1", "USER", "key2");
+        when(delegate.findByOwnerScopeKey("owner1", "USER", "key1")).thenReturn(preference("1"));
+        when(delegate.lookup(List.of(key2))).thenReturn(Map.of(key2.asLookupKey(), preference("2")));
+        testee.findByOwnerScopeKey("owner1", "USER", "key1");
+
+        var result = testee.lookup(List.of(key1, key2));
+        testee.lookup(List.of(key1, key2));
+
+        assertThat(result).containsOnlyKeys("USER/owner1/key1", "USER/owner1/key2");
+        assertThat(result.get("USER/owner1/key2").getpKey()).isEqualTo("2");
+        verify(delegate).lookup(List.of(key2));
+    }
+
+    @Test
+    void shall_evict_all_on_update() {
+        when(delegate.findByPKey("1")).thenReturn(preference("1"));
+        testee.findByPKey("1");
+        testee.findAll();
+
+        testee.update("1", preference("1"));
+        testee.findByPKey("1");
+        testee.findAll();
+
+        verify(delegate, times(2)).findByPKey("1");
+        verify(delegate, times(2)).findAll();
+    }
+
+    @Test
+    void shall_evict_changed_preference_only() {
+        when(delegate.findByPKey("1")).thenReturn(preference("1"));
+        when(delegate.findByPKey("2")).thenReturn(preference("2"));
+        testee.findByPKey("1");
+        testee.findByPKey("2");
+        testee.resolve("key1", "owner1", List.of("role1"), null);
+        testee.resolve("key2", "owner1", List.of("role1"), null);
+
+        testee.evict(changed("1", "key1", "USER"));
+        testee.findByPKey("1");
+        testee.findByPKey("2");
+        testee.resolve("key1", "owner1", List.of("role1"), null);
+        testee.resolve("key2", "owner1", List.of("role1"), null);
+
+        verify(delegate, times(2)).findByPKey("1");
+        verify(delegate).findByPKey("2");
+        verify(delegate, times(2)).resolve("key1", "owner1", List.of("role1"), null);
+        verify(delegate).resolve("key2", "owner1", List.of("role1"), null);
+    }
+}
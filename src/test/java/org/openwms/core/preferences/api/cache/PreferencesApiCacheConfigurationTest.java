@@ -0,0 +1,71 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.api.cache;
+
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.api.PreferencesApi;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A PreferencesApiCacheConfigurationTest verifies that clients get exactly one {@link PreferencesApi} injected, the caching decorator if
+ * the client cache is enabled and the Feign client otherwise.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferencesApiCacheConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(FeignAutoConfiguration.class))
+            .withUserConfiguration(ClientConfiguration.class)
+            .withPropertyValues(
+                    // Decouple from any profiles passed to the surefire JVM, like AMQP in CI
+                    "spring.profiles.active=DEFAULT",
+                    "spring.cloud.openfeign.client.config.preferences-service.url=http://localhost:8080"
+            );
+
+    @EnableFeignClients(clients = PreferencesApi.class)
+    @Import(PreferencesApiCacheConfiguration.class)
+    @Configuration(proxyBeanMethods = false)
+    static class ClientConfiguration {
+    }
+
+    @Test
+    void shall_inject_the_caching_decorator() {
+        contextRunner
+                .withPropertyValues("owms.preferences.client.cache.enabled=true")
+                .run(ctx -> {
+                    assertThat(ctx).hasNotFailed();
+                    assertThat(ctx.getBeansOfType(PreferencesApi.class)).hasSize(2);
+                    assertThat(ctx.getBean(PreferencesApi.class)).isInstanceOf(CachingPreferencesApi.class);
+                });
+    }
+
+    @Test
+    void shall_inject_the_feign_client_without_cache() {
+        contextRunner.run(ctx -> {
+            assertThat(ctx).hasNotFailed();
+            assertThat(ctx).hasSingleBean(PreferencesApi.class);
+            assertThat(ctx).doesNotHaveBean(CachingPreferencesApi.class);
+        });
+    }
+}
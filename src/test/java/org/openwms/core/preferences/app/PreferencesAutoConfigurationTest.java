@@ -16,8 +16,12 @@
 package org.openwms.core.preferences.app;
 
 import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.ModulePreferencesController;
 import org.openwms.core.preferences.PreferencesController;
 import org.openwms.core.preferences.PreferencesService;
+import org.openwms.core.preferences.ReactivePreferencesController;
+import org.openwms.core.preferences.RolePreferencesController;
+import org.openwms.core.preferences.UserPreferencesController;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.hibernate.autoconfigure.HibernateJpaAutoConfiguration;
 import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
@@ -59,4 +63,17 @@ class PreferencesAutoConfigurationTest {
             assertThat(ctx).hasBean("preferenceRepository");
         });
     }
+
+    @Test
+    void shall_keep_the_blocking_controllers_with_reactive_profile_on_jpa() {
+        contextRunner
+                .withPropertyValues("spring.profiles.active=REACTIVE")
+                .run(ctx -> {
+                    assertThat(ctx).hasNotFailed();
+                    assertThat(ctx).hasSingleBean(UserPreferencesController.class);
+                    assertThat(ctx).hasSingleBean(RolePreferencesController.class);
+                    assertThat(ctx).hasSingleBean(ModulePreferencesController.class);
+                    assertThat(ctx).doesNotHaveBean(ReactivePreferencesController.class);
+                });
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.app;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.impl.PreferencePersistencePort;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A PreferencesMetricsInterceptorTest.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferencesMetricsInterceptorTest {
+
+    private SimpleMeterRegistry registry;
+    private PreferencePersistencePort target;
+    private PreferencePersistencePort testee;
+
+    @BeforeEach
+    void onSetup() {
+        registry = new SimpleMeterRegistry();
+        var beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+        target = mock(PreferencePersistencePort.class);
+        var proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(PreferencePersistencePort.class);
+        proxyFactory.addAdvice(new PreferencesMetricsInterceptor(beanFactory.getBeanProvider(MeterRegistry.class),
+                "owms.preferences.persistence", "test", "JPA", false));
+        testee = (PreferencePersistencePort) proxyFactory.getProxy();
+    }
+
+    @Test
+    void shall_time_with_operation_scope_and_backend() {
+        when(target.countByScope(PropertyScope.USER)).thenReturn(3L);
+
+        assertThat(testee.countByScope(PropertyScope.USER)).isEqualTo(3L);
+
+        var timer = registry.get("owms.preferences.persistence")
+                .tags("operation", "countByScope", "scope", "USER", "backend", "JPA", "exception", "none")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shall_time_failed_calls_with_the_exception() {
+        when(target.countByScope(PropertyScope.ROLE)).thenThrow(new IllegalStateException("Database not available"));
+
+        assertThatThrownBy(() -> testee.countByScope(PropertyScope.ROLE)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get("owms.preferences.persistence").tag("exception", "IllegalStateException").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.app;
+
+import jakarta.persistence.SharedCacheMode;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.config.PreferencesProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A PreferencesSecondLevelCacheConfigurationTest.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferencesSecondLevelCacheConfigurationTest {
+
+    private static Map<String, Object> customize(PreferencesProperties properties, Map<String, Object> hibernateProperties) {
+        new PreferencesSecondLevelCacheConfiguration().preferencesSecondLevelCacheCustomizer(properties).customize(hibernateProperties);
+        return hibernateProperties;
+    }
+
+    @Test
+    void shall_default_to_a_selective_cache_without_statistics() {
+        var settings = customize(new PreferencesProperties(), new HashMap<>());
+
+        assertThat(settings)
+                .containsEntry(AvailableSettings.USE_SECOND_LEVEL_CACHE, true)
+                .containsEntry(AvailableSettings.USE_QUERY_CACHE, true)
+                .containsEntry(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE)
+                .doesNotContainKey(AvailableSettings.GENERATE_STATISTICS);
+    }
+
+    @Test
+    void shall_not_override_the_settings_of_the_application() {
+        var application = new HashMap<String, Object>();
+        application.put(AvailableSettings.USE_QUERY_CACHE, false);
+        application.put(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.NONE);
+        application.put(AvailableSettings.GENERATE_STATISTICS, false);
+        var properties = new PreferencesProperties();
+        properties.getSecondLevelCache().setStatistics(true);
+
+        var settings = customize(properties, application);
+
+        assertThat(settings)
+                .containsEntry(AvailableSettings.USE_QUERY_CACHE, false)
+                .containsEntry(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.NONE)
+                .containsEntry(AvailableSettings.GENERATE_STATISTICS, false);
+    }
+
+    @Test
+    void shall_turn_statistics_on_if_configured() {
+        var properties = new PreferencesProperties();
+        properties.getSecondLevelCache().setStatistics(true);
+
+        assertThat(customize(properties, new HashMap<>())).containsEntry(AvailableSettings.GENERATE_STATISTICS, true);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.app;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.PreferencesService;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.interceptor.ConcurrencyThrottleInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A PreferencesVirtualThreadsConfigurationTest.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferencesVirtualThreadsConfigurationTest {
+
+    private static Method method(String name) {
+        return Arrays.stream(PreferencesService.class.getMethods()).filter(m -> m.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    private static boolean matches(Advisor advisor, String methodName) {
+        var pointcut = ((PointcutAdvisor) advisor).getPointcut();
+        return pointcut.getClassFilter().matches(PreferencesService.class)
+                && pointcut.getMethodMatcher().matches(method(methodName), PreferencesService.class);
+    }
+
+    private static ObjectProvider<DataSource> noDataSource() {
+        return new StaticListableBeanFactory().getBeanProvider(DataSource.class);
+    }
+
+    private static ObjectProvider<DataSource> hikari(int maximumPoolSize) {
+        var dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        return new StaticListableBeanFactory(Map.of("dataSource", dataSource)).getBeanProvider(DataSource.class);
+    }
+
+    private static int limit(Advisor advisor) throws Throwable {
+        var interceptor = (ConcurrencyThrottleInterceptor) advisor.getAdvice();
+        interceptor.invoke(mock(MethodInvocation.class));
+        return interceptor.getConcurrencyLimit();
+    }
+
+    @Test
+    void shall_throttle_only_calls_that_need_a_connection() {
+        var advisor = PreferencesVirtualThreadsConfiguration.preferencesServiceConcurrencyThrottle(new MockEnvironment(), noDataSource());
+        assertThat(matches(advisor, "create")).isTrue();
+        assertThat(matches(advisor, "findByPKey")).isTrue();
+        assertThat(matches(advisor, "resolve")).isFalse();
+        assertThat(matches(advisor, "resolveValue")).isFalse();
+        assertThat(matches(advisor, "streamAll")).isFalse();
+    }
+
+    @Test
+    void shall_throttle_exports_separately() throws Throwable {
+        var advisor = PreferencesVirtualThreadsConfiguration.preferencesExportConcurrencyThrottle(new MockEnvironment());
+        assertThat(matches(advisor, "streamAll")).isTrue();
+        assertThat(matches(advisor, "create")).isFalse();
+        assertThat(limit(advisor)).isEqualTo(1);
+    }
+
+    @Test
+    void shall_keep_connections_free_by_default() {
+        var environment = new MockEnvironment().withProperty("spring.datasource.hikari.maximum-pool-size", "20");
+        assertThat(PreferencesVirtualThreadsConfiguration.transactionLimit(environment, noDataSource())).isEqualTo(17);
+        assertThat(PreferencesVirtualThreadsConfiguration.transactionLimit(new MockEnvironment(), noDataSource())).isEqualTo(7);
+    }
+
+    @Test
+    void shall_take_the_size_of_the_actual_pool() {
+        var environment = new MockEnvironment().withProperty("spring.datasource.hikari.maximum-pool-size", "20");
+        assertThat(PreferencesVirtualThreadsConfiguration.transactionLimit(environment, hikari(40))).isEqualTo(37);
+    }
+
+    @Test
+    void shall_resolve_the_limit_on_the_first_call() throws Throwable {
+        var advisor = PreferencesVirtualThreadsConfiguration.preferencesServiceConcurrencyThrottle(new MockEnvironment(), hikari(30));
+        assertThat(limit(advisor)).isEqualTo(27);
+    }
+
+    @Test
+    void shall_use_the_configured_limits() {
+        var environment = new MockEnvironment()
+                .withProperty("owms.preferences.max-concurrent-transactions", "5")
+                .withProperty("owms.preferences.max-concurrent-exports", "3");
+        assertThat(PreferencesVirtualThreadsConfiguration.transactionLimit(environment, hikari(40))).isEqualTo(5);
+        assertThat(PreferencesVirtualThreadsConfiguration.exportLimit(environment)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl;
+
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A PreferenceTombstonePurgerTest.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferenceTombstonePurgerTest {
+
+    @Test
+    void shall_purge_tombstones_older_than_retention() {
+        var persistencePort = mock(PreferencePersistencePort.class);
+        var properties = new PreferencesProperties();
+        properties.getChanges().setTombstoneRetention(Duration.ofDays(7));
+        var testee = new PreferenceTombstonePurger(persistencePort, properties,
+                new StaticListableBeanFactory().getBeanProvider(PlatformTransactionManager.class));
+
+        var before = LocalDateTime.now().minusDays(7);
+        testee.purge();
+        var after = LocalDateTime.now().minusDays(7);
+
+        verify(persistencePort).deleteTombstonesBefore(argThat(t -> !t.isBefore(before) && !t.isAfter(after)));
+    }
+
+    @Test
+    void shall_survive_failures() {
+        var persistencePort = mock(PreferencePersistencePort.class);
+        doThrow(new IllegalStateException("database down")).when(persistencePort).deleteTombstonesBefore(argThat(t -> true));
+        var testee = new PreferenceTombstonePurger(persistencePort, new PreferencesProperties(),
+                new StaticListableBeanFactory().getBeanProvider(PlatformTransactionManager.class));
+
+        testee.purge();
+        testee.start();
+        assertThat(testee.isRunning()).isTrue();
+        testee.stop();
+        assertThat(testee.isRunning()).isFalse();
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceType;
+import org.openwms.core.preferences.PreferencesBulkEvent;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.openwms.core.preferences.impl.file.FilePreferenceMapper;
+import org.openwms.core.preferences.impl.file.GenericPreference;
+import org.openwms.core.preferences.impl.file.PreferenceDao;
+import org.openwms.core.preferences.impl.file.UserPreference;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A PreferencesFileImporterTest.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferencesFileImporterTest {
+
+    private PreferenceDao fileDao;
+    private PreferencePersistencePort persistencePort;
+    private ApplicationContext ctx;
+    private PreferencesProperties properties;
+    private SimpleMeterRegistry registry;
+    private PreferencesFileImporter testee;
+
+    @BeforeEach
+    void onSetup() {
+        fileDao = mock(PreferenceDao.class);
+        persistencePort = mock(PreferencePersistencePort.class);
+        ctx = mock(ApplicationContext.class);
+        properties = new PreferencesProperties();
+        properties.setBatchSize(2);
+        registry = new SimpleMeterRegistry();
+        testee = newImporter();
+        when(persistencePort.createAll(anyList())).thenAnswer(i -> i.getArgument(0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private PreferencesFileImporter newImporter() {
+        var beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+        return new PreferencesFileImporter(fileDao, persistencePort, Mappers.getMapper(FilePreferenceMapper.class), ctx, properties,
+                mock(ObjectProvider.class), beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    private static UserPreference filePreference(String owner, String key, String value) {
+        var pref = new UserPreference(owner, key);
+        pref.setType(PreferenceType.STRING.name());
+        pref.setValue(value);
+        return pref;
+    }
+
+    private static UserPreference filePreference(String key, String value) {
+        return filePreference("owner1", key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenFiles(List<List<GenericPreference>> files) {
+        var sources = new ArrayList<Resource>();
+        for (var i = 0; i < files.size(); i++) {
+            var source = new ByteArrayResource(("file" + i).getBytes(), "file" + i);
+            var preferences = files.get(i);
+            sources.add(source);
+            when(fileDao.forEachBatch(eq(source), anyInt(), any(Consumer.class))).thenAnswer(inv -> {
+                int batchSize = inv.getArgument(1);
+                Consumer<List<GenericPreference>> consumer = inv.getArgument(2);
+                for (var j = 0; j < preferences.size(); j += batchSize) {
+                    consumer.accept(preferences.subList(j, Math.min(j + batchSize, preferences.size())));
+                }
+                return preferences.size();
+            });
+        }
+        when(fileDao.findSources()).thenReturn(sources);
+    }
+
+    private void givenFile(GenericPreference... preferences) {
+        givenFiles(List.of(List.of(preferences)));
+    }
+
+    private static Preference persisted(String key, String value) {
+        return Preference.newBuilder()
+                .pKey(key)
+                .key(key)
+                .owner("owner1")
+                .scope(PropertyScope.USER)
+                .type(PreferenceType.STRING)
+                .val(value)
+                .build();
+    }
+
+    @Test
+    void shall_merge_in_batches_and_report() {
+        givenFile(
+                filePreference("key1", "val1"),
+                filePreference("key2", "val2"),
+                filePreference("key3", "val3")
+        );
+        when(persistencePort.findAllByBusinessKeys(anyCollection())).thenReturn(
+                List.of(persisted("key1", "val1"), persisted("key2", "changed")),
+                List.of()
+        );
+
+        var report = testee.importAll();
+
+        verify(persistencePort, times(2)).findAllByBusinessKeys(anyCollection());
+        verify(persistencePort, never()).findAll();
+        verify(persistencePort).createAll(argThat(l -> l.size() == 1 && "key3".equals(l.getFirst().getKey())));
+        assertThat(report.added()).extracting(Preference::getKey).containsExactly("key3");
+        assertThat(report.skipped()).extracting(Preference::getKey).containsExactly("key1");
+        assertThat(report.conflicted()).extracting(Preference::getKey).containsExactly("key2");
+        verify(ctx).publishEvent(argThat((ApplicationEvent e) -> e instanceof PreferencesBulkEvent be && be.getSource().size() == 1));
+        assertThat(registry.get(PreferencesFileImporter.MERGED_METRIC).tag("result", "added").counter().count()).isEqualTo(1);
+        assertThat(registry.get(PreferencesFileImporter.MERGED_METRIC).tag("result", "conflicted").counter().count()).isEqualTo(1);
+        assertThat(registry.get(PreferencesFileImporter.IMPORT_METRIC).tag("phase", "diff").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shall_not_publish_without_changes() {
+        givenFile(filePreference("key1", "val1"));
+        when(persistencePort.findAllByBusinessKeys(anyCollection())).thenReturn(List.of(persisted("key1", "val1")));
+
+        var report = testee.importAll();
+
+        assertThat(report.added()).isEmpty();
+        assertThat(report.skipped()).hasSize(1);
+        verify(persistencePort, never()).createAll(anyList());
+        verify(ctx, never()).publishEvent(any(ApplicationEvent.class));
+    }
+
+    @Test
+    void shall_create_a_preference_defined_twice_in_a_batch_once() {
+        givenFile(
+                filePreference("key1", "val1"),
+                filePreference("key1", "other")
+        );
+        when(persistencePort.findAllByBusinessKeys(anyCollection())).thenReturn(List.of());
+
+        var report = testee.importAll();
+
+        verify(persistencePort).createAll(argThat(l -> l.size() == 1 && "val1".equals(l.getFirst().getVal())));
+        assertThat(report.added()).extracting(Preference::getVal).containsExactly("val1");
+        assertThat(report.conflicted()).extracting(Preference::getKey).containsExactly("key1");
+    }
+
+    @Test
+    void shall_publish_per_batch_and_only_report_conflicts_when_streaming() {
+        properties.getFileStreaming().setEnabled(true);
+        givenFile(
+                filePreference("key1", "val1"),
+                filePreference("key2", "val2"),
+                filePreference("key3", "val3")
+        );
+        when(persistencePort.findAllByBusinessKeys(anyCollection())).thenReturn(List.of(persisted("key1", "val1")), List.of());
+
+        var report = testee.importAll();
+
+        verify(persistencePort, times(2)).createAll(argThat(l -> l.size() == 1));
+        verify(ctx, times(2)).publishEvent(argThat((ApplicationEvent e) ->
+                e instanceof PreferencesBulkEvent be && be.getSource().size() == 1));
+        assertThat(report.added()).isEmpty();
+        assertThat(report.skipped()).isEmpty();
+        assertThat(report.hasConflicts()).isFalse();
+    }
+
+    @Test
+    void shall_import_several_files_in_parallel() {
+        properties.getFileImport().setParallelism(4);
+        var files = new ArrayList<List<GenericPreference>>();
+        for (var site = 0; site < 4; site++) {
+            var preferences = new ArrayList<GenericPreference>();
+            for (var i = 0; i < 10; i++) {
+                preferences.add(filePreference("site" + site + "-user" + (i % 3), "key" + i, "val"));
+            }
+            files.add(preferences);
+        }
+        givenFiles(files);
+        when(persistencePort.findAllByBusinessKeys(anyCollection())).thenReturn(List.of());
+
+        var report = testee.importAll();
+
+        assertThat(report.added()).hasSize(40);
+        assertThat(report.added()).extracting(Preference::getPrefKey).doesNotHaveDuplicates();
+    }
+}
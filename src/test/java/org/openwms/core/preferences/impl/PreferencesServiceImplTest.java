@@ -0,0 +1,161 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl;
+
+import org.ameba.i18n.Translator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceTombstone;
+import org.openwms.core.preferences.PreferenceVersionConflictException;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.openwms.core.preferences.impl.resolve.PreferenceResolutionIndex;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A PreferencesServiceImplTest covers the delta synchronization with the changes-since watermark and the versioned and unversioned
+ * updates.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferencesServiceImplTest {
+
+    private PreferencePersistencePort persistencePort;
+    private PreferencesProperties properties;
+    private PreferencesServiceImpl testee;
+
+    @BeforeEach
+    void onSetup() {
+        persistencePort = mock(PreferencePersistencePort.class);
+        properties = new PreferencesProperties();
+        properties.getChanges().setSafetyWindow(Duration.ofSeconds(5));
+        properties.getChanges().setTombstoneRetention(Duration.ofDays(30));
+        testee = new PreferencesServiceImpl(mock(PreferencesFileImporter.class), persistencePort, mock(Translator.class),
+                mock(ApplicationContext.class), properties, mock(PreferenceResolutionIndex.class));
+    }
+
+    private static Preference userPreference(String pKey) {
+        return Preference.newBuilder().pKey(pKey).key("key" + pKey).owner("owner1").scope(PropertyScope.USER).build();
+    }
+
+    @Test
+    void shall_reset_without_watermark() {
+        when(persistencePort.findModifiedSince(null, "owner1", PropertyScope.USER)).thenReturn(List.of(userPreference("1")));
+
+        var changes = testee.findChangesSince(null, "owner1", PropertyScope.USER);
+
+        assertThat(changes.reset()).isTrue();
+        assertThat(changes.changed()).hasSize(1);
+        assertThat(changes.deleted()).isEmpty();
+        verify(persistencePort, never()).findDeletedSince(any(), any(), any());
+    }
+
+    @Test
+    void shall_reset_on_watermark_older_than_tombstone_retention() {
+        var since = LocalDateTime.now().minusDays(31);
+        when(persistencePort.findModifiedSince(null, "owner1", PropertyScope.USER)).thenReturn(List.of(userPreference("1")));
+
+        var changes = testee.findChangesSince(since, "owner1", PropertyScope.USER);
+
+        assertThat(changes.reset()).isTrue();
+        assertThat(changes.changed()).hasSize(1);
+        assertThat(changes.deleted()).isEmpty();
+        verify(persistencePort).findModifiedSince(isNull(), any(), any());
+        verify(persistencePort, never()).findDeletedSince(any(), any(), any());
+    }
+
+    @Test
+    void shall_return_changes_and_tombstones_since_watermark() {
+        var since = LocalDateTime.now().minusHours(1);
+        var tombstone = new PreferenceTombstone("2", "key2", "owner1", PropertyScope.USER, LocalDateTime.now().minusMinutes(1));
+        when(persistencePort.findModifiedSince(since, "owner1", PropertyScope.USER)).thenReturn(List.of(userPreference("1")));
+        when(persistencePort.findDeletedSince(since, "owner1", PropertyScope.USER)).thenReturn(List.of(tombstone));
+
+        var before = LocalDateTime.now();
+        var changes = testee.findChangesSince(since, "owner1", PropertyScope.USER);
+        var after = LocalDateTime.now();
+
+        assertThat(changes.reset()).isFalse();
+        assertThat(changes.changed()).extracting(Preference::getPersistentKey).containsExactly("1");
+        assertThat(changes.deleted()).containsExactly(tombstone);
+        // The new watermark lags behind by the safety window, so that transactions committing late are returned again
+        assertThat(changes.watermark()).isBetween(before.minusSeconds(5), after.minusSeconds(5));
+    }
+
+    @Test
+    void shall_not_move_the_watermark_backwards_within_the_safety_window() {
+        var since = LocalDateTime.now().minusSeconds(1);
+        when(persistencePort.findModifiedSince(since, null, PropertyScope.APPLICATION)).thenReturn(List.of());
+        when(persistencePort.findDeletedSince(since, null, PropertyScope.APPLICATION)).thenReturn(List.of());
+
+        var changes = testee.findChangesSince(since, null, PropertyScope.APPLICATION);
+
+        assertThat(changes.reset()).isFalse();
+        assertThat(changes.watermark()).isEqualTo(since);
+    }
+
+    @Test
+    void shall_not_purge_tombstones_on_delete() {
+        var existing = userPreference("1");
+        when(persistencePort.findBypKey("1")).thenReturn(Optional.of(existing));
+
+        testee.delete("1");
+
+        verify(persistencePort).delete(existing);
+        verify(persistencePort, never()).deleteTombstonesBefore(any());
+    }
+
+    @Test
+    void shall_update_without_reading_the_version() {
+        var preference = userPreference("1");
+        var updated = userPreference("1");
+        updated.setOl(Preference.UNKNOWN_VERSION);
+        when(persistencePort.update("1", preference)).thenReturn(Optional.of(updated));
+
+        assertThat(testee.update("1", preference)).isSameAs(updated);
+
+        verify(persistencePort, never()).findBypKey(any());
+        verify(persistencePort, never()).update(any(), any(), anyLong());
+    }
+
+    @Test
+    void shall_update_the_given_version() {
+        var preference = userPreference("1");
+        when(persistencePort.update("1", preference, 3)).thenThrow(new OptimisticLockingFailureException("changed meanwhile"));
+
+        assertThatThrownBy(() -> testee.update("1", preference, 3)).isInstanceOf(PreferenceVersionConflictException.class);
+
+        verify(persistencePort, never()).findBypKey(any());
+        verify(persistencePort, never()).update(any(), any());
+    }
+}
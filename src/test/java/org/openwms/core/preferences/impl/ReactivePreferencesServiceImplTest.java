@@ -0,0 +1,101 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl;
+
+import org.ameba.exception.NotFoundException;
+import org.ameba.i18n.Translator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.NotAuthorizedException;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PropertyScope;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * A ReactivePreferencesServiceImplTest.
+ *
+ * @author Heiko Scherrer
+ */
+class ReactivePreferencesServiceImplTest {
+
+    private ReactivePreferencePersistencePort persistencePort;
+    private ReactivePreferencesServiceImpl testee;
+
+    @BeforeEach
+    void onSetup() {
+        persistencePort = mock(ReactivePreferencePersistencePort.class);
+        testee = new ReactivePreferencesServiceImpl(persistencePort, mock(Translator.class));
+    }
+
+    private static Preference userPreference(String pKey) {
+        return Preference.newBuilder()
+                .pKey(pKey)
+                .key("key" + pKey)
+                .owner("owner1")
+                .scope(PropertyScope.USER)
+                .build();
+    }
+
+    @Test
+    void shall_find_for_owner_and_scope() {
+        when(persistencePort.findByOwnerAndScope("owner1", PropertyScope.USER))
+                .thenReturn(Flux.just(userPreference("1"), userPreference("2")));
+        StepVerifier.create(testee.findForOwnerAndScope("owner1", PropertyScope.USER))
+                .expectNextMatches(p -> "1".equals(p.getPersistentKey()))
+                .expectNextMatches(p -> "2".equals(p.getPersistentKey()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shall_deny_user_preferences_without_owner() {
+        StepVerifier.create(testee.findForOwnerAndScope(null, PropertyScope.USER))
+                .verifyError(NotAuthorizedException.class);
+        StepVerifier.create(testee.findForOwnerAndScopeAndKey("", PropertyScope.USER, "key1"))
+                .verifyError(NotAuthorizedException.class);
+        verifyNoInteractions(persistencePort);
+    }
+
+    @Test
+    void shall_find_application_preferences_without_owner() {
+        when(persistencePort.findByOwnerAndScopeAndGroupName(null, PropertyScope.APPLICATION, "group1")).thenReturn(Flux.empty());
+        StepVerifier.create(testee.findForScopeOwnerGroupName(null, PropertyScope.APPLICATION, "group1"))
+                .verifyComplete();
+        verify(persistencePort).findByOwnerAndScopeAndGroupName(null, PropertyScope.APPLICATION, "group1");
+    }
+
+    @Test
+    void shall_find_by_pKey() {
+        when(persistencePort.findBypKey("1")).thenReturn(Mono.just(userPreference("1")));
+        StepVerifier.create(testee.findByPKey("1"))
+                .expectNextMatches(p -> "key1".equals(p.getKey()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shall_signal_not_found_by_pKey() {
+        when(persistencePort.findBypKey(any())).thenReturn(Mono.empty());
+        StepVerifier.create(testee.findByPKey("unknown"))
+                .verifyError(NotFoundException.class);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceType;
+import org.openwms.core.preferences.PreferencesEvent;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A PreferenceCacheTest.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferenceCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private PreferenceCache testee;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void onSetup() {
+        registry = new SimpleMeterRegistry();
+        var beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+        testee = new PreferenceCache(new PreferencesProperties(), beanFactory.getBeanProvider(MeterRegistry.class));
+        loads.set(0);
+    }
+
+    private static Preference userPreference(String pKey, String owner, String key, String groupName) {
+        return Preference.newBuilder()
+                .pKey(pKey)
+                .owner(owner)
+                .key(key)
+                .groupName(groupName)
+                .scope(PropertyScope.USER)
+                .type(PreferenceType.STRING)
+                .build();
+    }
+
+    private Optional<Preference> load(Preference preference) {
+        loads.incrementAndGet();
+        return Optional.of(preference);
+    }
+
+    @Test
+    void shall_load_only_once() {
+        var pref = userPreference("1", "owner1", "key1", "GLOBAL");
+        testee.getByKey("owner1", PropertyScope.USER, "key1", () -> load(pref));
+        var result = testee.getByKey("owner1", PropertyScope.USER, "key1", () -> load(pref));
+
+        assertThat(result).contains(pref);
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("cache.gets").tag("cache", "preferences.byKey").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "preferences.byKey").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shall_evict_on_event() {
+        var pref = userPreference("1", "owner1", "key1", "GLOBAL");
+        testee.getByKey("owner1", PropertyScope.USER, "key1", () -> load(pref));
+        testee.getByKey(null, PropertyScope.USER, "key1", () -> load(pref));
+        testee.getByGroupName("owner1", PropertyScope.USER, "GLOBAL", () -> List.of(pref));
+
+        testee.onEvent(new PreferencesEvent(pref, PreferencesEvent.Type.UPDATED));
+
+        testee.getByKey("owner1", PropertyScope.USER, "key1", () -> load(pref));
+        testee.getByKey(null, PropertyScope.USER, "key1", () -> load(pref));
+        assertThat(loads).hasValue(4);
+        assertThat(testee.getByGroupName("owner1", PropertyScope.USER, "GLOBAL", List::of)).isEmpty();
+    }
+
+    @Test
+    void shall_evict_former_state_by_persistent_key() {
+        var former = userPreference("1", "owner1", "key1", "GROUP1");
+        testee.getByKey("owner1", PropertyScope.USER, "key1", () -> load(former));
+        testee.getByGroupName("owner1", PropertyScope.USER, "GROUP1", () -> List.of(former));
+
+        testee.onEvent(new PreferencesEvent(userPreference("1", "owner1", "renamedKey", "GROUP2"), PreferencesEvent.Type.UPDATED));
+
+        testee.getByKey("owner1", PropertyScope.USER, "key1", Optional::empty);
+        assertThat(loads).hasValue(1);
+        assertThat(testee.getByKey("owner1", PropertyScope.USER, "key1", Optional::empty)).isEmpty();
+        assertThat(testee.getByGroupName("owner1", PropertyScope.USER, "GROUP1", List::of)).isEmpty();
+    }
+
+    @Test
+    void shall_not_evict_unrelated_entries() {
+        var pref1 = userPreference("1", "owner1", "key1", "GLOBAL");
+        var pref2 = userPreference("2", "owner2", "key2", "GLOBAL");
+        testee.getByKey("owner2", PropertyScope.USER, "key2", () -> load(pref2));
+
+        testee.onEvent(new PreferencesEvent(pref1, PreferencesEvent.Type.DELETED));
+
+        testee.getByKey("owner2", PropertyScope.USER, "key2", () -> load(pref2));
+        assertThat(loads).hasValue(1);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.events;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceChangeBroadcaster;
+import org.openwms.core.preferences.PreferenceType;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.api.messages.PreferenceBulkMO;
+import org.openwms.core.preferences.api.messages.PreferenceMO;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.openwms.core.preferences.impl.PreferencePersistencePort;
+import org.openwms.core.preferences.impl.cache.PreferenceCache;
+import org.openwms.core.preferences.impl.resolve.PreferenceResolutionIndex;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * A PreferencesCacheInvalidatorTest runs against a stubbed broker connection.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferencesCacheInvalidatorTest {
+
+    private static final String CHANGED = "preference.event.changed";
+
+    private PreferenceCache cache;
+    private PreferenceResolutionIndex resolutionIndex;
+    private PreferenceChangeBroadcaster changeBroadcaster;
+    private PreferencePersistencePort persistencePort;
+    private ConnectionFactory connectionFactory;
+    private PreferencesProperties properties;
+    private PreferencesCacheInvalidator testee;
+
+    @BeforeEach
+    void onSetup() {
+        cache = mock(PreferenceCache.class);
+        resolutionIndex = mock(PreferenceResolutionIndex.class);
+        changeBroadcaster = mock(PreferenceChangeBroadcaster.class);
+        persistencePort = mock(PreferencePersistencePort.class);
+        connectionFactory = mock(ConnectionFactory.class);
+        properties = new PreferencesProperties();
+        var beanFactory = new StaticListableBeanFactory(Map.of("preferenceCache", cache));
+        testee = new PreferencesCacheInvalidator(beanFactory.getBeanProvider(PreferenceCache.class), resolutionIndex, changeBroadcaster,
+                persistencePort, properties, connectionFactory);
+    }
+
+    private static PreferenceMO userPreference() {
+        var mo = new PreferenceMO("key1");
+        mo.setpKey("1");
+        mo.setOwner("owner1");
+        mo.setScope(PropertyScope.USER.name());
+        mo.setVal("value");
+        mo.setType("STRING");
+        return mo;
+    }
+
+    private static Preference persistedUserPreference() {
+        return Preference.newBuilder()
+                .pKey("1")
+                .key("key1")
+                .owner("owner1")
+                .scope(PropertyScope.USER)
+                .type(PreferenceType.INT)
+                .val("5")
+                .defValue("1")
+                .minValue("0")
+                .maxValue("10")
+                .fromFile(true)
+                .ol(3)
+                .build();
+    }
+
+    @Test
+    void shall_register_for_connection_events() {
+        verify(connectionFactory).addConnectionListener(testee);
+    }
+
+    @Test
+    void shall_skip_self_originated_events() {
+        testee.onEvent(userPreference(), CHANGED, properties.getNodeId());
+        verify(cache, never()).evict(any());
+        verify(cache, never()).clear();
+        verifyNoInteractions(resolutionIndex);
+        verifyNoInteractions(changeBroadcaster);
+    }
+
+    @Test
+    void shall_evict_on_remote_events() {
+        var persisted = persistedUserPreference();
+        when(persistencePort.findBypKey("1")).thenReturn(Optional.of(persisted));
+
+        testee.onEvent(userPreference(), CHANGED, "anotherNode");
+
+        var inOrder = inOrder(cache, persistencePort);
+        inOrder.verify(cache).evict(argThat(p -> "1".equals(p.getPersistentKey()) && p.getScope() == PropertyScope.USER && "owner1".equals(p.getOwner())));
+        inOrder.verify(persistencePort).findBypKey("1");
+        verify(resolutionIndex).put(persisted);
+        verify(changeBroadcaster).broadcast(eq(CHANGED), argThat(mo -> "1".equals(mo.getpKey())));
+    }
+
+    @Test
+    void shall_apply_the_full_persisted_state_on_remote_events() {
+        when(persistencePort.findBypKey("1")).thenReturn(Optional.of(persistedUserPreference()));
+
+        testee.onEvent(userPreference(), CHANGED, "anotherNode");
+
+        verify(resolutionIndex).put(argThat(p -> "5".equals(p.getVal()) && "1".equals(p.getDefValue()) && "0".equals(p.getMinValue())
+                && "10".equals(p.getMaxValue()) && p.isFromFile() && p.getOl() == 3 && p.getType() == PreferenceType.INT));
+    }
+
+    @Test
+    void shall_remove_remote_changes_deleted_meanwhile() {
+        when(persistencePort.findBypKey("1")).thenReturn(Optional.empty());
+
+        testee.onEvent(userPreference(), CHANGED, "anotherNode");
+
+        verify(resolutionIndex).remove("1");
+        verify(resolutionIndex, never()).put(any());
+    }
+
+    @Test
+    void shall_remove_remote_deletions_from_resolution_index() {
+        testee.onEvent(userPreference(), "preference.event.deleted", "anotherNode");
+        verify(resolutionIndex).remove("1");
+        verify(resolutionIndex, never()).put(any());
+        verifyNoInteractions(persistencePort);
+    }
+
+    @Test
+    void shall_clear_on_remote_events_without_scope() {
+        var mo = userPreference();
+        mo.setScope(null);
+        testee.onEvent(mo, CHANGED, "anotherNode");
+        verify(cache).clear();
+        verify(resolutionIndex).clear();
+    }
+
+    @Test
+    void shall_clear_on_remote_bulk_events() {
+        var persisted = persistedUserPreference();
+        when(persistencePort.findAllByBusinessKeys(any())).thenReturn(List.of(persisted));
+
+        testee.onBulkEvent(new PreferenceBulkMO(List.of(userPreference()), List.of()), "anotherNode");
+
+        verify(cache).clear();
+        verify(persistencePort).findAllByBusinessKeys(argThat(keys -> keys.size() == 1 && keys.stream()
+                .allMatch(k -> "key1".equals(k.getKey()) && "owner1".equals(k.getOwner()) && k.getScope() == PropertyScope.USER)));
+        verify(resolutionIndex).put(persisted);
+        verify(changeBroadcaster).broadcast(eq("preference.event.created"), argThat(mo -> "1".equals(mo.getpKey())));
+    }
+
+    @Test
+    void shall_skip_self_originated_bulk_events() {
+        testee.onBulkEvent(new PreferenceBulkMO(List.of(userPreference()), List.of()), properties.getNodeId());
+        verify(cache, never()).clear();
+    }
+
+    @Test
+    void shall_clear_on_reconnect() {
+        testee.onCreate(mock(Connection.class));
+        verify(cache).clear();
+        verify(resolutionIndex).clear();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.api.messages.PreferenceMO;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.openwms.core.preferences.impl.outbox.OutboxMessage;
+import org.openwms.core.preferences.impl.outbox.OutboxPort;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A PreferencesOutboxRelayTest runs against a stubbed outbox and broker.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferencesOutboxRelayTest {
+
+    private static final String CHANGED = "preference.event.changed";
+
+    private OutboxPort outbox;
+    private RabbitTemplate rabbitTemplate;
+    private RabbitOperations operations;
+    private JsonMapper jsonMapper;
+    private PreferencesOutboxRelay testee;
+
+    @BeforeEach
+    void onSetup() {
+        outbox = mock(OutboxPort.class);
+        rabbitTemplate = mock(RabbitTemplate.class);
+        operations = mock(RabbitOperations.class);
+        jsonMapper = JsonMapper.builder().build();
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(mock(ConnectionFactory.class));
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class))).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations));
+        when(outbox.findOldestCreatedDt()).thenReturn(Optional.empty());
+        var beanFactory = new StaticListableBeanFactory();
+        testee = new PreferencesOutboxRelay(outbox, rabbitTemplate, jsonMapper, beanFactory.getBeanProvider(PlatformTransactionManager.class),
+                "core.preferences", new PreferencesProperties(), beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    private OutboxMessage message(String id) {
+        var mo = new PreferenceMO("key1");
+        mo.setpKey(id);
+        return new OutboxMessage(id, CHANGED, jsonMapper.writeValueAsString(mo), "node1", LocalDateTime.now().minusSeconds(1));
+    }
+
+    @Test
+    void shall_publish_and_remove_batch() {
+        when(outbox.takeNextBatch(anyInt())).thenReturn(List.of(message("1"), message("2")));
+
+        testee.drain();
+
+        verify(operations).convertAndSend(eq("core.preferences"), eq(CHANGED), any(PreferenceMO.class), any(MessagePostProcessor.class));
+        verify(outbox).delete(List.of("1", "2"));
+    }
+
+    @Test
+    void shall_do_nothing_on_empty_outbox() {
+        when(outbox.takeNextBatch(anyInt())).thenReturn(List.of());
+
+        testee.drain();
+
+        verify(rabbitTemplate, never()).invoke(any(RabbitOperations.OperationsCallback.class));
+        verify(outbox, never()).delete(anyCollection());
+        assertThat(testee.getLagMillis()).isZero();
+    }
+
+    @Test
+    void shall_keep_batch_when_publishing_fails() {
+        var message = message("1");
+        when(outbox.takeNextBatch(anyInt())).thenReturn(List.of(message));
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class))).thenThrow(new AmqpException("Broker not available"));
+        when(outbox.findOldestCreatedDt()).thenReturn(Optional.of(message.createdDt()));
+
+        testee.drain();
+
+        verify(outbox, never()).delete(anyCollection());
+        assertThat(testee.getLagMillis()).isPositive();
+    }
+}
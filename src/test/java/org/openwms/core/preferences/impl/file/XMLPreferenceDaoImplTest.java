@@ -0,0 +1,165 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.file;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.ameba.exception.IntegrationLayerException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openwms.core.preferences.config.PreferencesProperties;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A XMLPreferenceDaoImplTest.
+ *
+ * @author Heiko Scherrer
+ */
+class XMLPreferenceDaoImplTest {
+
+    @TempDir
+    Path dir;
+    private Path file;
+    private SimpleMeterRegistry registry;
+    private XMLPreferenceDaoImpl testee;
+
+    @BeforeEach
+    void onSetup() {
+        file = dir.resolve("preferences.xml");
+        var unmarshaller = new Jaxb2Marshaller();
+        unmarshaller.setContextPath(FilePackage.class.getPackageName());
+        registry = new SimpleMeterRegistry();
+        var beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+        testee = new XMLPreferenceDaoImpl(new GenericApplicationContext(), unmarshaller, file.toUri().toString(),
+                new PreferencesProperties(), beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    private XMLPreferenceDaoImpl streaming() {
+        var properties = new PreferencesProperties();
+        properties.getFileStreaming().setEnabled(true);
+        return new XMLPreferenceDaoImpl(new GenericApplicationContext(), new Jaxb2Marshaller(), file.toUri().toString(), properties,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    }
+
+    private void write(String applicationPreferences) throws IOException {
+        Files.writeString(file, """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <p:preferences xmlns:p="http://www.openwms.org/schema/preferences">
+                %s
+                </p:preferences>
+                """.formatted(applicationPreferences));
+    }
+
+    @Test
+    void shall_return_the_difference_on_reload() throws IOException {
+        write("""
+                <application key="key1" val="val1" type="STRING">description</application>
+                <application key="key2" val="val2" type="STRING">description</application>
+                <application key="key3" val="val3" type="STRING">description</application>
+                """);
+        var diff = testee.reload();
+        assertThat(diff.added()).hasSize(3);
+        assertThat(testee.findAll()).hasSize(3);
+
+        write("""
+                <application key="key1" val="val1" type="STRING">description</application>
+                <application key="key2" val="changed" type="STRING">description</application>
+                <application key="key4" val="val4" type="STRING">description</application>
+                """);
+        diff = testee.reload();
+
+        assertThat(diff.added()).extracting(GenericPreference::getValue).containsExactly("val4");
+        assertThat(diff.changed()).extracting(GenericPreference::getValue).containsExactly("changed");
+        assertThat(diff.removed()).containsExactly(new ApplicationPreference("key3").getPrefKey());
+        assertThat(testee.findAll()).extracting(GenericPreference::getValue).containsExactly("val1", "changed", "val4");
+        assertThat(testee.reload().isEmpty()).isTrue();
+        assertThat(registry.get(XMLPreferenceDaoImpl.RELOAD_METRIC).timer().count()).isEqualTo(3);
+        assertThat(registry.get(XMLPreferenceDaoImpl.ENTRIES_METRIC).gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void shall_keep_the_former_preferences_if_the_file_is_invalid() throws IOException {
+        write("""
+                <application key="key1" val="val1" type="STRING">description</application>
+                """);
+        testee.reload();
+        Files.writeString(file, "<p:preferences xmlns:p=\"http://www.openwms.org/schema/preferences\"><applica");
+
+        assertThatThrownBy(() -> testee.reload()).isInstanceOf(RuntimeException.class);
+        assertThat(testee.findAll()).extracting(GenericPreference::getValue).containsExactly("val1");
+    }
+
+    @Test
+    void shall_pass_the_preferences_of_a_file_from_the_snapshot() throws IOException {
+        write("""
+                <application key="key1" val="val1" type="STRING">description</application>
+                <application key="key2" val="val2" type="STRING">description</application>
+                """);
+        testee.reload();
+        var source = testee.findSources().getFirst();
+        // Not parsed again, the broken file is not reloaded
+        Files.writeString(file, "<p:preferences xmlns:p=\"http://www.openwms.org/schema/preferences\"><applica");
+        var batches = new ArrayList<List<String>>();
+
+        var count = testee.forEachBatch(source, 1, batch -> batches.add(batch.stream().map(GenericPreference::getValue).toList()));
+
+        assertThat(count).isEqualTo(2);
+        assertThat(batches).containsExactly(List.of("val1"), List.of("val2"));
+    }
+
+    @Test
+    void shall_stream_in_batches() throws IOException {
+        write("""
+                <application key="key1" val="val1" type="STRING">description</application>
+                <!-- a comment between elements -->
+                <module key="key2" val="val2" type="STRING" owner="module1">description</module>
+                <user key="key3" val="val3" type="STRING" owner="u1">desc</user><role key="key4" val="val4" type="STRING" owner="r1"/>
+                <application key="key5" val="val5" type="STRING">description</application>
+                """);
+        var batches = new ArrayList<List<String>>();
+
+        var count = streaming().forEachBatch(2, batch -> batches.add(batch.stream().map(GenericPreference::getValue).toList()));
+
+        assertThat(count).isEqualTo(5);
+        assertThat(batches).containsExactly(List.of("val1", "val2"), List.of("val3", "val4"), List.of("val5"));
+    }
+
+    @Test
+    void shall_not_stream_any_preference_of_an_invalid_file() throws IOException {
+        write("""
+                <application key="key1" val="val1" type="STRING">description</application>
+                <application key="key2" val="val2">description</application>
+                """);
+        var batches = new ArrayList<List<GenericPreference>>();
+        var testee = streaming();
+
+        assertThatThrownBy(() -> testee.forEachBatch(1, batches::add)).isInstanceOf(IntegrationLayerException.class);
+        assertThat(batches).isEmpty();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.jpa;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestClassOrder;
+import org.openwms.core.preferences.CoreApplicationTest;
+import org.openwms.core.preferences.DefaultTestProfile;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceType;
+import org.openwms.core.preferences.PreferencesService;
+import org.openwms.core.preferences.PropertyScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A PreferenceIdAllocationIT compares the insert throughput of {@link PreferenceEO}s with pooled id allocation to the throughput with
+ * one sequence call per id, as it was before. Each variant runs in its own application context. Runs with the TEST (H2) and the TESTPG
+ * (PostgreSQL) profile. The pooled variant runs first, so that a sequence created by the schema generation has the pooled increment.
+ *
+ * @author Heiko Scherrer
+ */
+@CoreApplicationTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Sql(scripts = "classpath:delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+class PreferenceIdAllocationIT extends DefaultTestProfile {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreferenceIdAllocationIT.class);
+    private static final int ROWS = 2_000;
+    private static final Map<Integer, Result> RESULTS = new ConcurrentHashMap<>();
+
+    private record Result(long millis, long statements) {
+    }
+
+    @Nested
+    @Order(1)
+    @TestPropertySource(properties = "owms.preferences.id-increment-size=50")
+    class PooledIds {
+
+        @Autowired
+        private PreferencesService preferencesService;
+        @Autowired
+        private EntityManagerFactory emf;
+
+        @Test
+        void shall_insert_with_pooled_ids() {
+            RESULTS.put(50, insert(preferencesService, emf, "pooled"));
+        }
+    }
+
+    @Nested
+    @Order(2)
+    @TestPropertySource(properties = "owms.preferences.id-increment-size=1")
+    class SingleIds {
+
+        @Autowired
+        private PreferencesService preferencesService;
+        @Autowired
+        private EntityManagerFactory emf;
+
+        @Test
+        void shall_insert_with_single_ids() {
+            RESULTS.put(1, insert(preferencesService, emf, "single"));
+        }
+    }
+
+    private static Result insert(PreferencesService preferencesService, EntityManagerFactory emf, String prefix) {
+        var statistics = emf.unwrap(SessionFactoryImplementor.class).getStatistics();
+        statistics.clear();
+
+        var start = System.nanoTime();
+        var results = preferencesService.upsertAll(IntStream.range(0, ROWS)
+                .mapToObj(i -> Preference.newBuilder()
+                        .key(prefix + i)
+                        .owner("owner")
+                        .scope(PropertyScope.USER)
+                        .type(PreferenceType.STRING)
+                        .val(String.valueOf(i))
+                        .build())
+                .toList());
+        var millis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+
+        assertThat(results).hasSize(ROWS);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        LOGGER.info("Inserted [{}] Preferences with [{}] ids in [{}]ms ([{}] rows/s, [{}] statements prepared)",
+                ROWS, prefix, millis, ROWS * 1000L / millis, statistics.getPrepareStatementCount());
+        return new Result(millis, statistics.getPrepareStatementCount());
+    }
+
+    @AfterAll
+    static void compare() {
+        var pooled = RESULTS.get(50);
+        var single = RESULTS.get(1);
+        if (pooled == null || single == null) {
+            return;
+        }
+        LOGGER.info("Pooled ids: [{}]ms and [{}] statements, single ids: [{}]ms and [{}] statements, speedup [{}]",
+                pooled.millis(), pooled.statements(), single.millis(), single.statements(),
+                "%.2f".formatted((double) single.millis() / pooled.millis()));
+        // With one id per sequence call each insert needs its own sequence call, that is at least one prepared statement per row
+        assertThat(single.statements()).isGreaterThanOrEqualTo(ROWS);
+        assertThat(pooled.statements()).isLessThan(single.statements() / 10);
+    }
+}
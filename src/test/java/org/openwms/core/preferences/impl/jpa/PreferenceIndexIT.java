@@ -0,0 +1,129 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.jpa;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.CoreDataTest;
+import org.openwms.core.preferences.DefaultTestProfile;
+import org.openwms.core.preferences.PropertyScope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A PreferenceIndexIT verifies with H2's {@code EXPLAIN} that the owner/scope lookups and the changes since a watermark are answered from
+ * the indexes of the {@link PreferenceEO} instead of a table scan. The explained statements are the ones Hibernate generates for the
+ * queries of the {@link PreferenceRepository}, captured with a {@link StatementInspector}, with the bind parameters replaced by literals.
+ *
+ * @author Heiko Scherrer
+ */
+@CoreDataTest
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.openwms.core.preferences.impl.jpa.PreferenceIndexIT$Capture")
+class PreferenceIndexIT extends DefaultTestProfile {
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private PreferenceRepository repository;
+
+    /**
+     * Records all statements Hibernate sends to the database.
+     */
+    public static class Capture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void onBefore() {
+        Capture.STATEMENTS.clear();
+    }
+
+    private String explainGenerated(String... literals) {
+        var sql = Capture.STATEMENTS.stream()
+                .filter(s -> s.toLowerCase().startsWith("select") && s.toLowerCase().contains("cor_pref_preference"))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No query on COR_PREF_PREFERENCE captured"));
+        var bound = new StringBuilder();
+        var param = 0;
+        for (var c : sql.toCharArray()) {
+            if (c == '?') {
+                bound.append('\'').append(literals[param++]).append('\'');
+            } else {
+                bound.append(c);
+            }
+        }
+        assertThat(param).as("Bind parameters of [%s]", sql).isEqualTo(literals.length);
+        return String.valueOf(em.getEntityManager().createNativeQuery("EXPLAIN " + bound).getSingleResult());
+    }
+
+    @Test
+    void shall_use_index_for_owner_scope_and_key() {
+        repository.findByOwnerAndScopeAndKey("owner1", PropertyScope.USER, "key1");
+        assertThat(explainGenerated("owner1", "USER", "key1")).doesNotContain("tableScan");
+    }
+
+    @Test
+    void shall_use_index_for_scope_and_key() {
+        repository.findByScopeAndKey(PropertyScope.APPLICATION, "key1");
+        assertThat(explainGenerated("APPLICATION", "key1")).doesNotContain("tableScan");
+    }
+
+    @Test
+    void shall_use_index_for_owner_and_scope() {
+        repository.findByOwnerAndScope("owner1", PropertyScope.USER);
+        assertThat(explainGenerated("owner1", "USER")).contains("IDX_PREF_SCOPE_OWNER_");
+    }
+
+    @Test
+    void shall_use_index_for_owner_scope_and_group_name() {
+        repository.findByOwnerAndScopeAndGroupName("owner1", PropertyScope.USER, "GLOBAL");
+        assertThat(explainGenerated("owner1", "USER", "GLOBAL")).contains("IDX_PREF_SCOPE_OWNER_GROUP");
+    }
+
+    @Test
+    void shall_use_index_for_scope_and_group_name() {
+        repository.findByScopeAndGroupName(PropertyScope.MODULE, "GLOBAL");
+        assertThat(explainGenerated("MODULE", "GLOBAL")).doesNotContain("tableScan");
+    }
+
+    @Test
+    void shall_use_index_for_changes_since() {
+        repository.findModifiedSince(LocalDateTime.of(2026, 1, 1, 0, 0));
+        assertThat(explainGenerated("2026-01-01 00:00:00")).doesNotContain("tableScan");
+    }
+
+    @Test
+    void shall_use_index_for_changes_of_owner_and_scope_since() {
+        repository.findModifiedSinceByOwnerAndScope(LocalDateTime.of(2026, 1, 1, 0, 0), "owner1", PropertyScope.USER);
+        assertThat(explainGenerated("owner1", "USER", "2026-01-01 00:00:00")).doesNotContain("tableScan");
+    }
+}
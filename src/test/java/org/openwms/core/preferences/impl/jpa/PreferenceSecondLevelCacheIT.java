@@ -0,0 +1,115 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.jpa;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.CoreApplicationTest;
+import org.openwms.core.preferences.DefaultTestProfile;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.impl.PreferencePersistencePort;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A PreferenceSecondLevelCacheIT verifies that repeated lookups of {@link PreferenceEO}s are answered from the Hibernate second-level and
+ * query cache without any SQL statement, that a change is visible with the next lookup and that an update keeps the other cached entities.
+ *
+ * @author Heiko Scherrer
+ */
+@CoreApplicationTest
+@TestPropertySource(properties = {
+        "owms.preferences.second-level-cache.enabled=true",
+        "owms.preferences.second-level-cache.statistics=true"
+})
+@Sql("classpath:test.sql")
+@Sql(scripts = "classpath:delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class PreferenceSecondLevelCacheIT extends DefaultTestProfile {
+
+    private static final int LOOKUPS = 10;
+    @Autowired
+    private PreferenceRepository repository;
+    @Autowired
+    private PreferencePersistencePort persistencePort;
+    @Autowired
+    private EntityManagerFactory emf;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private Statistics statistics;
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void onSetup() {
+        // The test data is inserted and deleted with plain SQL, that Hibernate is not aware of
+        var sessionFactory = emf.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    private PreferenceEO lookup() {
+        return tx.execute(s -> repository.findByOwnerAndScopeAndKey("owner1", PropertyScope.USER, "key1").orElseThrow());
+    }
+
+    @Test
+    void shall_lookup_without_sql() {
+        assertThat(lookup().getVal()).isEqualTo("current val");
+        var prepared = statistics.getPrepareStatementCount();
+        assertThat(prepared).isPositive();
+
+        IntStream.range(0, LOOKUPS).forEach(i -> assertThat(lookup().getVal()).isEqualTo("current val"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(prepared);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(LOOKUPS);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(LOOKUPS);
+    }
+
+    @Test
+    void shall_lookup_changed_preference() {
+        lookup();
+        tx.executeWithoutResult(s -> repository.findBypKey("1000").orElseThrow().setVal("changed val"));
+
+        assertThat(lookup().getVal()).isEqualTo("changed val");
+    }
+
+    @Test
+    void shall_update_and_keep_other_preferences_cached() {
+        tx.execute(s -> repository.findBypKey("1001").orElseThrow());
+        var preference = tx.execute(s -> persistencePort.findBypKey("1000").orElseThrow());
+        preference.setVal("changed val");
+
+        var updated = tx.execute(s -> persistencePort.update("1000", preference, preference.getOl()).orElseThrow());
+
+        assertThat(updated.getOl()).isEqualTo(preference.getOl() + 1);
+        assertThat(updated.getVal()).isEqualTo("changed val");
+        assertThat(emf.getCache().contains(PreferenceEO.class, 1001L)).isTrue();
+        assertThatThrownBy(() -> tx.execute(s -> persistencePort.update("1000", preference, preference.getOl())))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+}
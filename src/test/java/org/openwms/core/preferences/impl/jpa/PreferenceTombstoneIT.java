@@ -0,0 +1,104 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.jpa;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.CoreApplicationTest;
+import org.openwms.core.preferences.DefaultTestProfile;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceTombstone;
+import org.openwms.core.preferences.PreferenceType;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.impl.PreferencePersistencePort;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A PreferenceTombstoneIT verifies that created {@link PreferenceEO}s are found by their modification time and that deleted ones leave
+ * tombstones that are filtered by watermark, owner and scope and that are purged after the retention.
+ *
+ * @author Heiko Scherrer
+ */
+@CoreApplicationTest
+@Sql("classpath:test.sql")
+@Sql(scripts = "classpath:delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class PreferenceTombstoneIT extends DefaultTestProfile {
+
+    @Autowired
+    private PreferencePersistencePort persistencePort;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private TransactionTemplate tx;
+    private LocalDateTime beforeDelete;
+
+    @BeforeEach
+    void onSetup() {
+        tx = new TransactionTemplate(transactionManager);
+        beforeDelete = LocalDateTime.now().minusSeconds(1);
+        tx.executeWithoutResult(s -> {
+            persistencePort.delete(persistencePort.findBypKey("1000").orElseThrow());
+            persistencePort.delete(persistencePort.findBypKey("1002").orElseThrow());
+        });
+    }
+
+    @Test
+    void shall_filter_tombstones_by_owner_and_scope() {
+        assertThat(persistencePort.findDeletedSince(beforeDelete, "owner1", PropertyScope.USER))
+                .extracting(PreferenceTombstone::pKey).containsExactly("1000");
+        assertThat(persistencePort.findDeletedSince(beforeDelete, null, PropertyScope.APPLICATION))
+                .extracting(PreferenceTombstone::pKey).containsExactly("1002");
+        assertThat(persistencePort.findDeletedSince(beforeDelete, "owner2", PropertyScope.USER)).isEmpty();
+        assertThat(persistencePort.findDeletedSince(beforeDelete, "owner1", null))
+                .extracting(PreferenceTombstone::pKey).containsExactly("1000");
+        assertThat(persistencePort.findDeletedSince(beforeDelete, null, null))
+                .extracting(PreferenceTombstone::pKey).containsExactlyInAnyOrder("1000", "1002");
+    }
+
+    @Test
+    void shall_filter_tombstones_by_watermark() {
+        assertThat(persistencePort.findDeletedSince(LocalDateTime.now().plusSeconds(1), null, null)).isEmpty();
+    }
+
+    @Test
+    void shall_purge_tombstones_before() {
+        tx.executeWithoutResult(s -> persistencePort.deleteTombstonesBefore(beforeDelete));
+        assertThat(persistencePort.findDeletedSince(beforeDelete, null, null)).hasSize(2);
+
+        tx.executeWithoutResult(s -> persistencePort.deleteTombstonesBefore(LocalDateTime.now().plusSeconds(1)));
+        assertThat(persistencePort.findDeletedSince(beforeDelete, null, null)).isEmpty();
+    }
+
+    @Test
+    void shall_find_created_preferences_by_modification_time() {
+        var created = tx.execute(s -> persistencePort.save(Preference.newBuilder()
+                .key("keyNew").owner("owner1").scope(PropertyScope.USER).type(PreferenceType.STRING).build()));
+
+        assertThat(created.getLastModifiedDt()).isNotNull();
+        assertThat(persistencePort.findModifiedSince(beforeDelete, "owner1", null))
+                .extracting(Preference::getPersistentKey).contains(created.getPersistentKey()).doesNotContain("1000");
+        assertThat(persistencePort.findModifiedSince(beforeDelete, null, PropertyScope.USER))
+                .extracting(Preference::getPersistentKey).contains(created.getPersistentKey()).doesNotContain("1000");
+        assertThat(persistencePort.findModifiedSince(beforeDelete, null, PropertyScope.ROLE))
+                .extracting(Preference::getPersistentKey).doesNotContain(created.getPersistentKey());
+    }
+}
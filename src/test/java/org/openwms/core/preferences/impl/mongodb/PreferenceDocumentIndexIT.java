@@ -0,0 +1,119 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.mongodb;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openwms.core.preferences.PropertyScope;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A PreferenceDocumentIndexIT verifies with MongoDB's {@code explain} that the owner/scope lookups of the
+ * {@link PreferenceDocumentRepository} are answered from the compound indexes of the {@link PreferenceDocument} instead of a collection
+ * scan. The explained filters are the ones the derived queries send to the server, captured with a {@link CommandListener}. Runs only with
+ * the MONGODB profile against the server of {@literal spring.mongodb.uri}.
+ *
+ * @author Heiko Scherrer
+ */
+@EnabledIfSystemProperty(named = "spring.profiles.active", matches = ".*MONGODB.*")
+class PreferenceDocumentIndexIT {
+
+    private static final List<BsonDocument> FILTERS = new CopyOnWriteArrayList<>();
+    private static MongoClient client;
+    private static MongoTemplate template;
+    private static PreferenceDocumentRepository repository;
+
+    @BeforeAll
+    static void onBeforeAll() {
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(System.getProperty("spring.mongodb.uri", "mongodb://localhost:27017")))
+                .addCommandListener(new CommandListener() {
+                    @Override
+                    public void commandStarted(CommandStartedEvent event) {
+                        if ("find".equals(event.getCommandName())) {
+                            FILTERS.add(event.getCommand().getDocument("filter", new BsonDocument()).clone());
+                        }
+                    }
+                })
+                .build());
+        template = new MongoTemplate(client, "preferences_index_it");
+        var indexOps = template.indexOps(PreferenceDocument.class);
+        IndexResolver.create(template.getConverter().getMappingContext()).resolveIndexFor(PreferenceDocument.class)
+                .forEach(indexOps::createIndex);
+        repository = new MongoRepositoryFactory(template).getRepository(PreferenceDocumentRepository.class);
+    }
+
+    @AfterAll
+    static void onAfterAll() {
+        template.getDb().drop();
+        client.close();
+    }
+
+    @BeforeEach
+    void onBefore() {
+        FILTERS.clear();
+    }
+
+    private String explainSent() {
+        assertThat(FILTERS).as("Captured find commands").isNotEmpty();
+        var explain = template.getCollection(template.getCollectionName(PreferenceDocument.class))
+                .find(FILTERS.getLast())
+                .explain();
+        return explain.get("queryPlanner", Document.class).toJson();
+    }
+
+    @Test
+    void shall_use_index_for_owner_scope_and_key() {
+        repository.findByOwnerAndScopeAndKey("owner1", PropertyScope.USER, "key1");
+        assertThat(explainSent()).contains("IXSCAN", "idx_pref_scope_owner_key").doesNotContain("COLLSCAN");
+    }
+
+    @Test
+    void shall_use_index_for_owner_and_scope() {
+        repository.findByOwnerAndScope("owner1", PropertyScope.USER);
+        assertThat(explainSent()).contains("IXSCAN", "idx_pref_scope_owner_").doesNotContain("COLLSCAN");
+    }
+
+    @Test
+    void shall_use_index_for_owner_scope_and_group_name() {
+        repository.findByOwnerAndScopeAndGroupName("owner1", PropertyScope.USER, "GLOBAL");
+        assertThat(explainSent()).contains("IXSCAN", "idx_pref_scope_owner_group").doesNotContain("COLLSCAN");
+    }
+
+    @Test
+    void shall_use_index_for_missing_owner() {
+        repository.findByOwnerAndScopeAndKey(null, PropertyScope.APPLICATION, "key1");
+        assertThat(explainSent()).contains("IXSCAN", "idx_pref_scope_owner_key").doesNotContain("COLLSCAN");
+    }
+}
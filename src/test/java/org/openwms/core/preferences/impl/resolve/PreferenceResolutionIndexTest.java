@@ -0,0 +1,124 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.resolve;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceTombstone;
+import org.openwms.core.preferences.PreferencesEvent;
+import org.openwms.core.preferences.PropertyScope;
+import org.openwms.core.preferences.impl.PreferencePersistencePort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A PreferenceResolutionIndexTest.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferenceResolutionIndexTest {
+
+    private PreferencePersistencePort persistencePort;
+    private PreferenceResolutionIndex testee;
+
+    @BeforeEach
+    void onSetup() {
+        persistencePort = mock(PreferencePersistencePort.class);
+        testee = new PreferenceResolutionIndex(persistencePort);
+        when(persistencePort.findAll()).thenReturn(List.of(
+                preference("1", PropertyScope.APPLICATION, null, "app"),
+                preference("2", PropertyScope.MODULE, "module1", "module"),
+                preference("3", PropertyScope.ROLE, "role1", "role1"),
+                preference("4", PropertyScope.ROLE, "role2", "role2"),
+                preference("5", PropertyScope.USER, "user1", "user")
+        ));
+    }
+
+    private static Preference preference(String pKey, PropertyScope scope, String owner, String val) {
+        return Preference.newBuilder().pKey(pKey).key("key1").scope(scope).owner(owner).val(val).build();
+    }
+
+    private String resolve(String user, List<String> roles, String module) {
+        return testee.resolve("key1", user, roles, module).map(Preference::getVal).orElse(null);
+    }
+
+    @Test
+    void shall_resolve_in_order_of_precedence() {
+        assertThat(resolve("user1", List.of("role1", "role2"), "module1")).isEqualTo("user");
+        assertThat(resolve("user2", List.of("role2", "role1"), "module1")).isEqualTo("role2");
+        assertThat(resolve("user2", List.of("role3"), "module1")).isEqualTo("module");
+        assertThat(resolve(null, List.of(), "module2")).isEqualTo("app");
+        assertThat(testee.resolve("unknown", "user1", List.of(), null)).isEmpty();
+        verify(persistencePort, times(1)).findAll();
+    }
+
+    @Test
+    void shall_apply_events() {
+        resolve(null, List.of(), null);
+
+        testee.onEvent(new PreferencesEvent(preference("6", PropertyScope.USER, "user2", "user2"), PreferencesEvent.Type.CREATED));
+        assertThat(resolve("user2", List.of("role1"), null)).isEqualTo("user2");
+
+        var moved = preference("5", PropertyScope.USER, "user3", "user3");
+        testee.onEvent(new PreferencesEvent(moved, PreferencesEvent.Type.UPDATED));
+        assertThat(resolve("user1", List.of(), null)).isEqualTo("app");
+        assertThat(resolve("user3", List.of(), null)).isEqualTo("user3");
+
+        testee.onEvent(new PreferencesEvent(preference("1", PropertyScope.APPLICATION, null, "app"), PreferencesEvent.Type.DELETED));
+        assertThat(resolve("user1", List.of(), null)).isNull();
+    }
+
+    @Test
+    void shall_reload_after_clear() {
+        resolve(null, List.of(), null);
+        testee.clear();
+        resolve(null, List.of(), null);
+        verify(persistencePort, times(2)).findAll();
+    }
+
+    @Test
+    void shall_load_from_snapshot_and_apply_changes_since() {
+        var watermark = LocalDateTime.now().minusMinutes(1);
+        when(persistencePort.findModifiedSince(watermark, null, null)).thenReturn(List.of(
+                preference("3", PropertyScope.ROLE, "role1", "changed")
+        ));
+        when(persistencePort.findDeletedSince(watermark, null, null)).thenReturn(List.of(
+                new PreferenceTombstone("5", "key1", "user1", PropertyScope.USER, watermark.plusSeconds(1))
+        ));
+
+        var loaded = testee.loadFrom(List.of(
+                preference("1", PropertyScope.APPLICATION, null, "app"),
+                preference("3", PropertyScope.ROLE, "role1", "role1"),
+                preference("5", PropertyScope.USER, "user1", "user")
+        ), watermark);
+
+        assertThat(loaded).isTrue();
+        assertThat(resolve("user1", List.of("role1"), null)).isEqualTo("changed");
+        assertThat(resolve("user1", List.of(), null)).isEqualTo("app");
+        assertThat(testee.indexed()).extracting(Preference::getPersistentKey).containsExactlyInAnyOrder("1", "3");
+        assertThat(testee.loadFrom(List.of(), watermark)).isFalse();
+        verify(persistencePort, never()).findAll();
+    }
+}
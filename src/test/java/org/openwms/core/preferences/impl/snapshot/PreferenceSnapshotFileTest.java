@@ -0,0 +1,92 @@
+/*
+ * Copyright 2005-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.preferences.impl.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openwms.core.preferences.Preference;
+import org.openwms.core.preferences.PreferenceType;
+import org.openwms.core.preferences.PropertyScope;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A PreferenceSnapshotFileTest.
+ *
+ * @author Heiko Scherrer
+ */
+class PreferenceSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    private static Preference preference(String pKey, PropertyScope scope, String owner) {
+        return Preference.newBuilder()
+                .pKey(pKey)
+                .key("key1")
+                .owner(owner)
+                .scope(scope)
+                .type(PreferenceType.INT)
+                .val("42")
+                .minValue("0")
+                .groupName("GLOBAL")
+                .description("Grüße")
+                .fromFile(true)
+                .lastModifiedDt(LocalDateTime.of(2026, 10, 18, 12, 0, 1))
+                .ol(3)
+                .build();
+    }
+
+    @Test
+    void shall_read_what_has_been_written() throws IOException {
+        var file = dir.resolve("preferences.snapshot");
+        var watermark = LocalDateTime.of(2026, 10, 18, 12, 0, 0);
+        PreferenceSnapshotFile.write(file, new PreferenceSnapshot(watermark, List.of(
+                preference("1", PropertyScope.USER, "user1"),
+                preference("2", PropertyScope.APPLICATION, null)
+        )));
+
+        var snapshot = PreferenceSnapshotFile.read(file);
+
+        assertThat(snapshot.watermark()).isEqualTo(watermark);
+        assertThat(snapshot.preferences()).hasSize(2);
+        var user = snapshot.preferences().getFirst();
+        assertThat(user).usingRecursiveComparison().ignoringFields("typedVal").isEqualTo(preference("1", PropertyScope.USER, "user1"));
+        assertThat(snapshot.preferences().get(1).getOwner()).isNull();
+        assertThat(snapshot.preferences().get(1).getMaxValue()).isNull();
+    }
+
+    @Test
+    void shall_reject_a_corrupt_snapshot() throws IOException {
+        var file = dir.resolve("preferences.snapshot");
+        PreferenceSnapshotFile.write(file, new PreferenceSnapshot(LocalDateTime.now(), List.of(preference("1", PropertyScope.USER, "u1"))));
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F}), Files.size(file) - 1);
+        }
+
+        assertThatThrownBy(() -> PreferenceSnapshotFile.read(file)).isInstanceOf(IOException.class).hasMessageContaining("checksum");
+    }
+}
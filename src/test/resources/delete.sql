@@ -1 +1 @@
-delete from COR_PREF_PREFERENCE;
\ No newline at end of file
+delete from COR_PREF_PREFERENCE;delete from COR_PREF_TOMBSTONE;